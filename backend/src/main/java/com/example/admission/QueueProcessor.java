@@ -3,23 +3,35 @@ package com.example.admission;
 
 import com.example.admission.service.AdmissionService;
 import com.example.admission.service.LoadBalancingOptimizer;
+import com.example.admission.dto.QueueStatsSnapshot;
 import com.example.admission.service.QueueMetrics;
+import com.example.admission.service.QueueStatsSnapshotService;
 import com.example.admission.ws.WebSocketBroadcastService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.TaskScheduler;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 
+import java.time.Instant;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * 대기열 처리기 (QueueProcessor).
  *
  * 2초마다(설정 가능) 실행되어 대기열의 사용자를 Active 세션으로 승격시킨다.
  *
+ * 이벤트 기반 승격:
+ * 예매 완료 / 퇴장 / 세션 만료로 슬롯이 반환되면 SlotReleaseListener가 requestPromotion()을 호출하고,
+ * queue.promotion-debounce-ms 뒤 해당 영화만 즉시 승격한다 (같은 영화의 연속 이벤트는 1회로 합침).
+ * 주기 처리는 이벤트 유실 대비 안전망으로 유지한다.
+ * 같은 영화를 주기 처리와 이벤트 처리가 동시에 승격하지 않도록 영화별 락으로 직렬화한다.
+ *
  * 핵심 변경 사항 (2.2 리팩토링):
  * - 하드코딩된 movieId 목록 제거 -> admissionService.getActiveQueueMovieIds() 동적 조회
  * - parallelStream() 제거 -> 순차 루프 (Redis Lua 원자성 보장)
@@ -40,6 +52,16 @@ public class QueueProcessor {
     private final WebSocketBroadcastService broadcastService;
     private final LoadBalancingOptimizer loadBalancer;
     private final QueueMetrics queueMetrics;
+    private final TaskScheduler taskScheduler;
+    private final QueueStatsSnapshotService snapshotService;
+
+    // 디바운스 대기 중인 영화 (중복 예약 방지)
+    private final Set<String> pendingPromotions = ConcurrentHashMap.newKeySet();
+    // 영화별 승격 직렬화 락
+    private final Map<String, Object> movieLocks = new ConcurrentHashMap<>();
+
+    @Value("${queue.promotion-debounce-ms:20}")
+    private long promotionDebounceMs;
 
     // Dev=100, Prod=5000 (vacantSlots가 자연 상한이므로 BATCH_SIZE는 안전 밸브 역할)
     @Value("${queue.processing-batch-size:100}")
@@ -48,11 +70,35 @@ public class QueueProcessor {
     public QueueProcessor(AdmissionService admissionService,
                           WebSocketBroadcastService broadcastService,
                           LoadBalancingOptimizer loadBalancer,
-                          QueueMetrics queueMetrics) {
+                          QueueMetrics queueMetrics,
+                          @Qualifier("taskScheduler") TaskScheduler taskScheduler,
+                          QueueStatsSnapshotService snapshotService) {
         this.admissionService = admissionService;
         this.broadcastService = broadcastService;
         this.loadBalancer = loadBalancer;
         this.queueMetrics = queueMetrics;
+        this.taskScheduler = taskScheduler;
+        this.snapshotService = snapshotService;
+    }
+
+    /**
+     * 슬롯 반환 이벤트에 의한 승격 요청 (디바운스).
+     * 이미 예약된 영화면 무시하고, 아니면 promotionDebounceMs 뒤 담당 Pod에서만 승격한다.
+     */
+    public void requestPromotion(String movieId) {
+        if (!pendingPromotions.add(movieId)) {
+            return;
+        }
+        taskScheduler.schedule(() -> {
+            pendingPromotions.remove(movieId);
+            try {
+                if (loadBalancer.shouldProcessMovie(movieId)) {
+                    processMovieQueue("movie", movieId);
+                }
+            } catch (Exception e) {
+                logger.warn("이벤트 기반 승격 실패: {}", movieId, e);
+            }
+        }, Instant.now().plusMillis(promotionDebounceMs));
     }
 
     /**
@@ -94,6 +140,12 @@ public class QueueProcessor {
      * 3) 승격된 사용자에게 Redis Pub/Sub로 입장 알림 전송
      */
     private void processMovieQueue(String type, String movieId) {
+        synchronized (movieLocks.computeIfAbsent(movieId, id -> new Object())) {
+            promoteWaitingUsers(type, movieId);
+        }
+    }
+
+    private void promoteWaitingUsers(String type, String movieId) {
         try {
             long vacantSlots = admissionService.getVacantSlots(type, movieId);
             long waitingCount = admissionService.getTotalWaitingCount(type, movieId);
@@ -111,11 +163,9 @@ public class QueueProcessor {
                     logger.info("영화 {} - {}명 입장 처리 완료", movieId, admittedUsers.size());
 
                     // Prometheus Counter 증가 (승격 건수)
-                    for (String requestId : admittedUsers) {
-                        queueMetrics.incrementProcessed(movieId);
-                        // 승격된 사용자에게 Redis Pub/Sub로 입장 알림 전송
-                        broadcastService.notifyAdmission(requestId, movieId);
-                    }
+                    queueMetrics.incrementProcessed(movieId, admittedUsers.size());
+                    // 승격된 사용자 전체를 ADMISSION_BATCH로 발행 (소유 Pod별 1건)
+                    broadcastService.notifyAdmissionBatch(movieId, admittedUsers);
                 }
             }
 
@@ -142,24 +192,14 @@ public class QueueProcessor {
      */
     public Map<String, Object> getProcessorStatus() {
         try {
-            Set<String> activeMovies = admissionService.getActiveQueueMovieIds();
-
-            long totalWaiting = 0;
-            long totalActive = 0;
-            for (String movieId : activeMovies) {
-                try {
-                    totalWaiting += admissionService.getTotalWaitingCount("movie", movieId);
-                    totalActive += admissionService.getTotalActiveCount("movie", movieId);
-                } catch (Exception e) {
-                    logger.warn("영화 {} 통계 조회 실패", movieId, e);
-                }
-            }
+            // RealtimeStatsBroadcaster가 갱신하는 스냅샷 재사용 (영화별 재조회 없음)
+            QueueStatsSnapshot snapshot = snapshotService.getSnapshot();
 
             return Map.of(
                 "processingBatchSize", processingBatchSize,
-                "activeMovies", activeMovies.size(),
-                "totalWaitingUsers", totalWaiting,
-                "totalActiveUsers", totalActive,
+                "activeMovies", snapshot.movies().size(),
+                "totalWaitingUsers", snapshot.totalWaiting(),
+                "totalActiveUsers", snapshot.totalActive(),
                 "lastProcessedAt", System.currentTimeMillis(),
                 "status", "HEALTHY"
             );
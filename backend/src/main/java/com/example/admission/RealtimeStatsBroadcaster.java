@@ -1,15 +1,17 @@
 // src/main/java/com/example/admission/RealtimeStatsBroadcaster.java
 package com.example.admission;
 
-import com.example.admission.service.AdmissionService;
+import com.example.admission.dto.QueueStatsSnapshot;
 import com.example.admission.service.QueueMetrics;
+import com.example.admission.service.QueueStatsSnapshotService;
+import com.example.admission.service.StatsPublisherLease;
 import com.example.admission.ws.WebSocketBroadcastService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 
-import java.util.Set;
+import java.util.Map;
 
 /**
  * 실시간 대기열 통계 브로드캐스터 (broadcast-only 아키텍처).
@@ -29,6 +31,11 @@ import java.util.Set;
  * - previousRanks 캐시 -> 삭제
  * - getAllUserRanks() 호출 -> 삭제
  *
+ * 단일 발행자 (StatsPublisherLease):
+ * - 모든 Pod가 스냅샷/메트릭은 갱신하지만, STATS 발행은 영화별 lease 보유 Pod 하나만 한다.
+ * - 발행마다 단조 증가 seq를 붙여 리스너/클라이언트가 중복·역순 프레임을 버릴 수 있다.
+ * - 팬아웃 트래픽이 클라이언트 수 x Pod 수가 아니라 클라이언트 수에 비례한다.
+ *
  * 클라이언트 측 순위 계산:
  * myCurrentRank = myInitialRank - data.totalProcessed
  */
@@ -37,49 +44,61 @@ public class RealtimeStatsBroadcaster {
 
     private static final Logger logger = LoggerFactory.getLogger(RealtimeStatsBroadcaster.class);
 
-    private final AdmissionService admissionService;
+    private final QueueStatsSnapshotService snapshotService;
     private final WebSocketBroadcastService broadcastService;
     private final QueueMetrics queueMetrics;
+    private final StatsPublisherLease publisherLease;
 
-    public RealtimeStatsBroadcaster(AdmissionService admissionService,
+    public RealtimeStatsBroadcaster(QueueStatsSnapshotService snapshotService,
                                     WebSocketBroadcastService broadcastService,
-                                    QueueMetrics queueMetrics) {
-        this.admissionService = admissionService;
+                                    QueueMetrics queueMetrics,
+                                    StatsPublisherLease publisherLease) {
+        this.snapshotService = snapshotService;
         this.broadcastService = broadcastService;
         this.queueMetrics = queueMetrics;
+        this.publisherLease = publisherLease;
     }
 
     /**
      * 1초마다 전체 통계 브로드캐스트.
      * 각 활성 영화에 대해 waitingCount, activeCount, totalProcessed를 발행한다.
      * 개별 순위(ZRANK)를 계산하지 않으므로 Redis 부하가 최소화된다.
+     *
+     * 통계는 QueueStatsSnapshotService 파이프라인 스냅샷 1회 조회로 모든 영화를 한 번에 가져오고,
+     * 같은 스냅샷을 QueueMetrics / AdmissionMetricsService가 재사용한다.
      */
     @Scheduled(fixedRate = 1000)
     public void broadcastRealtimeStats() {
         try {
-            Set<String> movieIds = admissionService.getActiveQueueMovieIds();
+            QueueStatsSnapshot snapshot = snapshotService.refresh();
 
-            if (movieIds.isEmpty()) {
+            if (snapshot.movies().isEmpty()) {
                 return;
             }
 
-            for (String movieId : movieIds) {
+            for (Map.Entry<String, QueueStatsSnapshot.MovieStats> entry : snapshot.movies().entrySet()) {
+                String movieId = entry.getKey();
+                QueueStatsSnapshot.MovieStats stats = entry.getValue();
                 try {
-                    long waitingCount = admissionService.getTotalWaitingCount("movie", movieId);
-                    long activeCount = admissionService.getTotalActiveCount("movie", movieId);
-                    long totalProcessed = admissionService.getTotalProcessedCount("movie", movieId);
+                    long waitingCount = stats.waiting();
+                    long activeCount = stats.active();
+                    long totalProcessed = stats.processed();
 
                     // Prometheus Gauge 갱신 (KEDA trigger용)
                     queueMetrics.updateWaitingCount(movieId, waitingCount);
                     queueMetrics.updateActiveCount(movieId, activeCount);
 
-                    // 대기자 또는 활성 사용자가 있을 때만 브로드캐스트
+                    // 대기자 또는 활성 사용자가 있을 때만, lease 보유 Pod만 브로드캐스트
                     if (waitingCount > 0 || activeCount > 0) {
+                        long seq = publisherLease.acquire(movieId);
+                        if (seq == 0) {
+                            continue;
+                        }
                         broadcastService.broadcastQueueStats(
-                                movieId, waitingCount, activeCount, totalProcessed);
+                                movieId, waitingCount, activeCount, totalProcessed, seq);
 
-                        logger.debug("[실시간 통계] movieId={}, 대기={}명, 활성={}명, 누적처리={}명",
-                                movieId, waitingCount, activeCount, totalProcessed);
+                        logger.debug("[실시간 통계] movieId={}, 대기={}명, 활성={}명, 누적처리={}명, seq={}",
+                                movieId, waitingCount, activeCount, totalProcessed, seq);
                     }
                 } catch (Exception e) {
                     logger.error("영화 {} 통계 브로드캐스트 실패", movieId, e);
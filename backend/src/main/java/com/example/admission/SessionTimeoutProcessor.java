@@ -5,12 +5,15 @@ import com.example.admission.service.AdmissionMetricsService;
 import com.example.admission.service.AdmissionService;
 import com.example.admission.service.LoadBalancingOptimizer;
 import com.example.admission.ws.WebSocketBroadcastService;
+import com.example.seats.service.SeatInventory;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * 만료된 Active 세션을 정리하는 프로세서.
@@ -25,8 +28,14 @@ import java.util.Set;
  * - SESSION_TIMEOUT: admission.session-timeout-seconds (Dev=300, Prod=600)
  *
  * 2종 타임아웃 구분:
- * - 좌석 선점 TTL: seat:{movieId}:{theaterId}:{seatId} -> Redis EX 자동 만료 (300초)
+ * - 좌석 선점 TTL: seats:{movieId}:{theaterId}:holds -> SeatHoldSweeper가 만료 해제 (300초)
  * - Active 세션 타임아웃: sessions:{movieId}:active -> 이 프로세서가 처리 (Dev 300/Prod 600)
+ *
+ * 한 번에 처리하는 양은 활성 세션 수와 무관하게 제한된다:
+ * - session_expire.lua 1회 = Redis TIME 기준 만료 세션 최대 session-expire-batch개 제거 + 선점 해제 (원자적)
+ * - 스크립트가 "남은 만료 세션 있음"을 돌려주면 그 영화를 drain 대상으로 두고,
+ *   session-expire-drain-interval-ms 주기의 drainBacklog()가 배치 1회씩 이어서 처리 (스케줄러 스레드를 붙잡지 않음)
+ * - 타임아웃 알림은 배치당 TIMEOUT_BATCH (소유 Pod별 1건), 토큰 철회 / 슬롯 반환도 배치당 1회
  */
 @Component
 public class SessionTimeoutProcessor {
@@ -38,6 +47,12 @@ public class SessionTimeoutProcessor {
     private final AdmissionMetricsService metricsService;
     private final LoadBalancingOptimizer loadBalancer;
 
+    // 만료 세션이 배치 한도를 넘어 남아 있는 영화
+    private final Set<String> backlog = ConcurrentHashMap.newKeySet();
+
+    @Value("${admission.session-expire-batch:500}")
+    private int expireBatch;
+
     public SessionTimeoutProcessor(AdmissionService admissionService,
                                    WebSocketBroadcastService broadcastService,
                                    AdmissionMetricsService metricsService,
@@ -71,23 +86,43 @@ public class SessionTimeoutProcessor {
         }
     }
 
+    /**
+     * 이전 배치에서 만료 세션이 남은 영화만 배치 1회씩 이어서 처리한다.
+     */
+    @Scheduled(fixedDelayString = "${admission.session-expire-drain-interval-ms:200}")
+    public void drainBacklog() {
+        if (backlog.isEmpty()) {
+            return;
+        }
+        for (String movieId : backlog) {
+            if (loadBalancer.shouldProcessMovie(movieId)) {
+                processMovieExpiredSessions("movie", movieId);
+            } else {
+                backlog.remove(movieId);
+            }
+        }
+    }
+
     private void processMovieExpiredSessions(String type, String movieId) {
         try {
-            Set<String> expiredMembers = admissionService.findExpiredActiveSessions(type, movieId);
-
-            if (expiredMembers.isEmpty()) {
+            SeatInventory.SessionExpiry expiry = admissionService.expireActiveSessions(type, movieId, expireBatch);
+            if (expiry.more()) {
+                backlog.add(movieId);
+            } else {
+                backlog.remove(movieId);
+            }
+            if (expiry.expired().isEmpty()) {
                 return;
             }
 
-            logger.warn("[{}] 타임아웃된 활성 세션 {}개를 정리합니다.", movieId, expiredMembers.size());
-            admissionService.removeActiveSessions(type, movieId, expiredMembers);
+            logger.warn("[{}] 타임아웃된 활성 세션 {}개를 정리했습니다.{}", movieId, expiry.expired().size(),
+                    expiry.more() ? " (남은 만료 세션 이어서 처리)" : "");
 
-            for (String requestId : expiredMembers) {
-                // Redis Pub/Sub로 타임아웃 알림 전송 (모든 Pod에 브로드캐스트)
-                broadcastService.notifyTimeout(requestId, movieId);
-                metricsService.recordTimeout(movieId, 1);
-            }
+            // 소유 Pod별 TIMEOUT_BATCH 1건 (Redis Pub/Sub)
+            broadcastService.notifyTimeoutBatch(movieId, expiry.expired());
+            metricsService.recordTimeout(movieId, expiry.expired().size());
         } catch (Exception e) {
+            backlog.remove(movieId);
             logger.error("[{}] 만료 세션 처리 중 오류", movieId, e);
         }
     }
@@ -0,0 +1,40 @@
+package com.example.admission;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * SlotReleaseListener - "queue:slot-released" 구독자
+ *
+ * 슬롯 반환 이벤트(payload = movieId)를 받아 QueueProcessor에 디바운스 승격을 요청한다.
+ * 담당 Pod 판단과 실제 승격은 QueueProcessor 스케줄러 스레드에서 실행되므로
+ * 구독 스레드는 즉시 반환된다.
+ *
+ * @see com.example.admission.service.SlotReleasePublisher
+ */
+@Component
+public class SlotReleaseListener implements MessageListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(SlotReleaseListener.class);
+
+    private final QueueProcessor queueProcessor;
+
+    public SlotReleaseListener(QueueProcessor queueProcessor) {
+        this.queueProcessor = queueProcessor;
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String movieId = new String(message.getBody(), StandardCharsets.UTF_8);
+        if (movieId.isBlank()) {
+            return;
+        }
+        logger.debug("슬롯 반환 이벤트 수신 - movieId: {}", movieId);
+        queueProcessor.requestPromotion(movieId);
+    }
+}
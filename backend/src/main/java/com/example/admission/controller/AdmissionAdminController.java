@@ -3,6 +3,9 @@ package com.example.admission.controller;
 import com.example.admission.service.AdmissionService;
 import com.example.admission.service.DynamicSessionCalculator;
 import com.example.pod.service.PodDiscoveryService;
+import com.example.seats.service.BookingCounterReconciler;
+import com.example.seats.service.BookingCounters;
+import com.example.seats.service.SeatService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import org.springframework.http.ResponseEntity;
@@ -19,13 +22,22 @@ public class AdmissionAdminController {
     private final AdmissionService admissionService;
     private final PodDiscoveryService podDiscoveryService;
     private final DynamicSessionCalculator sessionCalculator;
+    private final SeatService seatService;
+    private final BookingCounters bookingCounters;
+    private final BookingCounterReconciler bookingCounterReconciler;
 
     public AdmissionAdminController(AdmissionService admissionService,
                                   PodDiscoveryService podDiscoveryService,
-                                  DynamicSessionCalculator sessionCalculator) {
+                                  DynamicSessionCalculator sessionCalculator,
+                                  SeatService seatService,
+                                  BookingCounters bookingCounters,
+                                  BookingCounterReconciler bookingCounterReconciler) {
         this.admissionService = admissionService;
         this.podDiscoveryService = podDiscoveryService;
         this.sessionCalculator = sessionCalculator;
+        this.seatService = seatService;
+        this.bookingCounters = bookingCounters;
+        this.bookingCounterReconciler = bookingCounterReconciler;
     }
 
     @Operation(summary = "현재 세션 설정 조회", description = "동적 스케일링 설정과 현재 Pod 수를 확인합니다")
@@ -70,4 +82,29 @@ public class AdmissionAdminController {
         
         return ResponseEntity.ok(response);
     }
-}
\ No newline at end of file
+
+    @Operation(summary = "좌석 재고 메모리 측정", description = "비트맵 좌석 재고와 기존 좌석별 키의 Redis 키 수/메모리를 비교합니다")
+    @GetMapping("/seats/{movieId}/footprint")
+    public ResponseEntity<Map<String, Object>> getSeatInventoryFootprint(@PathVariable String movieId) {
+        return ResponseEntity.ok(seatService.getInventoryFootprint(movieId));
+    }
+
+    @Operation(summary = "판매 좌석 카운터 조회", description = "Redis 판매 좌석 카운터 기준 잔여 좌석(영화/상영관별)과 매진 여부를 확인합니다")
+    @GetMapping("/bookings/{movieId}/counters")
+    public ResponseEntity<Map<String, Object>> getBookingCounters(@PathVariable String movieId) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("movieId", movieId);
+        response.put("totalSeats", bookingCounters.totalSeats());
+        response.put("soldSeats", bookingCounters.soldSeats(movieId));
+        response.put("remainingSeats", bookingCounters.remainingSeats(movieId));
+        response.put("soldOut", bookingCounters.isSoldOut(movieId));
+        response.put("remainingByTheater", bookingCounters.remainingByTheater(movieId));
+        return ResponseEntity.ok(response);
+    }
+
+    @Operation(summary = "판매 좌석 카운터 재구성", description = "Redis 유실 후 MySQL 예매 기록으로 판매 좌석 카운터를 복구합니다")
+    @PostMapping("/bookings/{movieId}/counters/reconcile")
+    public ResponseEntity<Map<String, Object>> reconcileBookingCounters(@PathVariable String movieId) {
+        return ResponseEntity.ok(bookingCounterReconciler.reconcile(movieId));
+    }
+}
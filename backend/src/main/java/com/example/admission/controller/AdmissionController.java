@@ -3,13 +3,20 @@ package com.example.admission.controller;
 import com.example.admission.dto.*;
 import com.example.admission.service.AdmissionService;
 import com.example.admission.service.DynamicSessionCalculator;
+import com.example.admission.service.EnterCoalescer;
+import com.example.admission.service.UserStatusService;
+import com.example.admission.token.AdmissionToken;
+import com.example.admission.token.AdmissionTokenFilter;
+import com.example.admission.token.AdmissionTokenService;
 import com.example.seats.entity.Booking;
 import com.example.seats.repository.BookingRepository;
+import com.example.seats.service.BookingService;
 import com.example.seats.service.SeatService;
 import com.example.seats.service.TheaterService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Pattern;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.http.ResponseEntity;
@@ -19,6 +26,7 @@ import org.springframework.beans.factory.annotation.Value;
 
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * AdmissionController - 대기열 + 좌석/예매 통합 API
@@ -30,10 +38,15 @@ import java.util.Map;
  *   GET  /api/admission/system/config - 시스템 설정 조회
  *
  * 신규 엔드포인트 (2.2 spec):
- *   POST /api/admission/complete - 예매 완료 (좌석 lock -> booking 확정)
+ *   POST /api/admission/complete - 예매 완료 (좌석 선점 -> booking 확정, booking_complete.lua)
  *   GET  /api/theaters/{movieId} - 영화별 상영관 + 잔여 좌석
  *   POST /api/seats/select       - 원자적 멀티좌석 선점
+ *   POST /api/seats/release      - 선점 해제 (좌석 선택 취소)
+ *   POST /api/seats/extend       - 선점 연장 (결제 중)
  *   GET  /api/bookings           - 사용자 예매 내역 조회
+ *
+ * 좌석 / 예매 POST는 입장 토큰(X-Admission-Token) 필요 - AdmissionTokenFilter가 검증,
+ * 여기서는 토큰의 movieId / requestId 가 본문과 같은지만 확인한다 (Redis 호출 없음).
  */
 @RestController
 @RequestMapping("/api")
@@ -44,23 +57,35 @@ public class AdmissionController {
     private static final Logger logger = LoggerFactory.getLogger(AdmissionController.class);
 
     private final AdmissionService admissionService;
+    private final EnterCoalescer enterCoalescer;
+    private final UserStatusService userStatusService;
+    private final AdmissionTokenService tokenService;
     private final DynamicSessionCalculator sessionCalculator;
     private final SeatService seatService;
     private final TheaterService theaterService;
+    private final BookingService bookingService;
     private final BookingRepository bookingRepository;
 
     @Value("${admission.session-timeout-seconds:300}")
     private long sessionTimeoutSeconds;
 
     public AdmissionController(AdmissionService admissionService,
+                               EnterCoalescer enterCoalescer,
+                               UserStatusService userStatusService,
+                               AdmissionTokenService tokenService,
                                DynamicSessionCalculator sessionCalculator,
                                SeatService seatService,
                                TheaterService theaterService,
+                               BookingService bookingService,
                                BookingRepository bookingRepository) {
         this.admissionService = admissionService;
+        this.enterCoalescer = enterCoalescer;
+        this.userStatusService = userStatusService;
+        this.tokenService = tokenService;
         this.sessionCalculator = sessionCalculator;
         this.seatService = seatService;
         this.theaterService = theaterService;
+        this.bookingService = bookingService;
         this.bookingRepository = bookingRepository;
     }
 
@@ -68,14 +93,14 @@ public class AdmissionController {
 
     @Operation(summary = "대기열 진입", description = "영화 예매 대기열에 진입합니다")
     @PostMapping("/admission/enter")
-    public ResponseEntity<EnterResponse> enter(@Valid @RequestBody EnterRequest request) {
-        EnterResponse response = admissionService.enter("movie", request.movieId(),
-                request.requestId());
-
-        // ADMITTED -> 200 OK (즉시 입장), WAITING -> 202 Accepted (대기열 등록)
-        return (response.getStatus() == EnterResponse.Status.ADMITTED)
-                ? ResponseEntity.ok(response)
-                : ResponseEntity.accepted().body(response);
+    public CompletableFuture<ResponseEntity<EnterResponse>> enter(@Valid @RequestBody EnterRequest request) {
+        // admission.enter-coalescing.enabled=true 면 영화별 마이크로 배치로 모아 Redis 왕복 1회로 처리
+        return enterCoalescer.submit("movie", request.movieId(), request.requestId())
+                .thenApply(response ->
+                        // ADMITTED -> 200 OK (즉시 입장), WAITING -> 202 Accepted (대기열 등록)
+                        (response.getStatus() == EnterResponse.Status.ADMITTED)
+                                ? ResponseEntity.ok(response)
+                                : ResponseEntity.accepted().body(response));
     }
 
     @Operation(summary = "대기열 퇴장", description = "대기열에서 퇴장합니다")
@@ -103,74 +128,48 @@ public class AdmissionController {
         return ResponseEntity.ok(config);
     }
 
+    /**
+     * 사용자 상태 (user_status.lua 1회, UserStatusService Pod 로컬 단기 캐시)
+     * ETag = 상태 version, If-None-Match 일치 시 304
+     */
     @Operation(summary = "사용자 상태 확인", description = "사용자의 현재 대기열/활성 세션 상태를 확인합니다")
     @GetMapping("/admission/status")
-    public ResponseEntity<Map<String, Object>> checkUserStatus(
-            @RequestParam String movieId,
-            @RequestParam String requestId) {
-
-        // 활성 세션에 있는지 확인
-        if (admissionService.isUserInActiveSession("movie", movieId, requestId)) {
-            return ResponseEntity.ok(Map.of(
-                    "status", "ACTIVE",
-                    "action", "REDIRECT_TO_SEATS"
-            ));
-        }
-
-        // 대기열에 있는지 확인
-        Long rank = admissionService.getUserRank("movie", movieId, requestId);
-        if (rank != null) {
-            long totalWaiting = admissionService.getTotalWaitingCount("movie", movieId);
-            return ResponseEntity.ok(Map.of(
-                    "status", "WAITING",
-                    "rank", rank,
-                    "totalWaiting", totalWaiting
-            ));
+    public ResponseEntity<UserStatusResponse> checkUserStatus(
+            @RequestParam @Pattern(regexp = IdPattern.REGEXP, message = IdPattern.MESSAGE) String movieId,
+            @RequestParam @Pattern(regexp = IdPattern.REGEXP, message = IdPattern.MESSAGE) String requestId,
+            @RequestHeader(value = "If-None-Match", required = false) String ifNoneMatch) {
+        UserStatusResponse status = userStatusService.getStatus(movieId, requestId);
+        if (status.etag().equals(ifNoneMatch)) {
+            return ResponseEntity.status(304).eTag(status.etag()).build();
         }
-
-        // 둘 다 없음
-        return ResponseEntity.ok(Map.of(
-                "status", "NOT_FOUND",
-                "action", "REDIRECT_TO_MOVIES"
-        ));
+        return ResponseEntity.ok().eTag(status.etag()).body(status);
     }
 
     // ========== 신규 엔드포인트 (2.2 spec) ==========
 
     /**
-     * 예매 완료 API - 좌석 선점 lock을 확정하고 Booking 레코드를 생성한다.
-     * 활성 세션에서 사용자를 제거하고 매진 여부를 반환한다.
+     * 예매 완료 API - 좌석 선점을 확정한다.
+     * booking_complete.lua 한 번으로 선점 소유 확인 + 예매 기록 + 활성 세션 제거 + 판매 카운터 + 매진 판정,
+     * Booking 레코드는 비동기 저장 (응답 경로에서 MySQL 접근 없음).
      */
     @Operation(summary = "예매 완료", description = "선점된 좌석의 예매를 확정합니다")
     @PostMapping("/admission/complete")
-    public ResponseEntity<BookingResult> complete(@Valid @RequestBody CompleteRequest request) {
+    public ResponseEntity<BookingResult> complete(@Valid @RequestBody CompleteRequest request,
+            @RequestAttribute(value = AdmissionTokenFilter.CLAIMS_ATTRIBUTE, required = false) AdmissionToken token) {
+        tokenService.requireAdmitted(token, request.movieId(), request.requestId());
         logger.info("예매 완료 요청 - movieId={}, theaterId={}, seats={}, requestId={}",
                 request.movieId(), request.theaterId(), request.seatIds(), request.requestId());
 
-        // 1) 활성 세션에서 사용자 제거 (예매 완료 = 대기열 프로세스 종료)
-        admissionService.completeAdmission("movie", request.movieId(), request.requestId());
-
-        // 2) 예매된 좌석을 booked Set에 추가 (TheaterService 잔여 좌석 계산에 사용)
-        String bookingId = "BK-" + System.currentTimeMillis() + "-" + request.requestId().substring(0, 8);
-        int pricePerSeat = 15000;
-        int totalPrice = pricePerSeat * request.seatIds().size();
-
-        Booking booking = new Booking(
-                bookingId, request.movieId(), request.theaterId(),
-                request.seatIds(), totalPrice, request.requestId()
-        );
-        bookingRepository.save(booking);
-
-        // 3) 전체 예매 수 / 잔여 좌석 계산
-        long completedCount = bookingRepository.countByMovieId(request.movieId());
-        long totalSeats = 6000L; // 20극장 x 300석
-        long remainingSeats = Math.max(0, totalSeats - completedCount);
-        boolean soldOut = remainingSeats <= 0;
-
-        logger.info("예매 완료 - bookingId={}, completedCount={}, remainingSeats={}, soldOut={}",
-                bookingId, completedCount, remainingSeats, soldOut);
+        BookingResult result = bookingService.completeBooking(
+                request.movieId(), request.theaterId(),
+                request.seatIds(), request.requestId());
 
-        return ResponseEntity.ok(new BookingResult("COMPLETED", completedCount, remainingSeats, soldOut));
+        return switch (result.status()) {
+            // 409 Conflict - 선점이 만료되어 다른 사용자가 잡았거나 선점하지 않은 좌석
+            case "NOT_HELD" -> ResponseEntity.status(409).body(result);
+            case "ERROR" -> ResponseEntity.status(503).body(result);
+            default -> ResponseEntity.ok(result);
+        };
     }
 
     /**
@@ -178,18 +177,37 @@ public class AdmissionController {
      */
     @Operation(summary = "상영관 조회", description = "영화별 상영관과 잔여 좌석 수를 조회합니다")
     @GetMapping("/theaters/{movieId}")
-    public ResponseEntity<List<TheaterInfo>> getTheaters(@PathVariable String movieId) {
+    public ResponseEntity<List<TheaterInfo>> getTheaters(@PathVariable @Pattern(regexp = IdPattern.REGEXP, message = IdPattern.MESSAGE) String movieId) {
         List<TheaterInfo> theaters = theaterService.getTheaters(movieId);
         return ResponseEntity.ok(theaters);
     }
 
+    /**
+     * 상영관 좌석 맵 (선점/예매 비트맵 + 버전)
+     * ETag = 좌석 맵 버전, If-None-Match 일치 시 304
+     */
+    @Operation(summary = "좌석 맵 조회", description = "상영관의 선점/예매 좌석 비트맵과 버전을 조회합니다")
+    @GetMapping("/theaters/{movieId}/{theaterId}/seats")
+    public ResponseEntity<SeatMapResponse> getSeatMap(@PathVariable @Pattern(regexp = IdPattern.REGEXP, message = IdPattern.MESSAGE) String movieId,
+                                                      @PathVariable @Pattern(regexp = IdPattern.REGEXP, message = IdPattern.MESSAGE) String theaterId,
+                                                      @RequestHeader(value = "If-None-Match", required = false) String ifNoneMatch) {
+        SeatMapResponse seatMap = theaterService.getSeatMap(movieId, theaterId);
+        String etag = "\"" + seatMap.version() + "\"";
+        if (etag.equals(ifNoneMatch)) {
+            return ResponseEntity.status(304).eTag(etag).build();
+        }
+        return ResponseEntity.ok().eTag(etag).body(seatMap);
+    }
+
     /**
      * 원자적 멀티좌석 선점 (all-or-nothing)
-     * seat_lock.lua 기반, 최대 4좌석, TTL 300초
+     * seat_hold.lua 기반 (상영관 비트맵), 최대 4좌석, TTL 300초
      */
     @Operation(summary = "좌석 선점", description = "좌석을 원자적으로 선점합니다 (최대 4석)")
     @PostMapping("/seats/select")
-    public ResponseEntity<SeatLockResult> selectSeats(@Valid @RequestBody SeatSelectionRequest request) {
+    public ResponseEntity<SeatLockResult> selectSeats(@Valid @RequestBody SeatSelectionRequest request,
+            @RequestAttribute(value = AdmissionTokenFilter.CLAIMS_ATTRIBUTE, required = false) AdmissionToken token) {
+        tokenService.requireAdmitted(token, request.movieId(), request.requestId());
         logger.info("좌석 선점 요청 - movieId={}, theaterId={}, seats={}, requestId={}",
                 request.movieId(), request.theaterId(), request.seatIds(), request.requestId());
 
@@ -205,6 +223,58 @@ public class AdmissionController {
         }
     }
 
+    /**
+     * 자동 좌석 배정 - 선호 구역의 연속 좌석 N개(최대 4)를 찾아 선점
+     * seat_allocate.lua 기반 (탐색 + 선점 원자적), TTL 300초
+     */
+    @Operation(summary = "좌석 자동 배정", description = "선호 구역에서 가장 좋은 연속 좌석을 찾아 선점합니다 (최대 4석)")
+    @PostMapping("/seats/allocate")
+    public ResponseEntity<SeatAllocationResult> allocateSeats(@Valid @RequestBody SeatAllocationRequest request,
+            @RequestAttribute(value = AdmissionTokenFilter.CLAIMS_ATTRIBUTE, required = false) AdmissionToken token) {
+        tokenService.requireAdmitted(token, request.movieId(), request.requestId());
+        logger.info("좌석 자동 배정 요청 - movieId={}, theaterId={}, count={}, zone={}, requestId={}",
+                request.movieId(), request.theaterId(), request.count(), request.zone(), request.requestId());
+
+        SeatAllocationResult result = seatService.allocateSeats(
+                request.movieId(), request.theaterId(),
+                request.count(), request.zone(), request.requestId());
+
+        if ("ALLOCATED".equals(result.status())) {
+            return ResponseEntity.ok(result);
+        }
+        // 409 Conflict - 요청한 크기의 연속 빈 좌석 없음
+        return ResponseEntity.status(409).body(result);
+    }
+
+    /**
+     * 선점 해제 - 요청자가 선점한 좌석만 즉시 재고로 돌려준다
+     */
+    @Operation(summary = "좌석 선점 해제", description = "선점한 좌석을 TTL 만료 전에 해제합니다")
+    @PostMapping("/seats/release")
+    public ResponseEntity<SeatReleaseResult> releaseSeats(@Valid @RequestBody SeatSelectionRequest request,
+            @RequestAttribute(value = AdmissionTokenFilter.CLAIMS_ATTRIBUTE, required = false) AdmissionToken token) {
+        tokenService.requireAdmitted(token, request.movieId(), request.requestId());
+        return ResponseEntity.ok(seatService.releaseSeats(
+                request.movieId(), request.theaterId(),
+                request.seatIds(), request.requestId()));
+    }
+
+    /**
+     * 선점 연장 - 결제 중인 사용자의 모든 선점 만료를 지금부터 300초 뒤로 미룬다 (활성 세션만)
+     */
+    @Operation(summary = "좌석 선점 연장", description = "결제 중인 사용자의 선점을 연장합니다")
+    @PostMapping("/seats/extend")
+    public ResponseEntity<SeatLockResult> extendSeats(@Valid @RequestBody SeatExtendRequest request,
+            @RequestAttribute(value = AdmissionTokenFilter.CLAIMS_ATTRIBUTE, required = false) AdmissionToken token) {
+        tokenService.requireAdmitted(token, request.movieId(), request.requestId());
+        SeatLockResult result = seatService.extendHolds(request.movieId(), request.requestId());
+        if ("LOCKED".equals(result.status())) {
+            return ResponseEntity.ok(result);
+        }
+        // 409 Conflict - 세션 만료 또는 선점 없음
+        return ResponseEntity.status(409).body(result);
+    }
+
     /**
      * 사용자 예매 내역 조회
      */
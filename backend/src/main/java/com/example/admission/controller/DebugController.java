@@ -3,6 +3,7 @@ package com.example.admission.controller;
 import com.example.admission.service.AdmissionMetricsService;
 import com.example.admission.service.AdmissionService;
 import com.example.admission.ws.WebSocketUpdateService;
+import com.example.redis.LuaScriptRegistry;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import org.springframework.http.ResponseEntity;
@@ -21,13 +22,16 @@ public class DebugController {
     private final AdmissionService admissionService;
     private final AdmissionMetricsService metricsService;
     private final WebSocketUpdateService webSocketUpdateService;
+    private final LuaScriptRegistry scriptRegistry;
 
     public DebugController(AdmissionService admissionService,
                            AdmissionMetricsService metricsService,
-                           WebSocketUpdateService webSocketUpdateService) {
+                           WebSocketUpdateService webSocketUpdateService,
+                           LuaScriptRegistry scriptRegistry) {
         this.admissionService = admissionService;
         this.metricsService = metricsService;
         this.webSocketUpdateService = webSocketUpdateService;
+        this.scriptRegistry = scriptRegistry;
     }
 
     @Operation(summary = "전체 시스템 상태 종합 조회", description = "주요 컴포넌트들의 상태와 통계를 한 번에 확인합니다.")
@@ -38,6 +42,7 @@ public class DebugController {
         try {
             status.put("systemSummary", metricsService.getSystemSummary());
             status.put("webSocketStats", webSocketUpdateService.getWebSocketStats());
+            status.put("luaScripts", scriptRegistry.getScriptShas());
         } catch (Exception e) {
             status.put("error", "상태 조회 중 오류 발생: " + e.getMessage());
         }
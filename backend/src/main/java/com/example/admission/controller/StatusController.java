@@ -1,40 +1,35 @@
 // src/main/java/com/example/admission/controller/StatusController.java
 package com.example.admission.controller;
 
-import com.example.admission.service.AdmissionService;
+import com.example.admission.dto.IdPattern;
+import com.example.admission.dto.UserStatusResponse;
+import com.example.admission.service.UserStatusService;
+import jakarta.validation.constraints.Pattern;
 import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.Map;
-
 @RestController
+@Validated
 @RequestMapping("/api/status")
 public class StatusController {
 
-    private final AdmissionService admissionService;
+    private final UserStatusService userStatusService;
 
-    public StatusController(AdmissionService admissionService) {
-        this.admissionService = admissionService;
+    public StatusController(UserStatusService userStatusService) {
+        this.userStatusService = userStatusService;
     }
 
+    // /api/admission/status 와 같은 조회 (user_status.lua 1회 + 단기 캐시, ETag/304)
     @GetMapping("/check")
-    public ResponseEntity<Map<String, Object>> checkUserStatus(
-            @RequestParam String requestId,
-            @RequestParam String movieId) {
-        
-        // isUserInActiveSession: requestId만으로 조회 (sessionId 제거)
-        if (admissionService.isUserInActiveSession("movie", movieId, requestId)) {
-            return ResponseEntity.ok(Map.of("status", "ACTIVE", "action", "REDIRECT_TO_SEATS"));
-        }
-
-        // getUserRank: requestId만으로 조회 (sessionId 제거)
-        Long rank = admissionService.getUserRank("movie", movieId, requestId);
-        
-        if (rank != null) {
-            long totalWaiting = admissionService.getTotalWaitingCount("movie", movieId);
-            return ResponseEntity.ok(Map.of("status", "WAITING", "rank", rank, "totalWaiting", totalWaiting));
+    public ResponseEntity<UserStatusResponse> checkUserStatus(
+            @RequestParam @Pattern(regexp = IdPattern.REGEXP, message = IdPattern.MESSAGE) String requestId,
+            @RequestParam @Pattern(regexp = IdPattern.REGEXP, message = IdPattern.MESSAGE) String movieId,
+            @RequestHeader(value = "If-None-Match", required = false) String ifNoneMatch) {
+        UserStatusResponse status = userStatusService.getStatus(movieId, requestId);
+        if (status.etag().equals(ifNoneMatch)) {
+            return ResponseEntity.status(304).eTag(status.etag()).build();
         }
-        
-        return ResponseEntity.ok(Map.of("status", "NOT_FOUND", "action", "REDIRECT_TO_MOVIES"));
+        return ResponseEntity.ok().eTag(status.etag()).body(status);
     }
-}
\ No newline at end of file
+}
@@ -2,13 +2,15 @@ package com.example.admission.dto;
 
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.Size;
 
 import java.util.List;
 
 public record CompleteRequest(
-        @NotBlank String movieId,
-        @NotBlank String requestId,
-        @NotBlank String theaterId,
-        @NotEmpty List<String> seatIds
+        @NotBlank @Pattern(regexp = IdPattern.REGEXP, message = IdPattern.MESSAGE) String movieId,
+        @NotBlank @Pattern(regexp = IdPattern.REGEXP, message = IdPattern.MESSAGE) String requestId,
+        @NotBlank @Pattern(regexp = IdPattern.REGEXP, message = IdPattern.MESSAGE) String theaterId,
+        @NotEmpty @Size(max = 4) List<String> seatIds
 ) {
 }
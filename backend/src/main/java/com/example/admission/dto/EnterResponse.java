@@ -17,14 +17,21 @@ public class EnterResponse {
     private final String requestId;
     private final Long myRank;
     private final Long totalWaiting;
+    private final String admissionToken;   // ADMITTED 일 때만 (AdmissionTokenService)
 
     public EnterResponse(Status status, String message, String requestId,
                          Long myRank, Long totalWaiting) {
+        this(status, message, requestId, myRank, totalWaiting, null);
+    }
+
+    public EnterResponse(Status status, String message, String requestId,
+                         Long myRank, Long totalWaiting, String admissionToken) {
         this.status = status;
         this.message = message;
         this.requestId = requestId;
         this.myRank = myRank;
         this.totalWaiting = totalWaiting;
+        this.admissionToken = admissionToken;
     }
 
     // Getters
@@ -33,4 +40,5 @@ public class EnterResponse {
     public String getRequestId() { return requestId; }
     public Long getMyRank() { return myRank; }
     public Long getTotalWaiting() { return totalWaiting; }
+    public String getAdmissionToken() { return admissionToken; }
 }
@@ -0,0 +1,17 @@
+package com.example.admission.dto;
+
+/**
+ * API로 들어오는 식별자(movieId, theaterId, requestId) 형식
+ *
+ * 식별자는 Redis 키, 소유자 인덱스 멤버("theaterId|index"), Pub/Sub 프레임 헤더(RawFrame,
+ * '|' 구분 / '\n' 종료), STOMP destination 에 그대로 들어가므로 구분자가 될 수 있는 문자를 막는다.
+ * 영문, 숫자, '-', '_' 만 허용 (예: movie-avatar3, UUID requestId).
+ */
+public final class IdPattern {
+
+    public static final String REGEXP = "^[A-Za-z0-9_-]{1,64}$";
+    public static final String MESSAGE = "영문, 숫자, '-', '_' 로 된 64자 이하 ID여야 합니다";
+
+    private IdPattern() {
+    }
+}
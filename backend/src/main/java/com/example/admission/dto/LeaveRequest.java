@@ -1,13 +1,16 @@
 package com.example.admission.dto;
 
 import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Pattern;
 
 public class LeaveRequest {
 
     @NotBlank(message = "movieId is required")
+    @Pattern(regexp = IdPattern.REGEXP, message = IdPattern.MESSAGE)
     private String movieId;
 
     @NotBlank(message = "requestId is required")
+    @Pattern(regexp = IdPattern.REGEXP, message = IdPattern.MESSAGE)
     private String requestId;
 
     // 기본 생성자
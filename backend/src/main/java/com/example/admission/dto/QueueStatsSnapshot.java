@@ -0,0 +1,34 @@
+package com.example.admission.dto;
+
+import java.util.Map;
+
+/**
+ * 전체 영화의 대기열 통계 스냅샷 (한 번의 파이프라인 조회 결과).
+ *
+ * @param takenAt 조회 시각 (epoch ms)
+ * @param movies  movieId -> 영화별 통계
+ */
+public record QueueStatsSnapshot(
+        long takenAt,
+        Map<String, MovieStats> movies
+) {
+
+    public static QueueStatsSnapshot empty() {
+        return new QueueStatsSnapshot(0L, Map.of());
+    }
+
+    public long totalWaiting() {
+        return movies.values().stream().mapToLong(MovieStats::waiting).sum();
+    }
+
+    public long totalActive() {
+        return movies.values().stream().mapToLong(MovieStats::active).sum();
+    }
+
+    public record MovieStats(
+            long waiting,
+            long active,
+            long processed
+    ) {
+    }
+}
@@ -0,0 +1,15 @@
+package com.example.admission.dto;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Pattern;
+
+public record SeatAllocationRequest(
+        @NotBlank @Pattern(regexp = IdPattern.REGEXP, message = IdPattern.MESSAGE) String movieId,
+        @NotBlank @Pattern(regexp = IdPattern.REGEXP, message = IdPattern.MESSAGE) String theaterId,
+        @Min(1) @Max(4) int count,
+        String zone,
+        @NotBlank @Pattern(regexp = IdPattern.REGEXP, message = IdPattern.MESSAGE) String requestId
+) {
+}
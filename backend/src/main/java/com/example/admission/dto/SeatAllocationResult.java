@@ -0,0 +1,18 @@
+package com.example.admission.dto;
+
+import java.util.List;
+
+public record SeatAllocationResult(
+        String status,
+        List<String> seatIds,
+        Long lockedUntil
+) {
+
+    public static SeatAllocationResult allocated(List<String> seatIds, long ttlEpochMs) {
+        return new SeatAllocationResult("ALLOCATED", seatIds, ttlEpochMs);
+    }
+
+    public static SeatAllocationResult unavailable() {
+        return new SeatAllocationResult("UNAVAILABLE", List.of(), null);
+    }
+}
@@ -0,0 +1,10 @@
+package com.example.admission.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Pattern;
+
+public record SeatExtendRequest(
+        @NotBlank @Pattern(regexp = IdPattern.REGEXP, message = IdPattern.MESSAGE) String movieId,
+        @NotBlank @Pattern(regexp = IdPattern.REGEXP, message = IdPattern.MESSAGE) String requestId
+) {
+}
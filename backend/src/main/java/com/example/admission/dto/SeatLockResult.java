@@ -15,4 +15,8 @@ public record SeatLockResult(
     public static SeatLockResult conflict(List<String> conflicts) {
         return new SeatLockResult("CONFLICT", conflicts, null);
     }
+
+    public static SeatLockResult notActive() {
+        return new SeatLockResult("NOT_ACTIVE", List.of(), null);
+    }
 }
@@ -0,0 +1,18 @@
+package com.example.admission.dto;
+
+/**
+ * 상영관 좌석 맵.
+ * held/booked: Redis 비트맵 바이트의 Base64 (바이트 0의 최상위 비트 = 인덱스 0),
+ * 인덱스 = 행 순번(A=0) * seatsPerRow + (번호 - 1).
+ */
+public record SeatMapResponse(
+        String movieId,
+        String theaterId,
+        long version,
+        int rows,
+        int seatsPerRow,
+        String encoding,
+        String held,
+        String booked
+) {
+}
@@ -0,0 +1,13 @@
+package com.example.admission.dto;
+
+import java.util.List;
+
+public record SeatReleaseResult(
+        String status,
+        List<String> releasedSeats
+) {
+
+    public static SeatReleaseResult released(List<String> seatIds) {
+        return new SeatReleaseResult("RELEASED", seatIds);
+    }
+}
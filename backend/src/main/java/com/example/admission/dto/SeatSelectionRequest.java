@@ -2,14 +2,15 @@ package com.example.admission.dto;
 
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Pattern;
 import jakarta.validation.constraints.Size;
 
 import java.util.List;
 
 public record SeatSelectionRequest(
-        @NotBlank String movieId,
-        @NotBlank String theaterId,
+        @NotBlank @Pattern(regexp = IdPattern.REGEXP, message = IdPattern.MESSAGE) String movieId,
+        @NotBlank @Pattern(regexp = IdPattern.REGEXP, message = IdPattern.MESSAGE) String theaterId,
         @NotEmpty @Size(max = 4) List<String> seatIds,
-        @NotBlank String requestId
+        @NotBlank @Pattern(regexp = IdPattern.REGEXP, message = IdPattern.MESSAGE) String requestId
 ) {
 }
@@ -0,0 +1,39 @@
+package com.example.admission.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * 사용자 상태 조회 응답 (GET /api/admission/status, /api/status/check)
+ *
+ * version = 상태 + 순위 + 전체 대기자 수로 만든 값. 모든 Pod에서 같은 상태면 같은 값이므로
+ * ETag로 내보내고, 클라이언트가 If-None-Match로 보내면 바뀌지 않은 폴링은 304.
+ * ACTIVE 이면 입장 토큰을 함께 준다 (ADMISSION 알림을 놓친 클라이언트용).
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record UserStatusResponse(
+        String status,
+        String action,
+        Long rank,
+        Long totalWaiting,
+        String version,
+        String admissionToken
+) {
+
+    public static UserStatusResponse active(String admissionToken) {
+        return new UserStatusResponse("ACTIVE", "REDIRECT_TO_SEATS", null, null, "A", admissionToken);
+    }
+
+    public static UserStatusResponse waiting(long rank, long totalWaiting) {
+        return new UserStatusResponse("WAITING", null, rank, totalWaiting, "W" + rank + "-" + totalWaiting, null);
+    }
+
+    public static UserStatusResponse notFound() {
+        return new UserStatusResponse("NOT_FOUND", "REDIRECT_TO_MOVIES", null, null, "N", null);
+    }
+
+    @JsonIgnore
+    public String etag() {
+        return "\"" + version + "\"";
+    }
+}
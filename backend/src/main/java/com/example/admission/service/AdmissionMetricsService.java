@@ -3,7 +3,6 @@ package com.example.admission.service;
 import com.example.admission.dto.AdmissionMetrics;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
@@ -15,22 +14,16 @@ import java.util.concurrent.atomic.AtomicLong;
 public class AdmissionMetricsService {
     private static final Logger logger = LoggerFactory.getLogger(AdmissionMetricsService.class);
 
-    private static final String ACTIVE_MOVIES = "active_movies";
-    private static final String WAITING_MOVIES = "waiting_movies";
-
-    private final RedisTemplate<String, String> redisTemplate;
-    private final AdmissionService admissionService;
+    private final QueueStatsSnapshotService snapshotService;
     private final DynamicSessionCalculator sessionCalculator;
 
     private final Map<String, AtomicLong> realtimeMetrics = new ConcurrentHashMap<>();
     private final Map<String, Deque<Long>> historicalData = new ConcurrentHashMap<>();
     private final int HISTORY_LIMIT = 100;
 
-    public AdmissionMetricsService(RedisTemplate<String, String> redisTemplate,
-                                   AdmissionService admissionService,
+    public AdmissionMetricsService(QueueStatsSnapshotService snapshotService,
                                    DynamicSessionCalculator sessionCalculator) {
-        this.redisTemplate = redisTemplate;
-        this.admissionService = admissionService;
+        this.snapshotService = snapshotService;
         this.sessionCalculator = sessionCalculator;
 
         realtimeMetrics.put("totalEntriesProcessed", new AtomicLong(0));
@@ -110,32 +103,12 @@ public class AdmissionMetricsService {
     }
 
     /**
-     * SCAN 제거: Sorted Set ZCARD로 활성 세션 수 계산
+     * 활성 세션 수 합계 (QueueStatsSnapshotService 스냅샷 재사용, 추가 Redis 조회 없음)
      * Key pattern: sessions:{movieId}:active (Sorted Set)
      */
     public long getAllActiveSessionsCount() {
         try {
-            Set<String> movieIds = redisTemplate.opsForSet().members(ACTIVE_MOVIES);
-            if (movieIds == null || movieIds.isEmpty()) {
-                return 0L;
-            }
-
-            long total = 0L;
-            for (String movieId : movieIds) {
-                try {
-                    String activeSessionsKey = "sessions:{" + movieId + "}:active";
-                    Long sessionCount = redisTemplate.opsForZSet().zCard(activeSessionsKey);
-                    if (sessionCount != null) {
-                        total += sessionCount;
-                    }
-                } catch (Exception e) {
-                    logger.warn("영화 {} 활성 세션 수 조회 실패", movieId, e);
-                }
-            }
-
-            logger.debug("총 활성 세션 수 계산 완료: {} (영화 {}개)", total, movieIds.size());
-            return total;
-
+            return snapshotService.getSnapshot().totalActive();
         } catch (Exception e) {
             logger.error("활성 세션 수 계산 중 오류 발생", e);
             return 0L;
@@ -143,40 +116,12 @@ public class AdmissionMetricsService {
     }
 
     /**
-     * SCAN 제거: Sorted Set ZCARD로 대기 사용자 수 계산
+     * 대기 사용자 수 합계 (QueueStatsSnapshotService 스냅샷 재사용, 추가 Redis 조회 없음)
      * Key pattern: sessions:{movieId}:waiting (Sorted Set)
      */
     public long getAllWaitingUsersCount() {
         try {
-            // waiting_movies와 active_movies의 합집합으로 모든 영화 ID 수집
-            Set<String> allMovieIds = new HashSet<>();
-            
-            Set<String> waitingMovies = redisTemplate.opsForSet().members(WAITING_MOVIES);
-            Set<String> activeMovies = redisTemplate.opsForSet().members(ACTIVE_MOVIES);
-            
-            if (waitingMovies != null) allMovieIds.addAll(waitingMovies);
-            if (activeMovies != null) allMovieIds.addAll(activeMovies);
-            
-            if (allMovieIds.isEmpty()) {
-                return 0L;
-            }
-
-            long total = 0L;
-            for (String movieId : allMovieIds) {
-                try {
-                    String waitingQueueKey = "sessions:{" + movieId + "}:waiting";
-                    Long waitingCount = redisTemplate.opsForZSet().zCard(waitingQueueKey);
-                    if (waitingCount != null) {
-                        total += waitingCount;
-                    }
-                } catch (Exception e) {
-                    logger.warn("영화 {} 대기 사용자 수 조회 실패", movieId, e);
-                }
-            }
-
-            logger.debug("총 대기 사용자 수 계산 완료: {} (영화 {}개)", total, allMovieIds.size());
-            return total;
-
+            return snapshotService.getSnapshot().totalWaiting();
         } catch (Exception e) {
             logger.error("대기 사용자 수 계산 중 오류 발생", e);
             return 0L;
@@ -2,17 +2,24 @@
 package com.example.admission.service;
 
 import com.example.admission.dto.EnterResponse;
+import com.example.admission.dto.QueueStatsSnapshot;
+import com.example.admission.token.AdmissionTokenRevocations;
+import com.example.admission.token.AdmissionTokenService;
+import com.example.redis.LuaScriptRegistry;
+import com.example.seats.service.SeatHoldReleaser;
+import com.example.seats.service.SeatInventory;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.redis.RedisSystemException;
+import org.springframework.data.redis.core.RedisCallback;
 import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.data.redis.core.SetOperations;
 import org.springframework.data.redis.core.ZSetOperations;
-import org.springframework.data.redis.core.script.RedisScript;
 import org.springframework.stereotype.Service;
 import io.lettuce.core.RedisCommandExecutionException;
 
+import java.nio.charset.StandardCharsets;
 import java.util.*;
 
 @Service
@@ -28,18 +35,37 @@ public class AdmissionService {
     private final SetOperations<String, String> setOps;
     private final ZSetOperations<String, String> zSetOps;
     private final DynamicSessionCalculator sessionCalculator;
+    private final LuaScriptRegistry scriptRegistry;
+    private final SlotReleasePublisher slotReleasePublisher;
+    private final SeatHoldReleaser seatHoldReleaser;
+    private final AdmissionTokenService tokenService;
+    private final AdmissionTokenRevocations tokenRevocations;
 
     // SESSION_TIMEOUT: Dev=300초, Prod=600초 (values.yaml에서 환경변수로 주입)
     // @Value 기본값 300은 Dev 환경 기본값. Prod는 values-prod.yaml에서 600으로 덮어씀.
     @Value("${admission.session-timeout-seconds:300}")
     private long sessionTimeoutSeconds;
 
+    // true: TYPE 검사 + 레지스트리 SADD를 Lua 안으로 옮긴 단일 왕복 입장 (Non-Cluster 전용)
+    @Value("${admission.single-round-trip-enter:true}")
+    private boolean singleRoundTripEnter;
+
     public AdmissionService(RedisTemplate<String, String> redisTemplate,
-                            DynamicSessionCalculator sessionCalculator) {
+                            DynamicSessionCalculator sessionCalculator,
+                            LuaScriptRegistry scriptRegistry,
+                            SlotReleasePublisher slotReleasePublisher,
+                            SeatHoldReleaser seatHoldReleaser,
+                            AdmissionTokenService tokenService,
+                            AdmissionTokenRevocations tokenRevocations) {
         this.redisTemplate = redisTemplate;
         this.setOps = redisTemplate.opsForSet();
         this.zSetOps = redisTemplate.opsForZSet();
         this.sessionCalculator = sessionCalculator;
+        this.scriptRegistry = scriptRegistry;
+        this.slotReleasePublisher = slotReleasePublisher;
+        this.seatHoldReleaser = seatHoldReleaser;
+        this.tokenService = tokenService;
+        this.tokenRevocations = tokenRevocations;
     }
 
     // --- Redis 키 생성 (Hash Tag로 CROSSSLOT 방지) ---
@@ -94,6 +120,9 @@ public class AdmissionService {
      * Lua 스크립트로 active 세션 수 확인 + 즉시 입장 또는 대기열 등록을 원자적으로 처리한다.
      * Hash Tag 키({movieId})로 CROSSSLOT 오류를 방지한다.
      *
+     * admission.single-round-trip-enter=true 이면 TYPE 검사와 영화 레지스트리 SADD까지
+     * admission_atomic.lua 한 번의 호출로 처리한다 (Non-Cluster 전용).
+     *
      * @param type     컨텐츠 유형 ("movie")
      * @param movieId  영화 ID
      * @param requestId 사용자 요청 ID (고유 식별자)
@@ -103,87 +132,36 @@ public class AdmissionService {
         String activeKey = activeSessionsKey(type, movieId);
         String waitingKey = waitingQueueKey(type, movieId);
 
-        // 키 타입 사전 검증 (WRONGTYPE 오류 방지)
-        ensureKeyType(activeKey, "ZSET");
-        ensureKeyType(waitingKey, "ZSET");
-
         long now = System.currentTimeMillis();
         long maxSessions = sessionCalculator.calculateMaxActiveSessions();
 
-        // Lua 스크립트: active 세션 수 확인 후 즉시 입장 또는 대기열 등록
-        // KEYS[1] = activeKey, KEYS[2] = waitingKey (Hash Tag로 같은 슬롯)
-        String luaScript = """
-            local activeKey = KEYS[1]
-            local waitingKey = KEYS[2]
-            local maxSessions = tonumber(ARGV[1])
-            local member = ARGV[2]
-            local now = tonumber(ARGV[3])
-
-            -- 이미 활성 세션에 있는지 확인 (중복 입장 방지)
-            local existingScore = redis.call('ZSCORE', activeKey, member)
-            if existingScore then
-                return {1, 'ALREADY_ACTIVE', redis.call('ZCARD', activeKey)}
-            end
-
-            -- 이미 대기열에 있는지 확인 (중복 등록 방지)
-            local waitingScore = redis.call('ZSCORE', waitingKey, member)
-            if waitingScore then
-                local rank = redis.call('ZRANK', waitingKey, member)
-                local totalWaiting = redis.call('ZCARD', waitingKey)
-                return {2, 'ALREADY_WAITING', rank + 1, totalWaiting}
-            end
-
-            -- 현재 활성 세션 수 확인
-            local activeCount = redis.call('ZCARD', activeKey)
-
-            if activeCount < maxSessions then
-                -- 즉시 활성 세션으로 추가
-                redis.call('ZADD', activeKey, now, member)
-                return {1, 'ADMITTED', activeCount + 1}
-            else
-                -- 대기열에 추가
-                redis.call('ZADD', waitingKey, now, member)
-                local rank = redis.call('ZRANK', waitingKey, member)
-                local totalWaiting = redis.call('ZCARD', waitingKey)
-                return {2, 'WAITING', rank + 1, totalWaiting}
-            end
-        """;
-
         try {
-            RedisScript<List> script = RedisScript.of(luaScript, List.class);
-            List<Object> result = redisTemplate.execute(script,
+            if (singleRoundTripEnter) {
+                // scripts/admission_atomic.lua: WRONGTYPE 방어 + 입장/대기 분기 + 레지스트리 SADD
+                List<Object> result = scriptRegistry.executeForList("admission_atomic",
+                        Arrays.asList(activeKey, waitingKey, ACTIVE_MOVIES, WAITING_MOVIES),
+                        String.valueOf(maxSessions), requestId, String.valueOf(now), movieId);
+                return toEnterResponse(result, movieId, requestId, maxSessions);
+            }
+
+            // 키 타입 사전 검증 (WRONGTYPE 오류 방지)
+            ensureKeyType(activeKey, "ZSET");
+            ensureKeyType(waitingKey, "ZSET");
+
+            // scripts/admission.lua: active 세션 수 확인 후 즉시 입장 또는 대기열 등록
+            // KEYS[1] = activeKey, KEYS[2] = waitingKey (Hash Tag로 같은 슬롯)
+            List<Object> result = scriptRegistry.executeForList("admission",
                     Arrays.asList(activeKey, waitingKey),
                     String.valueOf(maxSessions), requestId, String.valueOf(now));
 
-            if (result == null || result.isEmpty()) {
-                throw new RuntimeException("Lua 스크립트 실행 결과가 비어 있음");
-            }
-
-            int statusCode = Integer.parseInt(result.get(0).toString());
+            EnterResponse response = toEnterResponse(result, movieId, requestId, maxSessions);
 
             // 영화를 활성 목록에 추가 (동적 movieId 추적)
             setOps.add(ACTIVE_MOVIES, movieId);
-            if (statusCode == 2) {
+            if (response.getStatus() == EnterResponse.Status.WAITING) {
                 setOps.add(WAITING_MOVIES, movieId);
             }
-
-            if (statusCode == 1) {
-                // 즉시 입장 (ADMITTED)
-                logger.info("즉시 입장 허가 - requestId: {}..., 현재 활성: {}/{}",
-                        requestId.substring(0, Math.min(8, requestId.length())),
-                        result.get(2), maxSessions);
-                return new EnterResponse(EnterResponse.Status.ADMITTED,
-                        "즉시 입장", requestId, null, null);
-            } else {
-                // 대기열 등록 (WAITING)
-                Long myRank = Long.parseLong(result.get(2).toString());
-                Long totalWaiting = Long.parseLong(result.get(3).toString());
-                logger.info("대기열 등록 완료 - rank: {}/{}, requestId: {}...",
-                        myRank, totalWaiting,
-                        requestId.substring(0, Math.min(8, requestId.length())));
-                return new EnterResponse(EnterResponse.Status.WAITING,
-                        "대기열 등록", requestId, myRank, totalWaiting);
-            }
+            return response;
         } catch (RedisSystemException e) {
             if (isWrongTypeError(e)) {
                 logger.error("Redis 스크립트 실행 오류. 키 정리 후 재시도 필요: {}", e.getMessage());
@@ -196,11 +174,95 @@ public class AdmissionService {
         }
     }
 
+    /**
+     * 같은 영화의 입장 요청 여러 건을 한 번의 Lua 호출로 처리한다 (EnterCoalescer 전용).
+     * requestIds 순서(도착 순서)대로 슬롯 배정 / 대기열 등록하고, 같은 순서로 결과를 반환한다.
+     *
+     * @param type       컨텐츠 유형 ("movie")
+     * @param movieId    영화 ID
+     * @param requestIds 도착 순서대로 정렬된 requestId 목록
+     * @return requestIds와 같은 순서의 EnterResponse 목록
+     */
+    @SuppressWarnings("unchecked")
+    public List<EnterResponse> enterBatch(String type, String movieId, List<String> requestIds) {
+        String activeKey = activeSessionsKey(type, movieId);
+        String waitingKey = waitingQueueKey(type, movieId);
+
+        long now = System.currentTimeMillis();
+        long maxSessions = sessionCalculator.calculateMaxActiveSessions();
+
+        // single-round-trip 모드에서만 레지스트리 키를 넘겨 스크립트 안에서 SADD
+        List<String> keys = singleRoundTripEnter
+                ? Arrays.asList(activeKey, waitingKey, ACTIVE_MOVIES, WAITING_MOVIES)
+                : Arrays.asList(activeKey, waitingKey);
+
+        String[] args = new String[3 + requestIds.size()];
+        args[0] = String.valueOf(maxSessions);
+        args[1] = String.valueOf(now);
+        args[2] = movieId;
+        for (int i = 0; i < requestIds.size(); i++) {
+            args[3 + i] = requestIds.get(i);
+        }
+
+        // scripts/admission_enter_batch.lua: 요청별 결과 배열 (admission.lua 반환값과 동일 형식)
+        List<Object> results = scriptRegistry.executeForList("admission_enter_batch", keys, args);
+        if (results == null || results.size() != requestIds.size()) {
+            throw new RuntimeException("배치 입장 결과 수 불일치: 요청 " + requestIds.size()
+                    + "건, 결과 " + (results == null ? 0 : results.size()) + "건");
+        }
+
+        List<EnterResponse> responses = new ArrayList<>(requestIds.size());
+        boolean anyWaiting = false;
+        for (int i = 0; i < requestIds.size(); i++) {
+            EnterResponse response = toEnterResponse((List<Object>) results.get(i), movieId, requestIds.get(i), maxSessions);
+            anyWaiting |= response.getStatus() == EnterResponse.Status.WAITING;
+            responses.add(response);
+        }
+
+        if (!singleRoundTripEnter) {
+            setOps.add(ACTIVE_MOVIES, movieId);
+            if (anyWaiting) {
+                setOps.add(WAITING_MOVIES, movieId);
+            }
+        }
+        return responses;
+    }
+
+    /**
+     * admission.lua / admission_atomic.lua 결과를 EnterResponse로 변환한다.
+     * result[0] = 1 (ADMITTED 계열) 또는 2 (WAITING 계열). ADMITTED 이면 입장 토큰을 함께 발급한다.
+     */
+    private EnterResponse toEnterResponse(List<Object> result, String movieId, String requestId, long maxSessions) {
+        if (result == null || result.isEmpty()) {
+            throw new RuntimeException("Lua 스크립트 실행 결과가 비어 있음");
+        }
+
+        int statusCode = Integer.parseInt(result.get(0).toString());
+
+        if (statusCode == 1) {
+            // 즉시 입장 (ADMITTED)
+            logger.info("즉시 입장 허가 - requestId: {}..., 현재 활성: {}/{}",
+                    requestId.substring(0, Math.min(8, requestId.length())),
+                    result.get(2), maxSessions);
+            return new EnterResponse(EnterResponse.Status.ADMITTED,
+                    "즉시 입장", requestId, null, null, tokenService.issue(movieId, requestId));
+        }
+
+        // 대기열 등록 (WAITING)
+        Long myRank = Long.parseLong(result.get(2).toString());
+        Long totalWaiting = Long.parseLong(result.get(3).toString());
+        logger.info("대기열 등록 완료 - rank: {}/{}, requestId: {}...",
+                myRank, totalWaiting,
+                requestId.substring(0, Math.min(8, requestId.length())));
+        return new EnterResponse(EnterResponse.Status.WAITING,
+                "대기열 등록", requestId, myRank, totalWaiting);
+    }
+
     // --- 예매 완료 (Active 세션에서 제거) ---
 
     /**
      * 예매 완료 처리. Active 세션에서 사용자를 제거하여 슬롯을 반환한다.
-     * QueueProcessor가 다음 대기자를 승격시킨다.
+     * 슬롯 반환 이벤트를 발행하여 QueueProcessor가 다음 대기자를 즉시 승격시킨다.
      * ZREM은 멱등성을 보장하므로 중복 호출 시 안전하다 (이미 제거된 멤버는 0 반환).
      *
      * @return true if the user was found and removed, false if not present
@@ -213,6 +275,7 @@ public class AdmissionService {
             if (removed != null && removed > 0) {
                 logger.info("예매 완료 - Active 세션에서 제거: movieId={}, requestId={}...",
                         movieId, requestId.substring(0, Math.min(8, requestId.length())));
+                slotReleasePublisher.publish(movieId);
                 return true;
             }
             logger.warn("예매 완료 시도 - Active 세션에 없는 사용자: movieId={}, requestId={}...",
@@ -243,34 +306,10 @@ public class AdmissionService {
             ensureKeyType(activeKey, "ZSET");
             ensureKeyType(waitingKey, "ZSET");
 
-            String luaScript = """
-                local waitingKey = KEYS[1]
-                local activeKey = KEYS[2]
-                local countKey = KEYS[3]
-                local count = tonumber(ARGV[1])
-                local now = tonumber(ARGV[2])
-
-                local waitingUsers = redis.call('ZRANGE', waitingKey, 0, count - 1)
-                local admitted = {}
-
-                for i = 1, #waitingUsers do
-                    local user = waitingUsers[i]
-                    redis.call('ZREM', waitingKey, user)
-                    redis.call('ZADD', activeKey, now, user)
-                    table.insert(admitted, user)
-                end
-
-                -- 승격 수만큼 누적 카운터 증가 (broadcast-only 순위 계산용)
-                if #admitted > 0 then
-                    redis.call('INCRBY', countKey, #admitted)
-                end
-
-                return admitted
-            """;
-
+            // scripts/admit_next.lua: ZRANGE + ZREM + ZADD + INCRBY 원자적 처리
             long now = System.currentTimeMillis();
-            RedisScript<List> script = RedisScript.of(luaScript, List.class);
-            List<String> admitted = redisTemplate.execute(script,
+            @SuppressWarnings("unchecked")
+            List<String> admitted = scriptRegistry.execute("admit_next", List.class,
                     Arrays.asList(waitingKey, activeKey, countKey),
                     String.valueOf(count), String.valueOf(now));
 
@@ -373,12 +412,96 @@ public class AdmissionService {
         return allMovies;
     }
 
+    // --- 통계 스냅샷 (파이프라인) ---
+
+    /**
+     * 등록된 모든 영화의 waiting / active / processed 수를 파이프라인 2회로 조회한다.
+     *
+     * 1차: SMEMBERS active_movies, SMEMBERS waiting_movies
+     * 2차: 영화별 ZCARD waiting, ZCARD active, GET processed
+     *
+     * 기존 경로(영화당 TYPE x4 + ZCARD x2 + GET, 약 7회 왕복) 대비 영화 수와 무관하게 왕복 2회.
+     * 파이프라인 중 오류(WRONGTYPE 등)가 나면 키 타입을 정리하는 영화별 조회 경로로 폴백한다.
+     */
+    public QueueStatsSnapshot collectQueueStats() {
+        long takenAt = System.currentTimeMillis();
+        try {
+            List<Object> registries = redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                connection.setCommands().sMembers(rawKey(ACTIVE_MOVIES));
+                connection.setCommands().sMembers(rawKey(WAITING_MOVIES));
+                return null;
+            });
+
+            Set<String> movieIds = new LinkedHashSet<>();
+            for (Object members : registries) {
+                if (members instanceof Collection<?> collection) {
+                    collection.forEach(member -> movieIds.add(member.toString()));
+                }
+            }
+            if (movieIds.isEmpty()) {
+                return new QueueStatsSnapshot(takenAt, Map.of());
+            }
+
+            List<String> orderedIds = new ArrayList<>(movieIds);
+            List<Object> counts = redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                for (String movieId : orderedIds) {
+                    connection.zSetCommands().zCard(rawKey(waitingQueueKey("movie", movieId)));
+                    connection.zSetCommands().zCard(rawKey(activeSessionsKey("movie", movieId)));
+                    connection.stringCommands().get(rawKey(processedCountKey(movieId)));
+                }
+                return null;
+            });
+
+            Map<String, QueueStatsSnapshot.MovieStats> movies = new LinkedHashMap<>();
+            for (int i = 0; i < orderedIds.size(); i++) {
+                movies.put(orderedIds.get(i), new QueueStatsSnapshot.MovieStats(
+                        toCount(counts.get(i * 3)),
+                        toCount(counts.get(i * 3 + 1)),
+                        toCount(counts.get(i * 3 + 2))));
+            }
+            return new QueueStatsSnapshot(takenAt, movies);
+
+        } catch (Exception e) {
+            logger.warn("통계 파이프라인 조회 실패 - 영화별 조회로 폴백: {}", e.getMessage());
+            Map<String, QueueStatsSnapshot.MovieStats> movies = new LinkedHashMap<>();
+            for (String movieId : getActiveQueueMovieIds()) {
+                movies.put(movieId, new QueueStatsSnapshot.MovieStats(
+                        getTotalWaitingCount("movie", movieId),
+                        getTotalActiveCount("movie", movieId),
+                        getTotalProcessedCount("movie", movieId)));
+            }
+            return new QueueStatsSnapshot(takenAt, movies);
+        }
+    }
+
+    private byte[] rawKey(String key) {
+        return key.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private long toCount(Object value) {
+        if (value == null) {
+            return 0L;
+        }
+        if (value instanceof Number number) {
+            return number.longValue();
+        }
+        return Long.parseLong(value.toString());
+    }
+
     // --- 퇴장 ---
 
+    /**
+     * 퇴장. active/waiting 제거와 잡고 있던 좌석 선점 해제를 session_release.lua 한 번으로 처리한다.
+     */
     public void leave(String type, String movieId, String requestId) {
         try {
-            zSetOps.remove(activeSessionsKey(type, movieId), requestId);
-            zSetOps.remove(waitingQueueKey(type, movieId), requestId);
+            long removedActive = seatHoldReleaser.releaseSessions(movieId,
+                    activeSessionsKey(type, movieId), waitingQueueKey(type, movieId),
+                    List.of(requestId), true, "leave");
+            if (removedActive > 0) {
+                slotReleasePublisher.publish(movieId);
+                tokenRevocations.revoke(movieId, requestId);
+            }
             logger.info("사용자 퇴장 - requestId: {}...",
                     requestId.substring(0, Math.min(8, requestId.length())));
         } catch (Exception e) {
@@ -421,33 +544,31 @@ public class AdmissionService {
 
     // --- 만료 세션 처리 ---
 
-    public Set<String> findExpiredActiveSessions(String type, String movieId) {
+    /**
+     * 타임아웃된 활성 세션을 최대 limit개 만료시킨다 (session_expire.lua).
+     * 세션 제거와 해당 사용자들의 좌석 선점 해제가 같은 스크립트에서 원자적으로 일어나고,
+     * 기준 시각은 Redis TIME이다. 이어서 슬롯 반환 알림과 입장 토큰 철회를 한 번씩 발행한다.
+     *
+     * @return 만료된 requestId와 남은 만료 세션 여부 (WRONGTYPE이면 빈 결과)
+     */
+    public SeatInventory.SessionExpiry expireActiveSessions(String type, String movieId, int limit) {
         String key = activeSessionsKey(type, movieId);
         try {
-            ensureKeyType(key, "ZSET");
-            long expirationThreshold = System.currentTimeMillis() - (sessionTimeoutSeconds * 1000);
-            return zSetOps.rangeByScore(key, 0, expirationThreshold);
+            SeatInventory.SessionExpiry expiry = seatHoldReleaser.expireSessions(movieId, key,
+                    sessionTimeoutSeconds * 1000, limit);
+            if (!expiry.expired().isEmpty()) {
+                logger.info("{}개 만료 세션 정리 (movieId={}, 남음={})", expiry.expired().size(), movieId, expiry.more());
+                slotReleasePublisher.publish(movieId);
+                tokenRevocations.revoke(movieId, expiry.expired());
+            }
+            return expiry;
         } catch (RedisSystemException e) {
             if (isWrongTypeError(e)) {
-                logger.warn("만료 세션 조회 중 Redis 오류. 키 삭제");
+                logger.warn("세션 정리 중 Redis 오류. 키 삭제");
                 redisTemplate.delete(key);
             }
-            return Collections.emptySet();
-        }
-    }
-
-    public void removeActiveSessions(String type, String movieId, Set<String> expiredMembers) {
-        if (expiredMembers != null && !expiredMembers.isEmpty()) {
-            String key = activeSessionsKey(type, movieId);
-            try {
-                zSetOps.remove(key, expiredMembers.toArray(new String[0]));
-                logger.info("{}개 만료 세션 정리 (movieId={})", expiredMembers.size(), movieId);
-            } catch (RedisSystemException e) {
-                if (isWrongTypeError(e)) {
-                    logger.warn("세션 정리 중 Redis 오류. 키 삭제");
-                    redisTemplate.delete(key);
-                }
-            }
+            return new SeatInventory.SessionExpiry(List.of(), false,
+                    new SeatInventory.ReleaseSummary(0L, 0L, 0L, List.of()));
         }
     }
 
@@ -463,7 +584,11 @@ public class AdmissionService {
         try {
             ensureKeyType(activeKey, "ZSET");
             Long removed = zSetOps.remove(activeKey, requestId);
-            return removed != null && removed > 0;
+            if (removed != null && removed > 0) {
+                slotReleasePublisher.publish(movieId);
+                return true;
+            }
+            return false;
         } catch (RedisSystemException e) {
             if (isWrongTypeError(e)) {
                 redisTemplate.delete(activeKey);
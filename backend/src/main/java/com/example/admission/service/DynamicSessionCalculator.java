@@ -1,7 +1,9 @@
 // src/main/java/com/example/admission/service/DynamicSessionCalculator.java
 package com.example.admission.service;
 
+import com.example.pod.service.PodCountCache;
 import com.example.pod.service.PodDiscoveryService;
+import jakarta.annotation.PostConstruct;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
@@ -16,6 +18,9 @@ import org.springframework.stereotype.Service;
  * - Dev:  2 Pod x 500 = 1,000 (maxTotalSessions cap 5,000)
  * - Prod: 10 Pod x 500 = 5,000 (maxTotalSessions cap 5,000)
  *
+ * Pod 수는 PodCountCache (K8s watch / heartbeat)가 바뀔 때만 재계산하고,
+ * calculateMaxActiveSessions()는 volatile 필드 읽기만 한다 (입장 요청 경로에서 K8s API 호출 없음).
+ *
  * @Value 기본값은 application.yml에서 환경변수가 없을 때의 폴백이며,
  * EKS 환경에서는 values.yaml / values-prod.yaml의 환경변수로 주입한다.
  */
@@ -25,6 +30,7 @@ public class DynamicSessionCalculator {
     private static final Logger logger = LoggerFactory.getLogger(DynamicSessionCalculator.class);
 
     private final PodDiscoveryService podDiscoveryService;
+    private final PodCountCache podCountCache;
 
     @Value("${admission.enable-dynamic-scaling:true}")
     private boolean dynamicScalingEnabled;
@@ -37,16 +43,28 @@ public class DynamicSessionCalculator {
     @Value("${admission.max-total-sessions:5000}")
     private int maxTotalSessionsLimit;
 
-    // K8s API 호출 실패 시 사용할 폴백 Pod 수
+    // Pod 수를 알 수 없을 때 (신선한 소스 없음) 사용할 폴백 Pod 수
     @Value("${admission.fallback-pod-count:2}")
     private int fallbackPodCount;
 
-    public DynamicSessionCalculator(PodDiscoveryService podDiscoveryService) {
+    // PodCountCache 변경 시에만 갱신, 읽기는 volatile read
+    private volatile int currentPodCount;
+    private volatile long maxActiveSessions;
+
+    public DynamicSessionCalculator(PodDiscoveryService podDiscoveryService,
+                                    PodCountCache podCountCache) {
         this.podDiscoveryService = podDiscoveryService;
+        this.podCountCache = podCountCache;
+    }
+
+    @PostConstruct
+    public void init() {
+        recalculate(podCountCache.getPodCount());
+        podCountCache.addChangeListener(this::recalculate);
     }
 
     /**
-     * 현재 Pod 수와 설정값을 기반으로 최대 활성 세션 수를 계산한다.
+     * 현재 Pod 수와 설정값을 기반으로 최대 활성 세션 수를 반환한다 (캐시된 값).
      *
      * 계산: min(podCount x baseSessionsPerPod, maxTotalSessionsLimit)
      *
@@ -56,60 +74,50 @@ public class DynamicSessionCalculator {
      *  - Prod (피크): 10 Pod x 500 = 5,000 (KEDA 스케일 후, cap 도달)
      */
     public long calculateMaxActiveSessions() {
-        int currentPodCount = getPodCount();
-        long calculatedSessions = (long) currentPodCount * baseSessionsPerPod;
-        long finalMaxSessions = Math.min(calculatedSessions, maxTotalSessionsLimit);
+        return maxActiveSessions;
+    }
 
-        logger.info("세션 계산: Pod {}개 x {} = {} (상한: {}, 최종: {})",
-                currentPodCount, baseSessionsPerPod, calculatedSessions,
-                maxTotalSessionsLimit, finalMaxSessions);
+    private void recalculate(int discoveredPods) {
+        int podCount = resolvePodCount(discoveredPods);
+        long calculatedSessions = (long) podCount * baseSessionsPerPod;
+        long finalMaxSessions = Math.min(calculatedSessions, maxTotalSessionsLimit);
 
-        return finalMaxSessions;
+        if (finalMaxSessions != maxActiveSessions || podCount != currentPodCount) {
+            logger.info("세션 재계산: Pod {}개 x {} = {} (상한: {}, 최종: {})",
+                    podCount, baseSessionsPerPod, calculatedSessions,
+                    maxTotalSessionsLimit, finalMaxSessions);
+        }
+        currentPodCount = podCount;
+        maxActiveSessions = finalMaxSessions;
     }
 
-    private int getPodCount() {
+    private int resolvePodCount(int discoveredPods) {
         if (!dynamicScalingEnabled) {
-            logger.info("동적 스케일링 비활성화. Fallback Pod 수({})를 사용합니다.",
-                    fallbackPodCount);
+            logger.debug("동적 스케일링 비활성화. Fallback Pod 수({})를 사용합니다.", fallbackPodCount);
             return fallbackPodCount;
         }
-
-        try {
-            int discoveredPods = podDiscoveryService.getPodCount();
-            if (discoveredPods <= 0) {
-                logger.error("Pod 수가 0 이하로 감지됨 ({}). Fallback Pod 수({})를 사용합니다.",
-                        discoveredPods, fallbackPodCount);
-                return fallbackPodCount;
-            }
-            logger.info("Kubernetes에서 Pod 수 확인: {}개", discoveredPods);
-            return discoveredPods;
-        } catch (Exception e) {
-            logger.error("Kubernetes API 호출 실패. Fallback Pod 수({})를 사용합니다. 에러: {}",
-                    fallbackPodCount, e.getMessage());
+        if (discoveredPods <= 0) {
+            logger.warn("신선한 Pod 수 없음 (소스: {}). Fallback Pod 수({})를 사용합니다.",
+                    podCountCache.getActiveSource(), fallbackPodCount);
             return fallbackPodCount;
         }
+        return discoveredPods;
     }
 
     /**
      * 현재 세션 계산 상태 정보를 반환한다 (관리 API용).
      */
     public SessionCalculationInfo getCalculationInfo() {
-        boolean k8sAvailable = podDiscoveryService.isKubernetesClientAvailable();
-        int currentPodCount = k8sAvailable && dynamicScalingEnabled
-                ? podDiscoveryService.getPodCount() : fallbackPodCount;
-        if (currentPodCount <= 0) currentPodCount = fallbackPodCount;
-
-        long calculated = (long) currentPodCount * baseSessionsPerPod;
-        long finalMax = Math.min(calculated, maxTotalSessionsLimit);
-
         return new SessionCalculationInfo(
                 dynamicScalingEnabled,
                 baseSessionsPerPod,
                 maxTotalSessionsLimit,
                 fallbackPodCount,
-                k8sAvailable,
+                podDiscoveryService.isKubernetesClientAvailable(),
                 currentPodCount,
-                finalMax
+                maxActiveSessions,
+                podCountCache.getActiveSource(),
+                podCountCache.getAgeMillis()
         );
     }
 
@@ -120,7 +128,9 @@ public class DynamicSessionCalculator {
             int fallbackPodCount,             // 2
             boolean kubernetesAvailable,
             int currentPodCount,              // 실제 또는 Fallback
-            long calculatedMaxSessions        // min(podCount x 500, 5000)
+            long calculatedMaxSessions,       // min(podCount x 500, 5000)
+            String podCountSource,            // kubernetes / heartbeat / static / none
+            long podCountAgeMs                // 사용 중인 Pod 수의 나이
     ) {
 
         /**
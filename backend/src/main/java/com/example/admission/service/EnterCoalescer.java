@@ -0,0 +1,206 @@
+package com.example.admission.service;
+
+import com.example.admission.dto.EnterResponse;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * EnterCoalescer - 입장 요청 마이크로 배치
+ *
+ * 티켓 오픈 직후에는 같은 영화의 /api/admission/enter 가 초당 수천 건 몰리고,
+ * 요청마다 같은 sessions:{movieId} 키에 EVALSHA를 한 번씩 보낸다.
+ * 이 컴포넌트는 영화별로 짧은 윈도우(window-ms) 또는 max-batch 건까지 요청을 모아
+ * AdmissionService.enterBatch() 한 번 (= Redis 왕복 1회)으로 처리하고,
+ * 각 호출자의 future를 자기 EnterResponse로 완료한다.
+ *
+ * - admission.enter-coalescing.enabled=false (기본값) 이면 기존처럼 요청마다 enter() 직접 호출
+ * - 배치 안에서는 도착 순서대로 슬롯 배정 / 대기열 등록 (admission_enter_batch.lua)
+ * - 배치 실행 실패 시 해당 배치의 모든 future를 같은 예외로 완료
+ *
+ * 메트릭:
+ *   cgv_enter_batch_size             - 배치당 요청 수
+ *   cgv_enter_coalesce_wait_seconds  - 요청 도착 ~ 배치 실행 시작까지 추가 지연
+ */
+@Component
+public class EnterCoalescer {
+
+    private static final Logger logger = LoggerFactory.getLogger(EnterCoalescer.class);
+
+    private final AdmissionService admissionService;
+    private final DistributionSummary batchSize;
+    private final Timer coalesceWait;
+
+    // movieId -> 아직 실행되지 않은(열린) 배치
+    private final ConcurrentHashMap<String, Batch> openBatches = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService flusher;
+
+    @Value("${admission.enter-coalescing.enabled:false}")
+    private boolean enabled;
+
+    @Value("${admission.enter-coalescing.window-ms:2}")
+    private long windowMs;
+
+    @Value("${admission.enter-coalescing.max-batch:64}")
+    private int maxBatch;
+
+    public EnterCoalescer(AdmissionService admissionService, MeterRegistry meterRegistry) {
+        this.admissionService = admissionService;
+        this.batchSize = DistributionSummary.builder("cgv_enter_batch_size")
+                .description("Enter requests per coalesced Redis call")
+                .register(meterRegistry);
+        this.coalesceWait = Timer.builder("cgv_enter_coalesce_wait_seconds")
+                .description("Latency added by enter coalescing")
+                .register(meterRegistry);
+
+        AtomicInteger threadCount = new AtomicInteger();
+        this.flusher = Executors.newScheduledThreadPool(2, runnable -> {
+            Thread thread = new Thread(runnable, "enter-coalescer-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PostConstruct
+    public void init() {
+        // admission_enter_batch.lua의 대기열 score는 정수 now * 4096 + 배치 내 순번이다.
+        // 순번이 4096 이상이면 다음 ms의 score와 겹쳐 도착 순서가 깨진다.
+        if (maxBatch < 1 || maxBatch >= 4096) {
+            throw new IllegalStateException("admission.enter-coalescing.max-batch는 1~4095 범위여야 합니다: " + maxBatch);
+        }
+        if (enabled) {
+            logger.info("입장 마이크로 배치 활성화 - window: {}ms, max-batch: {}", windowMs, maxBatch);
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * 입장 요청을 배치에 넣는다. 비활성화 상태면 즉시 enter()를 실행한 완료된 future를 반환한다.
+     */
+    public CompletableFuture<EnterResponse> submit(String type, String movieId, String requestId) {
+        if (!enabled) {
+            try {
+                return CompletableFuture.completedFuture(admissionService.enter(type, movieId, requestId));
+            } catch (RuntimeException e) {
+                return CompletableFuture.failedFuture(e);
+            }
+        }
+
+        PendingEnter pending = new PendingEnter(requestId, System.nanoTime());
+        String batchKey = type + ":" + movieId;
+        while (true) {
+            Batch batch = openBatches.computeIfAbsent(batchKey, key -> openBatch(key, type, movieId));
+            int size = batch.add(pending, maxBatch);
+            if (size < 0) {
+                // 닫혔거나 가득 찬 배치 -> 맵에서 떼어내고 새 배치에 다시 시도
+                openBatches.remove(batchKey, batch);
+                continue;
+            }
+            if (size == maxBatch) {
+                openBatches.remove(batchKey, batch);
+                flusher.execute(() -> flush(batch));
+            }
+            return pending.future;
+        }
+    }
+
+    private Batch openBatch(String batchKey, String type, String movieId) {
+        Batch batch = new Batch(batchKey, type, movieId);
+        flusher.schedule(() -> flush(batch), windowMs, TimeUnit.MILLISECONDS);
+        return batch;
+    }
+
+    private void flush(Batch batch) {
+        List<PendingEnter> entries = batch.close();
+        if (entries == null) {
+            return; // 이미 실행됨 (max-batch 도달 후 윈도우 만료)
+        }
+        openBatches.remove(batch.batchKey, batch);
+
+        long flushStart = System.nanoTime();
+        List<String> requestIds = new ArrayList<>(entries.size());
+        for (PendingEnter entry : entries) {
+            requestIds.add(entry.requestId);
+            coalesceWait.record(flushStart - entry.arrivedAt, TimeUnit.NANOSECONDS);
+        }
+        batchSize.record(entries.size());
+
+        try {
+            List<EnterResponse> responses = admissionService.enterBatch(batch.type, batch.movieId, requestIds);
+            for (int i = 0; i < entries.size(); i++) {
+                entries.get(i).future.complete(responses.get(i));
+            }
+            logger.debug("입장 배치 처리 - movieId: {}, {}건", batch.movieId, entries.size());
+        } catch (RuntimeException e) {
+            logger.error("입장 배치 처리 실패 - movieId: {}, {}건", batch.movieId, entries.size(), e);
+            for (PendingEnter entry : entries) {
+                entry.future.completeExceptionally(e);
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        // 남은 배치를 모두 실행한 뒤 종료 (요청 유실 방지)
+        openBatches.values().forEach(this::flush);
+        flusher.shutdown();
+    }
+
+    private static final class PendingEnter {
+        private final String requestId;
+        private final long arrivedAt;
+        private final CompletableFuture<EnterResponse> future = new CompletableFuture<>();
+
+        private PendingEnter(String requestId, long arrivedAt) {
+            this.requestId = requestId;
+            this.arrivedAt = arrivedAt;
+        }
+    }
+
+    private static final class Batch {
+        private final String batchKey;
+        private final String type;
+        private final String movieId;
+        private List<PendingEnter> entries = new ArrayList<>();
+
+        private Batch(String batchKey, String type, String movieId) {
+            this.batchKey = batchKey;
+            this.type = type;
+            this.movieId = movieId;
+        }
+
+        /** @return 추가 후 배치 크기, 이미 닫혔거나 가득 찬 배치면 -1 */
+        private synchronized int add(PendingEnter pending, int limit) {
+            if (entries == null || entries.size() >= limit) {
+                return -1;
+            }
+            entries.add(pending);
+            return entries.size();
+        }
+
+        /** @return 배치에 모인 요청 (한 번만 반환, 이후 null) */
+        private synchronized List<PendingEnter> close() {
+            List<PendingEnter> closed = entries;
+            entries = null;
+            return closed;
+        }
+    }
+}
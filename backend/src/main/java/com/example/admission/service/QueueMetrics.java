@@ -24,6 +24,9 @@ import java.util.concurrent.atomic.AtomicLong;
  *   cgv_admission_completed_total{movieId}   - 예매 완료 건수
  *   cgv_tickets_sold_total{movieId,theaterId} - 판매 티켓 수
  *   cgv_seat_lock_conflicts{movieId}         - 좌석 선점 충돌 수
+ *   cgv_seat_hold_wasted_seconds_total{movieId,reason}    - 예매로 이어지지 않은 선점이 좌석을 묶어 둔 시간 (좌석-초)
+ *   cgv_seat_hold_reclaimed_seconds_total{movieId,reason} - 만료 전 해제로 재고에 돌려준 남은 선점 시간 (좌석-초)
+ *     reason = leave / timeout / release / booking / expired
  *
  * Timer:
  *   cgv_admission_duration_seconds{movieId}  - 입장 처리 소요 시간
@@ -79,6 +82,16 @@ public class QueueMetrics {
                 .increment();
     }
 
+    /**
+     * 승격 배치 단위 호출 (count건을 한 번에 증가)
+     */
+    public void incrementProcessed(String movieId, long count) {
+        Counter.builder("cgv_admission_processed_total")
+                .tag("movieId", movieId)
+                .register(registry)
+                .increment(count);
+    }
+
     /**
      * 예매 완료 (booking_complete) 시 호출
      */
@@ -110,6 +123,33 @@ public class QueueMetrics {
                 .increment();
     }
 
+    /**
+     * 좌석 선점 해제 시 호출 (퇴장 / 세션 만료 / 직접 해제 / 예매) - 만료 전에 재고로 돌려준 시간
+     */
+    public void recordSeatHoldRelease(String movieId, String reason, long reclaimedMs) {
+        if (reclaimedMs > 0) {
+            Counter.builder("cgv_seat_hold_reclaimed_seconds_total")
+                    .tag("movieId", movieId)
+                    .tag("reason", reason)
+                    .register(registry)
+                    .increment(reclaimedMs / 1000.0);
+        }
+    }
+
+    /**
+     * 만료로 끝난 선점이 좌석을 묶어 둔 시간 (선점 TTL 만료 / 세션 만료).
+     * 예매로 이어진 선점이나 사용자가 직접 놓은 선점은 낭비로 세지 않는다.
+     */
+    public void recordSeatHoldExpiry(String movieId, String reason, long wastedMs) {
+        if (wastedMs > 0) {
+            Counter.builder("cgv_seat_hold_wasted_seconds_total")
+                    .tag("movieId", movieId)
+                    .tag("reason", reason)
+                    .register(registry)
+                    .increment(wastedMs / 1000.0);
+        }
+    }
+
     // ========== Timer ==========
 
     /**
@@ -0,0 +1,50 @@
+package com.example.admission.service;
+
+import com.example.admission.dto.QueueStatsSnapshot;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+/**
+ * QueueStatsSnapshotService - 대기열 통계 스냅샷 공유
+ *
+ * RealtimeStatsBroadcaster가 1초마다 refresh()로 스냅샷을 갱신하고,
+ * QueueMetrics 게이지 / AdmissionMetricsService / QueueProcessor 상태 조회는
+ * 같은 스냅샷을 재사용한다 (같은 데이터를 서비스마다 다시 조회하지 않음).
+ *
+ * 스냅샷이 admission.stats-snapshot-max-age-ms 보다 오래됐으면 (브로드캐스터 중단 등)
+ * getSnapshot()이 직접 갱신한다.
+ */
+@Service
+public class QueueStatsSnapshotService {
+
+    private final AdmissionService admissionService;
+
+    private volatile QueueStatsSnapshot snapshot = QueueStatsSnapshot.empty();
+
+    @Value("${admission.stats-snapshot-max-age-ms:2000}")
+    private long maxAgeMs;
+
+    public QueueStatsSnapshotService(AdmissionService admissionService) {
+        this.admissionService = admissionService;
+    }
+
+    /**
+     * Redis에서 새 스냅샷을 조회하여 캐시한다.
+     */
+    public QueueStatsSnapshot refresh() {
+        QueueStatsSnapshot fresh = admissionService.collectQueueStats();
+        snapshot = fresh;
+        return fresh;
+    }
+
+    /**
+     * 캐시된 스냅샷. 오래됐으면 갱신 후 반환한다.
+     */
+    public QueueStatsSnapshot getSnapshot() {
+        QueueStatsSnapshot current = snapshot;
+        if (System.currentTimeMillis() - current.takenAt() > maxAgeMs) {
+            return refresh();
+        }
+        return current;
+    }
+}
@@ -0,0 +1,38 @@
+package com.example.admission.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * SlotReleasePublisher - 활성 슬롯 반환 이벤트 발행
+ *
+ * 예매 완료 / 퇴장 / 세션 만료로 sessions:{movieId}:active 에서 멤버가 빠지면
+ * "queue:slot-released" 채널에 movieId를 발행한다.
+ * 모든 Pod의 SlotReleaseListener가 받고, 해당 영화를 담당하는 Pod만
+ * QueueProcessor 디바운스 승격을 실행한다 (다음 2초 tick을 기다리지 않음).
+ *
+ * 발행 실패는 무시한다 - QueueProcessor 주기 처리가 안전망 역할을 한다.
+ */
+@Component
+public class SlotReleasePublisher {
+
+    private static final Logger logger = LoggerFactory.getLogger(SlotReleasePublisher.class);
+
+    public static final String CHANNEL = "queue:slot-released";
+
+    private final RedisTemplate<String, String> redisTemplate;
+
+    public SlotReleasePublisher(RedisTemplate<String, String> redisTemplate) {
+        this.redisTemplate = redisTemplate;
+    }
+
+    public void publish(String movieId) {
+        try {
+            redisTemplate.convertAndSend(CHANNEL, movieId);
+        } catch (Exception e) {
+            logger.debug("슬롯 반환 이벤트 발행 실패 (주기 처리로 대체) - movieId: {}", movieId, e);
+        }
+    }
+}
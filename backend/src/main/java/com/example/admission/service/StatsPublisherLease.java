@@ -0,0 +1,77 @@
+package com.example.admission.service;
+
+import com.example.redis.LuaScriptRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * StatsPublisherLease - 영화별 STATS 단일 발행자 선출
+ *
+ * RealtimeStatsBroadcaster는 모든 Pod에서 돌기 때문에, lease 없이 발행하면
+ * Pod 수만큼 같은 STATS가 queue:notifications에 중복 발행되고 클라이언트도 N배로 받는다.
+ * stats_lease.lua로 영화별 lease를 가진 Pod만 발행하고, 발행마다 단조 증가 seq를 붙인다.
+ *
+ * - 보유 Pod: 매 tick 1회 EVALSHA (lease 연장 + seq 발급)
+ * - 비보유 Pod: 남은 lease 시간 동안 재시도하지 않음 (Redis 호출 없음)
+ *
+ * Redis keys (Hash Tag: {movieId}):
+ * - stats:{movieId}:publisher  (lease, PX ttl)
+ * - stats:{movieId}:seq        (STATS 시퀀스)
+ */
+@Component
+public class StatsPublisherLease {
+
+    private static final Logger logger = LoggerFactory.getLogger(StatsPublisherLease.class);
+
+    private final LuaScriptRegistry scriptRegistry;
+    private final LoadBalancingOptimizer loadBalancer;
+
+    // movieId -> 다음 lease 시도 가능 시각 (비보유 Pod의 불필요한 호출 억제)
+    private final Map<String, Long> nextAttemptAt = new ConcurrentHashMap<>();
+
+    // 발행 주기(1초)의 3배: 보유 Pod가 죽으면 최대 3초 뒤 다른 Pod가 이어받음
+    @Value("${admission.stats-lease-ttl-ms:3000}")
+    private long leaseTtlMs;
+
+    public StatsPublisherLease(LuaScriptRegistry scriptRegistry,
+                               LoadBalancingOptimizer loadBalancer) {
+        this.scriptRegistry = scriptRegistry;
+        this.loadBalancer = loadBalancer;
+    }
+
+    /**
+     * 이 Pod가 movieId의 STATS 발행자인지 확인하고, 그렇다면 다음 seq를 반환한다.
+     *
+     * @return 발행할 seq (> 0), 다른 Pod가 발행자이면 0
+     */
+    public long acquire(String movieId) {
+        long now = System.currentTimeMillis();
+        Long next = nextAttemptAt.get(movieId);
+        if (next != null && now < next) {
+            return 0L;
+        }
+
+        try {
+            Long result = scriptRegistry.execute("stats_lease", Long.class,
+                    Arrays.asList("stats:{" + movieId + "}:publisher", "stats:{" + movieId + "}:seq"),
+                    loadBalancer.getPodId(), String.valueOf(leaseTtlMs));
+
+            if (result != null && result > 0) {
+                nextAttemptAt.remove(movieId);
+                return result;
+            }
+            long remainingMs = result == null ? 0L : -result;
+            nextAttemptAt.put(movieId, now + remainingMs);
+            return 0L;
+        } catch (Exception e) {
+            logger.warn("STATS lease 확인 실패 - movieId: {}, error: {}", movieId, e.getMessage());
+            return 0L;
+        }
+    }
+}
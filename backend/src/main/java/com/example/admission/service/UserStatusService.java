@@ -0,0 +1,107 @@
+package com.example.admission.service;
+
+import com.example.admission.dto.UserStatusResponse;
+import com.example.admission.token.AdmissionTokenService;
+import com.example.redis.LuaScriptRegistry;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * UserStatusService - 사용자 상태 폴링 (ACTIVE / WAITING / NOT_FOUND)
+ *
+ * 설계:
+ * - user_status.lua 1회 (TYPE 검사 + ZSCORE active + ZRANK/ZCARD waiting), 기존 최대 6회 왕복 대체
+ * - ACTIVE 이면 입장 토큰 발급 (AdmissionTokenService)
+ * - (movieId, requestId)별 결과를 status-cache-ttl-ms 동안 Pod 로컬 재사용 (중복 폴링 흡수)
+ * - 항목 수 상한 MAX_ENTRIES, 만료 항목은 주기적으로 정리
+ * - Redis 오류 시 NOT_FOUND 대신 예외 전파 (클라이언트가 대기열을 떠났다고 오인하지 않게)
+ *
+ * 메트릭:
+ *   cgv_user_status_lookup_total{result=cached|redis}
+ */
+@Service
+public class UserStatusService {
+
+    private static final Logger logger = LoggerFactory.getLogger(UserStatusService.class);
+    private static final int MAX_ENTRIES = 100_000;
+
+    private final LuaScriptRegistry scriptRegistry;
+    private final AdmissionTokenService tokenService;
+    private final Counter cachedCount;
+    private final Counter redisCount;
+
+    // movieId + '\n' + requestId -> 캐시 항목
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+    @Value("${admission.status-cache-ttl-ms:500}")
+    private long cacheTtlMs;
+
+    public UserStatusService(LuaScriptRegistry scriptRegistry,
+                             AdmissionTokenService tokenService,
+                             MeterRegistry meterRegistry) {
+        this.scriptRegistry = scriptRegistry;
+        this.tokenService = tokenService;
+        this.cachedCount = Counter.builder("cgv_user_status_lookup_total")
+                .tag("result", "cached")
+                .register(meterRegistry);
+        this.redisCount = Counter.builder("cgv_user_status_lookup_total")
+                .tag("result", "redis")
+                .register(meterRegistry);
+    }
+
+    public UserStatusResponse getStatus(String movieId, String requestId) {
+        String cacheKey = movieId + "\n" + requestId;
+        long now = System.currentTimeMillis();
+        Entry entry = entries.get(cacheKey);
+        if (entry != null && now - entry.loadedAt < cacheTtlMs) {
+            cachedCount.increment();
+            return entry.status;
+        }
+
+        UserStatusResponse status = load(movieId, requestId);
+        if (entries.size() < MAX_ENTRIES || entry != null) {
+            entries.put(cacheKey, new Entry(status, now));
+        }
+        return status;
+    }
+
+    private UserStatusResponse load(String movieId, String requestId) {
+        redisCount.increment();
+        List<Object> result = scriptRegistry.executeForList("user_status",
+                Arrays.asList("sessions:{" + movieId + "}:active", "sessions:{" + movieId + "}:waiting"),
+                requestId);
+
+        long code = ((Number) result.get(0)).longValue();
+        if (code == 1) {
+            return UserStatusResponse.active(tokenService.issue(movieId, requestId));
+        }
+        if (code == 2) {
+            return UserStatusResponse.waiting(((Number) result.get(2)).longValue(),
+                    ((Number) result.get(3)).longValue());
+        }
+        return UserStatusResponse.notFound();
+    }
+
+    @Scheduled(fixedDelay = 5000)
+    public void evictExpired() {
+        long threshold = System.currentTimeMillis() - cacheTtlMs;
+        int before = entries.size();
+        entries.values().removeIf(entry -> entry.loadedAt < threshold);
+        if (before >= MAX_ENTRIES) {
+            logger.warn("상태 캐시 상한 도달 - entries={}, 만료 정리 후 {}", before, entries.size());
+        }
+    }
+
+    private record Entry(UserStatusResponse status, long loadedAt) {
+    }
+}
@@ -0,0 +1,16 @@
+package com.example.admission.token;
+
+/**
+ * 검증된 입장 토큰의 내용 (AdmissionTokenFilter가 요청 속성으로 넘긴다).
+ *
+ * @param movieId    입장한 영화
+ * @param requestId  활성 세션 멤버
+ * @param admittedAt 토큰 발급 시각 (epoch ms) - 철회 시각과 비교
+ * @param expiresAt  만료 시각 (epoch ms)
+ */
+public record AdmissionToken(String movieId, String requestId, long admittedAt, long expiresAt) {
+
+    public boolean isFor(String movieId, String requestId) {
+        return this.movieId.equals(movieId) && this.requestId.equals(requestId);
+    }
+}
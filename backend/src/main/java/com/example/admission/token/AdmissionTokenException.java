@@ -0,0 +1,11 @@
+package com.example.admission.token;
+
+/**
+ * 입장 토큰이 요청한 영화 / requestId 와 맞지 않음 -> 403 (GlobalExceptionHandler)
+ */
+public class AdmissionTokenException extends RuntimeException {
+
+    public AdmissionTokenException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,71 @@
+package com.example.admission.token;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Set;
+
+/**
+ * AdmissionTokenFilter - 좌석 / 예매 API 입장 토큰 검증
+ *
+ * 대상: POST /api/seats/{select,allocate,release,extend}, POST /api/admission/complete
+ * - 헤더 X-Admission-Token 을 AdmissionTokenService로 로컬 검증 (서명 + 만료 + 철회, Redis 호출 없음)
+ * - 유효하면 요청 속성 CLAIMS_ATTRIBUTE 로 넘기고, 컨트롤러가 본문의 movieId / requestId 와 대조한다
+ * - 토큰이 없거나 무효이면 401 (admission.token.enforce=false 이면 claims 없이 통과)
+ */
+@Component
+public class AdmissionTokenFilter extends OncePerRequestFilter {
+
+    public static final String HEADER = "X-Admission-Token";
+    public static final String CLAIMS_ATTRIBUTE = "com.example.admission.token.AdmissionTokenFilter.claims";
+
+    private static final Set<String> PROTECTED_PATHS = Set.of(
+            "/api/seats/select",
+            "/api/seats/allocate",
+            "/api/seats/release",
+            "/api/seats/extend",
+            "/api/admission/complete");
+    private static final byte[] UNAUTHORIZED_BODY =
+            "{\"error\":\"UNAUTHORIZED\",\"message\":\"Valid admission token required.\"}"
+                    .getBytes(StandardCharsets.UTF_8);
+
+    private final AdmissionTokenService tokenService;
+
+    @Value("${admission.token.enforce:true}")
+    private boolean enforce;
+
+    public AdmissionTokenFilter(AdmissionTokenService tokenService) {
+        this.tokenService = tokenService;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !"POST".equals(request.getMethod())
+                || !PROTECTED_PATHS.contains(request.getRequestURI().substring(request.getContextPath().length()));
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain chain) throws ServletException, IOException {
+        String token = request.getHeader(HEADER);
+        AdmissionToken claims = tokenService.verify(token);
+        if (claims != null) {
+            request.setAttribute(CLAIMS_ATTRIBUTE, claims);
+        } else if (enforce) {
+            response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            response.getOutputStream().write(UNAUTHORIZED_BODY);
+            return;
+        }
+        chain.doFilter(request, response);
+    }
+}
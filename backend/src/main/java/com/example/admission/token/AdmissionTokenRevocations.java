@@ -0,0 +1,129 @@
+package com.example.admission.token;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PostConstruct;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * AdmissionTokenRevocations - 만료 전 철회된 입장 토큰 (Pod 로컬 deny-set 복제)
+ *
+ * 퇴장 / 세션 만료 / 예매 완료 시 (movieId, requestId, revokedAt)을 "admission:token-revoked" 채널로 발행하고,
+ * 모든 Pod가 로컬 맵에 넣는다. 토큰 검증은 이 맵만 본다 (Redis 호출 없음).
+ * - revokedAt 이전에 발급된 토큰만 거절 (같은 requestId로 다시 입장하면 새 토큰은 유효)
+ * - 항목은 토큰 수명(세션 타임아웃)이 지나면 정리 - 그 전에 발급된 토큰은 이미 만료
+ * - 늦게 뜬 Pod를 위해 admission:revoked (Sorted Set, score = 보존 만료)에도 기록하고 기동 시 1회 로드
+ *
+ * 메시지 형식: "revokedAt\nmovieId\nrequestId"
+ */
+@Component
+public class AdmissionTokenRevocations implements MessageListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(AdmissionTokenRevocations.class);
+
+    public static final String CHANNEL = "admission:token-revoked";
+    private static final String REVOKED_KEY = "admission:revoked";
+
+    private final RedisTemplate<String, String> redisTemplate;
+
+    // movieId + '\n' + requestId -> revokedAt
+    private final Map<String, Long> revoked = new ConcurrentHashMap<>();
+
+    @Value("${admission.session-timeout-seconds:300}")
+    private long sessionTimeoutSeconds;
+
+    public AdmissionTokenRevocations(RedisTemplate<String, String> redisTemplate) {
+        this.redisTemplate = redisTemplate;
+    }
+
+    @PostConstruct
+    private void load() {
+        try {
+            Set<String> entries = redisTemplate.opsForZSet()
+                    .rangeByScore(REVOKED_KEY, System.currentTimeMillis(), Double.POSITIVE_INFINITY);
+            if (entries != null) {
+                entries.forEach(this::apply);
+                logger.info("입장 토큰 철회 목록 로드 - {}건", entries.size());
+            }
+        } catch (Exception e) {
+            logger.warn("입장 토큰 철회 목록 로드 실패 - 이후 발행분부터 반영: {}", e.getMessage());
+        }
+    }
+
+    public boolean isRevoked(String movieId, String requestId, long admittedAt) {
+        Long revokedAt = revoked.get(movieId + "\n" + requestId);
+        return revokedAt != null && admittedAt <= revokedAt;
+    }
+
+    public void revoke(String movieId, String requestId) {
+        revoke(movieId, Set.of(requestId));
+    }
+
+    /**
+     * 여러 사용자의 토큰을 철회한다 (ZADD + PUBLISH, 파이프라인 1회).
+     * 발행 실패 시에도 로컬 맵에는 반영한다 - 다른 Pod에서는 토큰 만료까지 유효할 수 있다.
+     */
+    public void revoke(String movieId, Collection<String> requestIds) {
+        if (requestIds.isEmpty()) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        long retainUntil = now + sessionTimeoutSeconds * 1000;
+        byte[] key = REVOKED_KEY.getBytes(StandardCharsets.UTF_8);
+        byte[] channel = CHANNEL.getBytes(StandardCharsets.UTF_8);
+
+        for (String requestId : requestIds) {
+            apply(now + "\n" + movieId + "\n" + requestId);
+        }
+        try {
+            redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                for (String requestId : requestIds) {
+                    byte[] message = (now + "\n" + movieId + "\n" + requestId).getBytes(StandardCharsets.UTF_8);
+                    connection.zSetCommands().zAdd(key, retainUntil, message);
+                    connection.publish(channel, message);
+                }
+                return null;
+            });
+        } catch (Exception e) {
+            logger.warn("입장 토큰 철회 발행 실패 - movieId={}, {}건: {}", movieId, requestIds.size(), e.getMessage());
+        }
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        apply(new String(message.getBody(), StandardCharsets.UTF_8));
+    }
+
+    @Scheduled(fixedDelay = 60_000)
+    public void evictExpired() {
+        long threshold = System.currentTimeMillis() - sessionTimeoutSeconds * 1000;
+        revoked.values().removeIf(revokedAt -> revokedAt < threshold);
+        try {
+            redisTemplate.opsForZSet().removeRangeByScore(REVOKED_KEY, 0, System.currentTimeMillis());
+        } catch (Exception e) {
+            logger.debug("입장 토큰 철회 목록 정리 실패: {}", e.getMessage());
+        }
+    }
+
+    private void apply(String message) {
+        String[] fields = message.split("\n", 3);
+        if (fields.length != 3) {
+            logger.warn("잘못된 입장 토큰 철회 메시지 무시: {}", message);
+            return;
+        }
+        long revokedAt = Long.parseLong(fields[0]);
+        revoked.merge(fields[1] + "\n" + fields[2], revokedAt, Math::max);
+    }
+}
@@ -0,0 +1,155 @@
+package com.example.admission.token;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.env.Environment;
+import org.springframework.core.env.Profiles;
+import org.springframework.stereotype.Service;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.Arrays;
+import java.util.Base64;
+
+/**
+ * AdmissionTokenService - HMAC 서명 입장 토큰 발급 / 검증
+ *
+ * 사용자가 ACTIVE가 되는 시점(입장 응답, ADMISSION 알림, 상태 조회 ACTIVE)에 발급하고,
+ * 좌석 / 예매 API는 AdmissionTokenFilter가 Redis 조회 없이 로컬에서 검증한다.
+ *
+ * 형식 (점 구분, Base64url 패딩 없음):
+ *   b64(movieId) . b64(requestId) . admittedAt(36진) . expiresAt(36진) . b64(HMAC-SHA256 앞 16바이트)
+ *
+ * - 비밀키: admission.token.secret (모든 Pod 동일해야 함). 비어 있으면 기동 실패 (enforce=true),
+ *   local 프로필(단일 Pod) 또는 enforce=false 일 때만 무작위 키로 기동
+ * - 만료: 발급 시각 + 세션 타임아웃 (세션 만료 후 토큰도 쓸 수 없음)
+ * - 만료 전 철회 (퇴장 / 세션 만료 / 예매 완료)는 AdmissionTokenRevocations
+ */
+@Service
+public class AdmissionTokenService {
+
+    private static final Logger logger = LoggerFactory.getLogger(AdmissionTokenService.class);
+    private static final String ALGORITHM = "HmacSHA256";
+    private static final int SIGNATURE_BYTES = 16;
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    private final SecretKeySpec key;
+    private final ThreadLocal<Mac> macs;
+    private final AdmissionTokenRevocations revocations;
+
+    @Value("${admission.session-timeout-seconds:300}")
+    private long sessionTimeoutSeconds;
+
+    public AdmissionTokenService(@Value("${admission.token.secret:}") String secret,
+                                 @Value("${admission.token.enforce:true}") boolean enforce,
+                                 Environment environment,
+                                 AdmissionTokenRevocations revocations) {
+        byte[] keyBytes;
+        if (secret == null || secret.isBlank()) {
+            if (enforce && !environment.acceptsProfiles(Profiles.of("local"))) {
+                throw new IllegalStateException(
+                        "admission.token.secret(ADMISSION_TOKEN_SECRET) 미설정 - 토큰 강제 시 모든 Pod에 같은 비밀키가 필요합니다");
+            }
+            keyBytes = new byte[32];
+            new SecureRandom().nextBytes(keyBytes);
+            logger.warn("admission.token.secret 미설정 - 무작위 키 사용 (다른 Pod가 발급한 토큰은 검증 실패)");
+        } else {
+            keyBytes = secret.getBytes(StandardCharsets.UTF_8);
+        }
+        this.key = new SecretKeySpec(keyBytes, ALGORITHM);
+        this.macs = ThreadLocal.withInitial(this::newMac);
+        this.revocations = revocations;
+    }
+
+    public String issue(String movieId, String requestId) {
+        return issue(movieId, requestId, System.currentTimeMillis());
+    }
+
+    /**
+     * @param admittedAt 입장 시각 (epoch ms)
+     */
+    public String issue(String movieId, String requestId, long admittedAt) {
+        long expiresAt = admittedAt + sessionTimeoutSeconds * 1000;
+        String body = encode(movieId) + '.' + encode(requestId) + '.'
+                + Long.toString(admittedAt, 36) + '.' + Long.toString(expiresAt, 36);
+        return body + '.' + ENCODER.encodeToString(sign(body));
+    }
+
+    /**
+     * 서명 / 만료 / 철회 여부를 로컬에서 확인한다 (Redis 호출 없음).
+     *
+     * @return 유효하면 토큰 내용, 아니면 null
+     */
+    public AdmissionToken verify(String token) {
+        if (token == null) {
+            return null;
+        }
+        int signatureAt = token.lastIndexOf('.');
+        if (signatureAt < 0) {
+            return null;
+        }
+        try {
+            String body = token.substring(0, signatureAt);
+            byte[] signature = DECODER.decode(token.substring(signatureAt + 1));
+            if (!MessageDigest.isEqual(sign(body), signature)) {
+                return null;
+            }
+
+            String[] fields = body.split("\\.", -1);
+            if (fields.length != 4) {
+                return null;
+            }
+            AdmissionToken claims = new AdmissionToken(
+                    decode(fields[0]), decode(fields[1]),
+                    Long.parseLong(fields[2], 36), Long.parseLong(fields[3], 36));
+            if (claims.expiresAt() <= System.currentTimeMillis()
+                    || revocations.isRevoked(claims.movieId(), claims.requestId(), claims.admittedAt())) {
+                return null;
+            }
+            return claims;
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    /**
+     * 토큰이 요청 본문의 영화 / requestId 에 대해 발급된 것인지 확인한다.
+     * 토큰 강제(admission.token.enforce)가 꺼져 있어 토큰 없이 통과한 요청은 검사하지 않는다.
+     *
+     * @throws AdmissionTokenException 다른 영화 / 사용자의 토큰
+     */
+    public void requireAdmitted(AdmissionToken token, String movieId, String requestId) {
+        if (token != null && !token.isFor(movieId, requestId)) {
+            throw new AdmissionTokenException("입장 토큰이 요청과 일치하지 않습니다");
+        }
+    }
+
+    private byte[] sign(String body) {
+        byte[] mac = macs.get().doFinal(body.getBytes(StandardCharsets.UTF_8));
+        return Arrays.copyOf(mac, SIGNATURE_BYTES);
+    }
+
+    private Mac newMac() {
+        try {
+            Mac mac = Mac.getInstance(ALGORITHM);
+            mac.init(key);
+            return mac;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HMAC 초기화 실패", e);
+        }
+    }
+
+    private static String encode(String value) {
+        return ENCODER.encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String decode(String value) {
+        return new String(DECODER.decode(value), StandardCharsets.UTF_8);
+    }
+}
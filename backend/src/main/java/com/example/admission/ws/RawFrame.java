@@ -0,0 +1,104 @@
+package com.example.admission.ws;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Pass-through Pub/Sub frame: a small text header followed by the final JSON bytes.
+ *
+ * <pre>
+ *   R1|{type}|{destination}|{movieId}|{seq}\n{json payload}
+ * </pre>
+ *
+ * The publisher serializes the payload once. The listener reads only the header
+ * (up to the first '\n') and forwards the remaining bytes to the STOMP broker
+ * without parsing them. movieId/seq are filled in for STATS only, so the listener
+ * can drop stale frames without reading the body. Empty fields are left blank.
+ *
+ * Legacy frames are plain JSON and always start with '{', so the two formats
+ * can be told apart by the first byte.
+ *
+ * Header fields must not contain '|', '\r' or '\n'. IDs are validated at the API
+ * boundary (IdPattern); anything that still fails {@link #isEncodable} is published
+ * as plain JSON instead of a raw frame.
+ */
+final class RawFrame {
+
+    static final byte MARKER = 'R';
+    private static final String VERSION = "R1";
+    private static final int MAX_HEADER_BYTES = 512;
+
+    final String type;
+    final String destination;
+    final String movieId;
+    final long seq;
+    final int payloadOffset;
+
+    private RawFrame(String type, String destination, String movieId, long seq, int payloadOffset) {
+        this.type = type;
+        this.destination = destination;
+        this.movieId = movieId;
+        this.seq = seq;
+        this.payloadOffset = payloadOffset;
+    }
+
+    static boolean isRawFrame(byte[] body) {
+        return body.length > 0 && body[0] == MARKER;
+    }
+
+    static boolean isEncodable(String type, String destination, String movieId) {
+        return isHeaderSafe(type) && isHeaderSafe(destination) && (movieId == null || isHeaderSafe(movieId));
+    }
+
+    private static boolean isHeaderSafe(String field) {
+        for (int i = 0; i < field.length(); i++) {
+            char c = field.charAt(i);
+            if (c == '|' || c == '\n' || c == '\r') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @throws IllegalArgumentException if a header field contains a separator
+     */
+    static byte[] encode(String type, String destination, String movieId, long seq, byte[] json) {
+        if (!isEncodable(type, destination, movieId)) {
+            throw new IllegalArgumentException("raw frame header field contains a separator");
+        }
+        String header = VERSION + '|' + type + '|' + destination + '|'
+                + (movieId != null ? movieId : "") + '|' + (seq > 0 ? seq : "") + '\n';
+        byte[] headerBytes = header.getBytes(StandardCharsets.UTF_8);
+        byte[] frame = new byte[headerBytes.length + json.length];
+        System.arraycopy(headerBytes, 0, frame, 0, headerBytes.length);
+        System.arraycopy(json, 0, frame, headerBytes.length, json.length);
+        return frame;
+    }
+
+    /**
+     * Decode the header only.
+     *
+     * @throws IllegalArgumentException if the header is malformed
+     */
+    static RawFrame decodeHeader(byte[] body) {
+        int limit = Math.min(body.length, MAX_HEADER_BYTES);
+        int newline = -1;
+        for (int i = 0; i < limit; i++) {
+            if (body[i] == '\n') {
+                newline = i;
+                break;
+            }
+        }
+        if (newline < 0) {
+            throw new IllegalArgumentException("raw frame header not terminated");
+        }
+
+        String[] fields = new String(body, 0, newline, StandardCharsets.UTF_8).split("\\|", -1);
+        if (fields.length != 5 || !VERSION.equals(fields[0])) {
+            throw new IllegalArgumentException("unsupported raw frame header");
+        }
+        long seq = fields[4].isEmpty() ? 0L : Long.parseLong(fields[4]);
+        String movieId = fields[3].isEmpty() ? null : fields[3];
+        return new RawFrame(fields[1], fields[2], movieId, seq, newline + 1);
+    }
+}
@@ -1,16 +1,28 @@
 package com.example.admission.ws;
 
+import com.example.admission.token.AdmissionTokenService;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.springframework.data.redis.connection.Message;
 import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
 import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.support.MessageBuilder;
 import org.springframework.stereotype.Component;
+import org.springframework.util.MimeTypeUtils;
 
 import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Redis Pub/Sub subscriber for the "queue:notifications" channel.
@@ -20,16 +32,35 @@ import java.util.Map;
  * from the "type" field, and forwards the payload to all local STOMP
  * subscribers via {@link SimpMessagingTemplate}. Because every pod subscribes
  * to the same channel, clients receive the notification regardless of which
- * pod they are connected to.
+ * pod they are connected to. The same listener is also bound to this pod's
+ * own channel ("queue:notifications:{podId}"), where per-user events for
+ * locally connected clients arrive (see {@link WebSocketConnectionRegistry}).
  *
  * <p>Routing rules:</p>
  * <ul>
  *   <li>type=ADMISSION  -> /topic/admission/{requestId}</li>
+ *   <li>type=ADMISSION_BATCH -> /topic/admission/{requestId} for each entry in "requestIds"
+ *       (each subscriber receives the same payload shape as a single ADMISSION)</li>
  *   <li>type=TIMEOUT    -> /topic/timeout/{requestId}</li>
+ *   <li>type=TIMEOUT_BATCH -> /topic/timeout/{requestId} for each entry in "requestIds"
+ *       (same payload shape as a single TIMEOUT)</li>
  *   <li>type=STATS      -> /topic/stats/movie/{movieId}</li>
  *   <li>type=SOLD_OUT   -> /topic/stats/movie/{movieId} (with soldOut=true)</li>
+ *   <li>type=SEAT_DELTA -> /topic/seats/{movieId}/{theaterId}</li>
  * </ul>
  *
+ * <p>STATS frames carry a per-movie "seq" issued under the stats publisher lease.
+ * A frame whose seq is not newer than the last forwarded one for that movie is a
+ * duplicate or arrived out of order (e.g. during lease hand-over) and is dropped.
+ * If no frame has been forwarded for {@value #STATS_SEQ_RESET_MS} ms, any seq is
+ * accepted again so that a reset counter cannot silence a movie.</p>
+ *
+ * <p>Raw frames ({@link RawFrame}, first byte 'R') carry type and destination in a
+ * short header. Their JSON body is forwarded to the broker as-is with an
+ * application/json content type. It is not parsed into a Map and not re-serialized.
+ * Relay latency for both paths is recorded as
+ * {@code cgv_ws_relay_duration_seconds{mode=raw|json}}.</p>
+ *
  * @see WebSocketBroadcastService
  */
 @Component
@@ -37,18 +68,70 @@ public class WebSocketBroadcastListener implements MessageListener {
 
     private static final Logger log = LoggerFactory.getLogger(WebSocketBroadcastListener.class);
     private static final TypeReference<Map<String, Object>> MAP_TYPE = new TypeReference<>() {};
+    private static final long STATS_SEQ_RESET_MS = 10_000;
 
     private final SimpMessagingTemplate messagingTemplate;
     private final ObjectMapper objectMapper;
+    private final AdmissionTokenService tokenService;
+    private final Timer rawRelayTimer;
+    private final Timer jsonRelayTimer;
+
+    // movieId -> last forwarded STATS seq
+    private final Map<String, StatsSeq> lastStatsSeq = new ConcurrentHashMap<>();
 
     public WebSocketBroadcastListener(SimpMessagingTemplate messagingTemplate,
-                                      ObjectMapper objectMapper) {
+                                      ObjectMapper objectMapper,
+                                      AdmissionTokenService tokenService,
+                                      MeterRegistry meterRegistry) {
         this.messagingTemplate = messagingTemplate;
         this.objectMapper = objectMapper;
+        this.tokenService = tokenService;
+        this.rawRelayTimer = Timer.builder("cgv_ws_relay_duration_seconds")
+                .tag("mode", "raw")
+                .register(meterRegistry);
+        this.jsonRelayTimer = Timer.builder("cgv_ws_relay_duration_seconds")
+                .tag("mode", "json")
+                .register(meterRegistry);
     }
 
     @Override
     public void onMessage(Message message, byte[] pattern) {
+        long start = System.nanoTime();
+        byte[] raw = message.getBody();
+        if (RawFrame.isRawFrame(raw)) {
+            relayRawFrame(raw);
+            rawRelayTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            return;
+        }
+        relayJson(message);
+        jsonRelayTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Pass-through path: header decode + broker send, body bytes untouched.
+     */
+    private void relayRawFrame(byte[] raw) {
+        try {
+            RawFrame frame = RawFrame.decodeHeader(raw);
+            if ("STATS".equals(frame.type) && frame.seq > 0 && isStaleStats(frame.movieId, frame.seq)) {
+                log.debug("Dropped stale STATS: movieId={}, seq={}", frame.movieId, frame.seq);
+                return;
+            }
+
+            byte[] json = Arrays.copyOfRange(raw, frame.payloadOffset, raw.length);
+            SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+            accessor.setContentType(MimeTypeUtils.APPLICATION_JSON);
+            accessor.setLeaveMutable(true);
+            messagingTemplate.send(frame.destination,
+                    MessageBuilder.createMessage(json, accessor.getMessageHeaders()));
+
+            log.debug("Relayed raw frame: type={} -> {}", frame.type, frame.destination);
+        } catch (Exception e) {
+            log.error("Failed to relay raw Pub/Sub frame: {}", e.getMessage());
+        }
+    }
+
+    private void relayJson(Message message) {
         String body = null;
         try {
             body = new String(message.getBody(), StandardCharsets.UTF_8);
@@ -60,12 +143,27 @@ public class WebSocketBroadcastListener implements MessageListener {
                 return;
             }
 
+            if ("ADMISSION_BATCH".equals(type)) {
+                fanOutAdmissionBatch(payload);
+                return;
+            }
+            if ("TIMEOUT_BATCH".equals(type)) {
+                fanOutTimeoutBatch(payload);
+                return;
+            }
+
             String destination = resolveDestination(type, payload);
             if (destination == null) {
                 // resolveDestination already logged the reason
                 return;
             }
 
+            if ("STATS".equals(type) && payload.get("seq") instanceof Number seq
+                    && isStaleStats(String.valueOf(payload.get("movieId")), seq.longValue())) {
+                log.debug("Dropped stale STATS: movieId={}, seq={}", payload.get("movieId"), payload.get("seq"));
+                return;
+            }
+
             // Send the parsed Map (not raw String) so Spring serializes it properly
             messagingTemplate.convertAndSend(destination, payload);
 
@@ -77,6 +175,61 @@ public class WebSocketBroadcastListener implements MessageListener {
         }
     }
 
+    /**
+     * Expand an ADMISSION_BATCH into one ADMISSION frame per admitted user.
+     * Each frame gets its own admission token, signed here with the batch
+     * timestamp as admittedAt (the publisher sends ids only).
+     */
+    private void fanOutAdmissionBatch(Map<String, Object> payload) {
+        if (!(payload.get("requestIds") instanceof List<?> requestIds)) {
+            log.warn("ADMISSION_BATCH message missing 'requestIds'");
+            return;
+        }
+        Object movieId = payload.get("movieId");
+        Object timestamp = payload.get("timestamp");
+        long admittedAt = timestamp instanceof Number number ? number.longValue() : System.currentTimeMillis();
+
+        for (Object requestId : requestIds) {
+            Map<String, Object> admission = new LinkedHashMap<>();
+            admission.put("type", "ADMISSION");
+            admission.put("status", "ADMITTED");
+            admission.put("action", "REDIRECT_TO_SEATS");
+            admission.put("requestId", requestId);
+            admission.put("movieId", movieId);
+            admission.put("timestamp", timestamp);
+            admission.put("admissionToken",
+                    tokenService.issue(String.valueOf(movieId), String.valueOf(requestId), admittedAt));
+            messagingTemplate.convertAndSend("/topic/admission/" + requestId, admission);
+        }
+
+        log.debug("Fanned out ADMISSION_BATCH: movieId={}, users={}", movieId, requestIds.size());
+    }
+
+    /**
+     * Expand a TIMEOUT_BATCH into one TIMEOUT frame per expired user.
+     */
+    private void fanOutTimeoutBatch(Map<String, Object> payload) {
+        if (!(payload.get("requestIds") instanceof List<?> requestIds)) {
+            log.warn("TIMEOUT_BATCH message missing 'requestIds'");
+            return;
+        }
+        Object movieId = payload.get("movieId");
+        Object timestamp = payload.get("timestamp");
+
+        for (Object requestId : requestIds) {
+            Map<String, Object> timeout = new LinkedHashMap<>();
+            timeout.put("type", "TIMEOUT");
+            timeout.put("status", "TIMEOUT");
+            timeout.put("action", "REDIRECT_TO_MOVIES");
+            timeout.put("requestId", requestId);
+            timeout.put("movieId", movieId);
+            timeout.put("timestamp", timestamp);
+            messagingTemplate.convertAndSend("/topic/timeout/" + requestId, timeout);
+        }
+
+        log.debug("Fanned out TIMEOUT_BATCH: movieId={}, users={}", movieId, requestIds.size());
+    }
+
     /**
      * Map the message type to the correct STOMP destination.
      *
@@ -116,6 +269,15 @@ public class WebSocketBroadcastListener implements MessageListener {
                 }
                 yield "/topic/stats/movie/" + movieId;
             }
+            case "SEAT_DELTA" -> {
+                Object movieId = payload.get("movieId");
+                Object theaterId = payload.get("theaterId");
+                if (movieId == null || theaterId == null) {
+                    log.warn("SEAT_DELTA message missing 'movieId' or 'theaterId'");
+                    yield null;
+                }
+                yield "/topic/seats/" + movieId + "/" + theaterId;
+            }
             default -> {
                 log.warn("Unknown message type '{}', ignoring", type);
                 yield null;
@@ -123,6 +285,29 @@ public class WebSocketBroadcastListener implements MessageListener {
         };
     }
 
+    /**
+     * Check the STATS sequence and remember it if the frame is to be forwarded.
+     * Frames without a seq (older publishers) are never passed here and are always forwarded.
+     *
+     * @return true if the frame is a duplicate or older than the last forwarded one
+     */
+    private boolean isStaleStats(String movieId, long seq) {
+        long now = System.currentTimeMillis();
+
+        boolean[] stale = {false};
+        lastStatsSeq.compute(movieId, (id, last) -> {
+            if (last != null && seq <= last.seq() && now - last.forwardedAt() < STATS_SEQ_RESET_MS) {
+                stale[0] = true;
+                return last;
+            }
+            return new StatsSeq(seq, now);
+        });
+        return stale[0];
+    }
+
+    private record StatsSeq(long seq, long forwardedAt) {
+    }
+
     /**
      * Truncate long message bodies for safe logging.
      */
@@ -1,12 +1,19 @@
 package com.example.admission.ws;
 
+import com.example.admission.token.AdmissionTokenService;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.RedisCallback;
 import org.springframework.data.redis.core.StringRedisTemplate;
 import org.springframework.stereotype.Service;
 
+import java.nio.charset.StandardCharsets;
 import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -21,17 +28,32 @@ import java.util.Map;
  *
  * <p>Message format (JSON with mandatory "type" field):</p>
  * <pre>
- *   { "type": "ADMISSION|TIMEOUT|STATS|SOLD_OUT", ...fields, "timestamp": epoch }
+ *   { "type": "ADMISSION|ADMISSION_BATCH|TIMEOUT|TIMEOUT_BATCH|STATS|SOLD_OUT|SEAT_DELTA", ...fields, "timestamp": epoch }
  * </pre>
  *
+ * <p>Directed per-user events: ADMISSION and TIMEOUT are published only to the
+ * owning pod's channel ("queue:notifications:{podId}") when
+ * {@link WebSocketConnectionRegistry} knows which pod holds the client's socket.
+ * If the owner is unknown or nobody is listening on its channel (pod gone),
+ * the event falls back to the shared channel.</p>
+ *
  * <p>Routing (handled by WebSocketBroadcastListener):</p>
  * <ul>
  *   <li>ADMISSION  -> /topic/admission/{requestId}</li>
+ *   <li>ADMISSION_BATCH -> /topic/admission/{requestId} for each requestId</li>
  *   <li>TIMEOUT    -> /topic/timeout/{requestId}</li>
+ *   <li>TIMEOUT_BATCH -> /topic/timeout/{requestId} for each requestId</li>
  *   <li>STATS      -> /topic/stats/movie/{movieId}</li>
  *   <li>SOLD_OUT   -> /topic/stats/movie/{movieId}</li>
+ *   <li>SEAT_DELTA -> /topic/seats/{movieId}/{theaterId}</li>
  * </ul>
  *
+ * <p>Raw frames: with {@code admission.ws-raw-frames=true}, every type except
+ * ADMISSION_BATCH and TIMEOUT_BATCH is published as a {@link RawFrame}. The header carries the
+ * resolved STOMP destination, so listeners forward the JSON bytes without parsing
+ * them. Keep this off until every pod runs a listener that understands raw frames.
+ * A listener that does not would drop them as unparseable JSON.</p>
+ *
  * @see WebSocketBroadcastListener
  * @see WebSocketUpdateService (legacy single-pod fallback)
  */
@@ -39,15 +61,33 @@ import java.util.Map;
 public class WebSocketBroadcastService {
 
     private static final Logger log = LoggerFactory.getLogger(WebSocketBroadcastService.class);
-    private static final String CHANNEL = "queue:notifications";
+    private static final String CHANNEL = WebSocketConnectionRegistry.BROADCAST_CHANNEL;
 
     private final StringRedisTemplate redisTemplate;
     private final ObjectMapper objectMapper;
+    private final WebSocketConnectionRegistry connectionRegistry;
+    private final AdmissionTokenService tokenService;
+    private final Counter directedCount;
+    private final Counter broadcastFallbackCount;
+
+    @Value("${admission.ws-raw-frames:false}")
+    private boolean rawFrames;
 
     public WebSocketBroadcastService(StringRedisTemplate redisTemplate,
-                                     ObjectMapper objectMapper) {
+                                     ObjectMapper objectMapper,
+                                     WebSocketConnectionRegistry connectionRegistry,
+                                     AdmissionTokenService tokenService,
+                                     MeterRegistry meterRegistry) {
         this.redisTemplate = redisTemplate;
         this.objectMapper = objectMapper;
+        this.connectionRegistry = connectionRegistry;
+        this.tokenService = tokenService;
+        this.directedCount = Counter.builder("cgv_ws_user_events_total")
+                .tag("route", "directed")
+                .register(meterRegistry);
+        this.broadcastFallbackCount = Counter.builder("cgv_ws_user_events_total")
+                .tag("route", "broadcast")
+                .register(meterRegistry);
     }
 
     /**
@@ -64,13 +104,54 @@ public class WebSocketBroadcastService {
         payload.put("action", "REDIRECT_TO_SEATS");
         payload.put("requestId", requestId);
         payload.put("movieId", movieId);
+        payload.put("admissionToken", tokenService.issue(movieId, requestId));
         payload.put("timestamp", System.currentTimeMillis());
-        publish(payload);
+        publishToOwner(requestId, payload);
 
         log.info("Published ADMISSION: requestId={}..., movieId={}",
                 truncateId(requestId), movieId);
     }
 
+    /**
+     * Publish admission notifications for one promotion cycle.
+     * Called by QueueProcessor with all users admitted in a single admit_next run.
+     *
+     * <p>Owners are resolved with one MGET. Users are grouped by the pod that
+     * holds their socket, and each group becomes one ADMISSION_BATCH message on
+     * that pod's channel. Users with no known owner go out as one batch on the
+     * shared channel. A cycle of 5,000 admissions costs a few publishes instead
+     * of 5,000, and each pod parses one message per group instead of one per user.</p>
+     *
+     * @param movieId    movie the users were waiting for
+     * @param requestIds admitted users, in admission order
+     */
+    public void notifyAdmissionBatch(String movieId, List<String> requestIds) {
+        if (requestIds.isEmpty()) {
+            return;
+        }
+        long timestamp = System.currentTimeMillis();
+        Map<String, List<String>> byOwner = connectionRegistry.groupByOwner(requestIds);
+
+        for (Map.Entry<String, List<String>> group : byOwner.entrySet()) {
+            Map<String, Object> payload = new LinkedHashMap<>();
+            payload.put("type", "ADMISSION_BATCH");
+            payload.put("movieId", movieId);
+            payload.put("requestIds", group.getValue());
+            payload.put("timestamp", timestamp);
+
+            String owner = group.getKey();
+            if (owner == null || !publishDirected(owner, payload)) {
+                broadcastFallbackCount.increment(group.getValue().size());
+                publish(payload);
+            } else {
+                directedCount.increment(group.getValue().size());
+            }
+        }
+
+        log.info("Published ADMISSION_BATCH: movieId={}, users={}, messages={}",
+                movieId, requestIds.size(), byOwner.size());
+    }
+
     /**
      * Publish timeout notification.
      * Called by SessionTimeoutProcessor when an active session expires.
@@ -86,15 +167,52 @@ public class WebSocketBroadcastService {
         payload.put("requestId", requestId);
         payload.put("movieId", movieId);
         payload.put("timestamp", System.currentTimeMillis());
-        publish(payload);
+        publishToOwner(requestId, payload);
 
         log.warn("Published TIMEOUT: requestId={}..., movieId={}",
                 truncateId(requestId), movieId);
     }
 
+    /**
+     * Publish timeout notifications for one expiry batch.
+     * Called by SessionTimeoutProcessor with the users one session_expire run removed.
+     * Grouped by owner pod like {@link #notifyAdmissionBatch}: one TIMEOUT_BATCH per
+     * owner channel, unknown owners as one batch on the shared channel.
+     *
+     * @param movieId    movie the sessions belonged to
+     * @param requestIds timed-out users
+     */
+    public void notifyTimeoutBatch(String movieId, List<String> requestIds) {
+        if (requestIds.isEmpty()) {
+            return;
+        }
+        long timestamp = System.currentTimeMillis();
+        Map<String, List<String>> byOwner = connectionRegistry.groupByOwner(requestIds);
+
+        for (Map.Entry<String, List<String>> group : byOwner.entrySet()) {
+            Map<String, Object> payload = new LinkedHashMap<>();
+            payload.put("type", "TIMEOUT_BATCH");
+            payload.put("movieId", movieId);
+            payload.put("requestIds", group.getValue());
+            payload.put("timestamp", timestamp);
+
+            String owner = group.getKey();
+            if (owner == null || !publishDirected(owner, payload)) {
+                broadcastFallbackCount.increment(group.getValue().size());
+                publish(payload);
+            } else {
+                directedCount.increment(group.getValue().size());
+            }
+        }
+
+        log.warn("Published TIMEOUT_BATCH: movieId={}, users={}, messages={}",
+                movieId, requestIds.size(), byOwner.size());
+    }
+
     /**
      * Broadcast queue statistics for a specific movie.
-     * Called by RealtimeStatsBroadcaster every 1 second.
+     * Called by RealtimeStatsBroadcaster every 1 second, only on the pod
+     * holding the movie's stats publisher lease.
      *
      * <p>broadcast-only architecture: instead of sending individual rank
      * updates (O(N) per-user ZRANK), we publish aggregate stats once.
@@ -105,20 +223,23 @@ public class WebSocketBroadcastService {
      * @param waitingCount   current number of users in the waiting queue
      * @param activeCount    current number of users in active sessions
      * @param processedCount cumulative number of users processed (monotonically increasing)
+     * @param seq            per-movie sequence from the stats publisher lease; listeners and
+     *                       clients drop frames whose seq is not newer than the last one seen
      */
     public void broadcastQueueStats(String movieId, long waitingCount,
-                                    long activeCount, long processedCount) {
+                                    long activeCount, long processedCount, long seq) {
         Map<String, Object> payload = new LinkedHashMap<>();
         payload.put("type", "STATS");
         payload.put("movieId", movieId);
         payload.put("waitingCount", waitingCount);
         payload.put("activeCount", activeCount);
         payload.put("processedCount", processedCount);
+        payload.put("seq", seq);
         payload.put("timestamp", System.currentTimeMillis());
         publish(payload);
 
-        log.debug("Published STATS: movieId={}, waiting={}, active={}, processed={}",
-                movieId, waitingCount, activeCount, processedCount);
+        log.debug("Published STATS: movieId={}, waiting={}, active={}, processed={}, seq={}",
+                movieId, waitingCount, activeCount, processedCount, seq);
     }
 
     /**
@@ -138,6 +259,37 @@ public class WebSocketBroadcastService {
         log.info("Published SOLD_OUT: movieId={}", movieId);
     }
 
+    /**
+     * Broadcast coalesced seat changes for one theater.
+     * Called by SeatDeltaPublisher once per coalescing window.
+     *
+     * <p>Every seat map change bumps the theater's version by one, and
+     * "versions" lists all versions folded into this frame. A client holding a
+     * seat map at version V applies the changes when every version between V
+     * and this frame's highest version has been seen. Otherwise it reloads the
+     * snapshot from GET /api/theaters/{movieId}/{theaterId}/seats.</p>
+     *
+     * @param movieId   target movie
+     * @param theaterId target theater
+     * @param changes   [seatIndex, state] pairs, last state per seat (0=free, 1=held, 2=booked)
+     * @param versions  seat map versions covered by the changes, ascending
+     */
+    public void broadcastSeatDelta(String movieId, String theaterId,
+                                   List<int[]> changes, List<Long> versions) {
+        Map<String, Object> payload = new LinkedHashMap<>();
+        payload.put("type", "SEAT_DELTA");
+        payload.put("movieId", movieId);
+        payload.put("theaterId", theaterId);
+        payload.put("changes", changes);
+        payload.put("versions", versions);
+        payload.put("version", versions.get(versions.size() - 1));
+        payload.put("timestamp", System.currentTimeMillis());
+        publish(payload);
+
+        log.debug("Published SEAT_DELTA: movieId={}, theaterId={}, changes={}, version={}",
+                movieId, theaterId, changes.size(), payload.get("version"));
+    }
+
     /**
      * Publish a JSON message to the Redis Pub/Sub channel.
      * Serialization or Redis errors are caught and logged; they do not
@@ -145,14 +297,86 @@ public class WebSocketBroadcastService {
      */
     private void publish(Map<String, Object> payload) {
         try {
-            String json = objectMapper.writeValueAsString(payload);
-            redisTemplate.convertAndSend(CHANNEL, json);
+            send(CHANNEL, encode(payload));
         } catch (Exception e) {
             log.error("Failed to publish to {}: type={}, error={}",
                     CHANNEL, payload.get("type"), e.getMessage());
         }
     }
 
+    /**
+     * Publish a per-user message to the pod that holds the user's socket.
+     * Falls back to the shared channel when the owner is unknown or its
+     * channel has no subscriber (PUBLISH returned 0 receivers).
+     */
+    private void publishToOwner(String requestId, Map<String, Object> payload) {
+        String owner = connectionRegistry.ownerOf(requestId);
+        if (owner != null && publishDirected(owner, payload)) {
+            directedCount.increment();
+            return;
+        }
+        broadcastFallbackCount.increment();
+        publish(payload);
+    }
+
+    /**
+     * Publish to one pod's channel.
+     *
+     * @return true if at least one subscriber received it
+     */
+    private boolean publishDirected(String owner, Map<String, Object> payload) {
+        try {
+            Long receivers = send(connectionRegistry.channelOf(owner), encode(payload));
+            return receivers != null && receivers > 0;
+        } catch (Exception e) {
+            log.warn("Directed publish failed, falling back to broadcast: type={}, error={}",
+                    payload.get("type"), e.getMessage());
+            return false;
+        }
+    }
+
+    private Long send(String channel, byte[] message) {
+        byte[] channelBytes = channel.getBytes(StandardCharsets.UTF_8);
+        return redisTemplate.execute((RedisCallback<Long>) connection ->
+                connection.publish(channelBytes, message));
+    }
+
+    /**
+     * Serialize the payload once. In raw-frame mode the destination is resolved
+     * here and prepended as a header, so the listener does not need to parse the body.
+     */
+    private byte[] encode(Map<String, Object> payload) throws Exception {
+        byte[] json = objectMapper.writeValueAsBytes(payload);
+        String type = (String) payload.get("type");
+        String destination = rawFrames ? destinationOf(type, payload) : null;
+        if (destination == null) {
+            return json;
+        }
+        String movieId = "STATS".equals(type) ? (String) payload.get("movieId") : null;
+        if (!RawFrame.isEncodable(type, destination, movieId)) {
+            log.warn("Header-unsafe identifier, publishing as plain JSON: type={}", type);
+            return json;
+        }
+        if (movieId != null) {
+            return RawFrame.encode(type, destination, movieId, (Long) payload.get("seq"), json);
+        }
+        return RawFrame.encode(type, destination, null, 0L, json);
+    }
+
+    /**
+     * Same routing as the listener's JSON path. ADMISSION_BATCH and TIMEOUT_BATCH are
+     * fanned out by the listener and have no single destination, so they stay plain JSON.
+     */
+    private String destinationOf(String type, Map<String, Object> payload) {
+        return switch (type) {
+            case "ADMISSION" -> "/topic/admission/" + payload.get("requestId");
+            case "TIMEOUT" -> "/topic/timeout/" + payload.get("requestId");
+            case "STATS", "SOLD_OUT" -> "/topic/stats/movie/" + payload.get("movieId");
+            case "SEAT_DELTA" -> "/topic/seats/" + payload.get("movieId") + "/" + payload.get("theaterId");
+            default -> null;
+        };
+    }
+
     private String truncateId(String id) {
         if (id == null) return "null";
         return id.length() > 8 ? id.substring(0, 8) : id;
@@ -0,0 +1,155 @@
+package com.example.admission.ws;
+
+import com.example.admission.service.LoadBalancingOptimizer;
+import com.example.redis.LuaScriptRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+import org.springframework.web.socket.messaging.SessionSubscribeEvent;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * requestId -> pod connection registry for directed per-user notifications.
+ *
+ * When a client subscribes to {@code /topic/admission/{requestId}} or
+ * {@code /topic/timeout/{requestId}}, this pod records itself as the owner in
+ * {@code ws:owner:{requestId}} (String, TTL). {@link WebSocketBroadcastService}
+ * then publishes that user's ADMISSION / TIMEOUT only to the owner's channel
+ * ({@code queue:notifications:{podId}}) instead of the shared channel, so each
+ * pod only deserializes events for its own clients.
+ *
+ * <p>On disconnect, ownership is released with a compare-and-delete
+ * (ws_owner_release.lua) so that a client that already reconnected to another
+ * pod keeps its new owner.</p>
+ */
+@Component
+public class WebSocketConnectionRegistry {
+
+    private static final Logger log = LoggerFactory.getLogger(WebSocketConnectionRegistry.class);
+
+    public static final String BROADCAST_CHANNEL = "queue:notifications";
+    private static final String OWNER_KEY_PREFIX = "ws:owner:";
+    private static final List<String> PER_USER_PREFIXES = List.of("/topic/admission/", "/topic/timeout/");
+
+    private final StringRedisTemplate redisTemplate;
+    private final LuaScriptRegistry scriptRegistry;
+    private final String podId;
+
+    // STOMP sessionId -> requestIds owned through that session (released on disconnect)
+    private final Map<String, Set<String>> sessionRequestIds = new ConcurrentHashMap<>();
+
+    @Value("${admission.ws-owner-ttl-seconds:1800}")
+    private long ownerTtlSeconds;
+
+    public WebSocketConnectionRegistry(StringRedisTemplate redisTemplate,
+                                       LuaScriptRegistry scriptRegistry,
+                                       LoadBalancingOptimizer loadBalancer) {
+        this.redisTemplate = redisTemplate;
+        this.scriptRegistry = scriptRegistry;
+        this.podId = loadBalancer.getPodId();
+    }
+
+    /**
+     * @return the Pub/Sub channel that only this pod subscribes to
+     */
+    public String getLocalChannel() {
+        return channelOf(podId);
+    }
+
+    public String channelOf(String ownerPodId) {
+        return BROADCAST_CHANNEL + ":" + ownerPodId;
+    }
+
+    /**
+     * @return the pod currently holding the client's socket, or null if unknown
+     */
+    public String ownerOf(String requestId) {
+        try {
+            return redisTemplate.opsForValue().get(OWNER_KEY_PREFIX + requestId);
+        } catch (Exception e) {
+            log.debug("Owner lookup failed for {}: {}", requestId, e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Resolve owners for many users with a single MGET.
+     *
+     * @return owner podId (null key = unknown owner) -> requestIds, preserving input order
+     */
+    public Map<String, List<String>> groupByOwner(List<String> requestIds) {
+        List<String> owners = null;
+        try {
+            owners = redisTemplate.opsForValue().multiGet(
+                    requestIds.stream().map(id -> OWNER_KEY_PREFIX + id).toList());
+        } catch (Exception e) {
+            log.debug("Owner batch lookup failed: {}", e.getMessage());
+        }
+
+        Map<String, List<String>> groups = new LinkedHashMap<>();
+        for (int i = 0; i < requestIds.size(); i++) {
+            String owner = owners != null && i < owners.size() ? owners.get(i) : null;
+            groups.computeIfAbsent(owner, o -> new ArrayList<>()).add(requestIds.get(i));
+        }
+        return groups;
+    }
+
+    @EventListener
+    public void handleSubscribe(SessionSubscribeEvent event) {
+        StompHeaderAccessor accessor = StompHeaderAccessor.wrap(event.getMessage());
+        String requestId = perUserRequestId(accessor.getDestination());
+        if (requestId == null || accessor.getSessionId() == null) {
+            return;
+        }
+
+        sessionRequestIds.computeIfAbsent(accessor.getSessionId(), id -> ConcurrentHashMap.newKeySet())
+                .add(requestId);
+        try {
+            redisTemplate.opsForValue().set(OWNER_KEY_PREFIX + requestId, podId,
+                    Duration.ofSeconds(ownerTtlSeconds));
+        } catch (Exception e) {
+            // Unknown owner falls back to the broadcast channel
+            log.warn("Failed to register ws owner for {}: {}", requestId, e.getMessage());
+        }
+    }
+
+    @EventListener
+    public void handleDisconnect(SessionDisconnectEvent event) {
+        Set<String> requestIds = sessionRequestIds.remove(event.getSessionId());
+        if (requestIds == null) {
+            return;
+        }
+        for (String requestId : requestIds) {
+            try {
+                scriptRegistry.execute("ws_owner_release", Long.class,
+                        List.of(OWNER_KEY_PREFIX + requestId), podId);
+            } catch (Exception e) {
+                log.debug("Failed to release ws owner for {}: {}", requestId, e.getMessage());
+            }
+        }
+    }
+
+    private String perUserRequestId(String destination) {
+        if (destination == null) {
+            return null;
+        }
+        for (String prefix : PER_USER_PREFIXES) {
+            if (destination.startsWith(prefix) && destination.length() > prefix.length()) {
+                return destination.substring(prefix.length());
+            }
+        }
+        return null;
+    }
+}
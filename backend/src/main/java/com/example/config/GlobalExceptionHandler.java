@@ -1,5 +1,7 @@
 package com.example.config;
 
+import com.example.admission.token.AdmissionTokenException;
+import jakarta.validation.ConstraintViolationException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.data.redis.RedisConnectionFailureException;
@@ -20,8 +22,10 @@ import java.util.Map;
  *
  * 매핑:
  *   MethodArgumentNotValidException -> 400 Bad Request (필드별 에러 메시지)
+ *   ConstraintViolationException    -> 400 Bad Request (요청 파라미터 검증 실패)
  *   IllegalStateException           -> 409 Conflict (상태 충돌)
  *   IllegalArgumentException        -> 400 Bad Request (잘못된 인자)
+ *   AdmissionTokenException         -> 403 Forbidden (다른 영화/사용자의 입장 토큰)
  *   RedisConnectionFailureException -> 503 Service Unavailable (Redis 장애)
  *   Exception                       -> 500 Internal Server Error (기타)
  */
@@ -43,6 +47,20 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(errors);
     }
 
+    /**
+     * @Validated 컨트롤러의 @RequestParam / @PathVariable 검증 실패 -> 400 + 파라미터별 에러 메시지
+     */
+    @ExceptionHandler(ConstraintViolationException.class)
+    public ResponseEntity<Map<String, String>> handleConstraintViolation(ConstraintViolationException ex) {
+        Map<String, String> errors = new HashMap<>();
+        ex.getConstraintViolations().forEach(violation -> {
+            String path = violation.getPropertyPath().toString();
+            errors.put(path.substring(path.lastIndexOf('.') + 1), violation.getMessage());
+        });
+        logger.warn("Validation failed: {}", errors);
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(errors);
+    }
+
     /**
      * 비즈니스 상태 충돌 (예: 이미 입장한 사용자 재입장) -> 409
      */
@@ -67,6 +85,18 @@ public class GlobalExceptionHandler {
         ));
     }
 
+    /**
+     * 입장 토큰이 요청 본문의 movieId / requestId 와 다름 -> 403
+     */
+    @ExceptionHandler(AdmissionTokenException.class)
+    public ResponseEntity<Map<String, String>> handleAdmissionToken(AdmissionTokenException ex) {
+        logger.warn("Admission token mismatch: {}", ex.getMessage());
+        return ResponseEntity.status(HttpStatus.FORBIDDEN).body(Map.of(
+                "error", "FORBIDDEN",
+                "message", ex.getMessage()
+        ));
+    }
+
     /**
      * Redis 연결 장애 -> 503 Service Unavailable
      * Circuit Breaker 패턴과 함께 사용:
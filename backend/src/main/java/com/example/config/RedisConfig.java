@@ -1,6 +1,10 @@
 package com.example.config;
 
+import com.example.admission.SlotReleaseListener;
+import com.example.admission.service.SlotReleasePublisher;
+import com.example.admission.token.AdmissionTokenRevocations;
 import com.example.admission.ws.WebSocketBroadcastListener;
+import com.example.admission.ws.WebSocketConnectionRegistry;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
@@ -22,6 +26,15 @@ import org.springframework.data.redis.serializer.StringRedisSerializer;
  * pods receive every published message. The {@link WebSocketBroadcastListener}
  * then routes the message to local STOMP subscribers.
  *
+ * <p>Each pod also subscribes the same listener to its own channel,
+ * "queue:notifications:{podId}", which carries per-user events
+ * (ADMISSION / TIMEOUT) for clients connected to that pod only.
+ * See {@link WebSocketConnectionRegistry}.</p>
+ *
+ * <p>A second channel, "queue:slot-released", carries a bare movieId whenever
+ * an active slot is freed. {@link SlotReleaseListener} turns it into a debounced
+ * promotion on the pod that owns the movie.</p>
+ *
  * @see WebSocketBroadcastListener
  * @see com.example.admission.ws.WebSocketBroadcastService
  */
@@ -69,7 +82,10 @@ public class RedisConfig {
     @Bean
     public RedisMessageListenerContainer redisMessageListenerContainer(
             RedisConnectionFactory connectionFactory,
-            WebSocketBroadcastListener broadcastListener) {
+            WebSocketBroadcastListener broadcastListener,
+            SlotReleaseListener slotReleaseListener,
+            AdmissionTokenRevocations tokenRevocations,
+            WebSocketConnectionRegistry connectionRegistry) {
 
         RedisMessageListenerContainer container = new RedisMessageListenerContainer();
         container.setConnectionFactory(connectionFactory);
@@ -77,6 +93,15 @@ public class RedisConfig {
         // Single channel subscription: queue:notifications (event-type JSON routing)
         container.addMessageListener(broadcastListener, new ChannelTopic("queue:notifications"));
 
+        // Per-pod channel: directed per-user events for sockets held by this pod
+        container.addMessageListener(broadcastListener, new ChannelTopic(connectionRegistry.getLocalChannel()));
+
+        // Slot release events: immediate promotion instead of waiting for the next tick
+        container.addMessageListener(slotReleaseListener, new ChannelTopic(SlotReleasePublisher.CHANNEL));
+
+        // Admission token revocations: replicate the deny-set to every pod
+        container.addMessageListener(tokenRevocations, new ChannelTopic(AdmissionTokenRevocations.CHANNEL));
+
         return container;
     }
 }
@@ -1,36 +1,51 @@
 package com.example.movie.controller;
 
-import com.example.movie.dto.MovieResponseDto; // ★ MovieDto -> MovieResponseDto로 변경
-import com.example.movie.service.MovieService;
+import com.example.movie.service.MovieCatalog;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
-import java.util.List;
-
+/**
+ * 영화 목록 / 상세. MovieCatalog가 미리 직렬화한 JSON 바이트를 그대로 반환한다.
+ * ETag = 응답 바이트 해시, If-None-Match 일치 시 304
+ */
 @RestController
 @RequestMapping("/api/movies")
 public class MovieController {
 
-    private final MovieService movieService;
+    private final MovieCatalog movieCatalog;
 
-    public MovieController(MovieService movieService) {
-        this.movieService = movieService;
+    public MovieController(MovieCatalog movieCatalog) {
+        this.movieCatalog = movieCatalog;
     }
 
     @GetMapping
-    // ★ 반환 타입을 List<MovieResponseDto>로 수정
-    public ResponseEntity<List<MovieResponseDto>> getAllMovies() {
-        return ResponseEntity.ok(movieService.getAllMovies());
+    public ResponseEntity<byte[]> getAllMovies(
+            @RequestHeader(value = "If-None-Match", required = false) String ifNoneMatch) {
+        return respond(movieCatalog.all(), ifNoneMatch);
     }
 
     @GetMapping("/{movieId}")
-    // ★ 반환 타입을 MovieResponseDto로 수정
-    public ResponseEntity<MovieResponseDto> getMovieById(@PathVariable String movieId) {
-        return movieService.getMovieById(movieId)
-                .map(ResponseEntity::ok)
-                .orElse(ResponseEntity.notFound().build());
+    public ResponseEntity<byte[]> getMovieById(@PathVariable String movieId,
+                                               @RequestHeader(value = "If-None-Match", required = false) String ifNoneMatch) {
+        MovieCatalog.Payload movie = movieCatalog.movie(movieId);
+        if (movie == null) {
+            return ResponseEntity.notFound().build();
+        }
+        return respond(movie, ifNoneMatch);
+    }
+
+    private ResponseEntity<byte[]> respond(MovieCatalog.Payload payload, String ifNoneMatch) {
+        if (payload.etag().equals(ifNoneMatch)) {
+            return ResponseEntity.status(304).eTag(payload.etag()).build();
+        }
+        return ResponseEntity.ok()
+                .eTag(payload.etag())
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(payload.body());
     }
-}
\ No newline at end of file
+}
@@ -2,8 +2,20 @@ package com.example.movie.repository;
 
 import com.example.movie.entity.Movie;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
+import java.util.Optional;
+
 @Repository
 public interface MovieRepository extends JpaRepository<Movie, Long> {
-}
\ No newline at end of file
+
+    // showtimes를 같은 SELECT로 가져온다 (영화마다 추가 SELECT 없음)
+    @Query("SELECT DISTINCT m FROM Movie m LEFT JOIN FETCH m.showtimes ORDER BY m.id")
+    List<Movie> findAllWithShowtimes();
+
+    @Query("SELECT m FROM Movie m LEFT JOIN FETCH m.showtimes WHERE m.movieId = :movieId")
+    Optional<Movie> findByMovieId(@Param("movieId") String movieId);
+}
@@ -0,0 +1,117 @@
+package com.example.movie.service;
+
+import com.example.movie.dto.MovieResponseDto;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * MovieCatalog - 영화 목록 응답 스냅샷 (직렬화된 JSON 바이트 + ETag)
+ *
+ * 티켓 오픈 시 첫 화면(GET /api/movies)이 요청마다 findAll + DTO 변환 + JSON 직렬화를 반복하지 않도록,
+ * 목록 / 영화별 응답을 미리 byte[]로 만들어 두고 그대로 내보낸다.
+ * - 첫 사용 시 1회 빌드, refresh-ms 마다 다시 읽어 내용(바이트)이 바뀐 경우에만 스냅샷 교체
+ * - ETag = 응답 바이트 SHA-256 앞 16바이트 (strong), If-None-Match 일치 시 304
+ * - DB 오류 시 이전 스냅샷 유지 (한 번도 못 읽었으면 예외)
+ */
+@Service
+public class MovieCatalog {
+
+    private static final Logger logger = LoggerFactory.getLogger(MovieCatalog.class);
+
+    private final MovieService movieService;
+    private final ObjectMapper objectMapper;
+
+    private volatile Snapshot snapshot;
+
+    public MovieCatalog(MovieService movieService, ObjectMapper objectMapper) {
+        this.movieService = movieService;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * 전체 영화 목록 응답.
+     */
+    public Payload all() {
+        return get().all();
+    }
+
+    /**
+     * 영화 1편 응답 (비즈니스 ID 기준). 없으면 null.
+     */
+    public Payload movie(String movieId) {
+        return get().movies().get(movieId);
+    }
+
+    @Scheduled(initialDelayString = "${movies.catalog-refresh-ms:30000}",
+            fixedDelayString = "${movies.catalog-refresh-ms:30000}")
+    public void refresh() {
+        try {
+            build();
+        } catch (Exception e) {
+            logger.warn("영화 목록 스냅샷 갱신 실패 - 이전 스냅샷 사용: {}", e.getMessage());
+        }
+    }
+
+    private Snapshot get() {
+        Snapshot current = snapshot;
+        return current != null ? current : build();
+    }
+
+    private synchronized Snapshot build() {
+        List<MovieResponseDto> movies = movieService.getAllMovies();
+        Payload all = payload(movies);
+
+        Snapshot current = snapshot;
+        if (current != null && current.all().etag().equals(all.etag())) {
+            return current;
+        }
+
+        Map<String, Payload> byId = new HashMap<>();
+        for (MovieResponseDto movie : movies) {
+            byId.put(movie.getMovieId(), payload(movie));
+        }
+        Snapshot next = new Snapshot(all, Map.copyOf(byId));
+        snapshot = next;
+        logger.info("영화 목록 스냅샷 교체 - movies={}, bytes={}, etag={}", movies.size(), all.body().length, all.etag());
+        return next;
+    }
+
+    private Payload payload(Object value) {
+        try {
+            byte[] body = objectMapper.writeValueAsBytes(value);
+            return new Payload(body, etag(body));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("영화 목록 직렬화 실패", e);
+        }
+    }
+
+    private static String etag(byte[] body) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(body);
+            return "\"" + HexFormat.of().formatHex(digest, 0, 16) + "\"";
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * @param body JSON 응답 바이트 (수정 금지 - 모든 요청이 공유)
+     * @param etag 따옴표 포함 strong ETag
+     */
+    public record Payload(byte[] body, String etag) {
+    }
+
+    private record Snapshot(Payload all, Map<String, Payload> movies) {
+    }
+}
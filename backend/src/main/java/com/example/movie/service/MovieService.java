@@ -19,23 +19,17 @@ public class MovieService {
 
     @Transactional(readOnly = true)
     public List<MovieResponseDto> getAllMovies() {
-        return movieRepository.findAll().stream()
+        return movieRepository.findAllWithShowtimes().stream()
                 .map(MovieResponseDto::new)
                 .collect(Collectors.toList());
     }
 
+    /**
+     * @param movieId 영화 비즈니스 ID (예: "movie-topgun2")
+     */
     @Transactional(readOnly = true)
     public Optional<MovieResponseDto> getMovieById(String movieId) {
-        try {
-            // ★ 1. Convert the String movieId to a Long
-            Long id = Long.parseLong(movieId);
-            
-            // ★ 2. Use the converted Long id to find the movie
-            return movieRepository.findById(id)
-                    .map(MovieResponseDto::new);
-        } catch (NumberFormatException e) {
-            // Handle cases where the movieId is not a valid number.
-            return Optional.empty();
-        }
+        return movieRepository.findByMovieId(movieId)
+                .map(MovieResponseDto::new);
     }
-}
\ No newline at end of file
+}
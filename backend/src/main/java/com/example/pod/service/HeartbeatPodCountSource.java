@@ -0,0 +1,62 @@
+package com.example.pod.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.util.function.IntConsumer;
+
+/**
+ * Redis heartbeat 기반 Pod 수 소스 (K8s API를 쓸 수 없을 때의 폴백).
+ *
+ * LoadBalancingOptimizer가 30초마다 load_balancer:active_pods (ZSET, score=마지막 신호 시각)에
+ * 자신을 등록하므로, 최근 aliveWindowMs 안에 신호를 보낸 Pod 수를 ZCOUNT 한 번으로 센다.
+ */
+public class HeartbeatPodCountSource implements PodCountSource {
+
+    private static final Logger logger = LoggerFactory.getLogger(HeartbeatPodCountSource.class);
+    private static final String ACTIVE_PODS_KEY = "load_balancer:active_pods";
+
+    private final StringRedisTemplate redisTemplate;
+    private final long aliveWindowMs;
+    private volatile IntConsumer listener;
+
+    public HeartbeatPodCountSource(StringRedisTemplate redisTemplate, long aliveWindowMs) {
+        this.redisTemplate = redisTemplate;
+        this.aliveWindowMs = aliveWindowMs;
+    }
+
+    @Override
+    public String name() {
+        return "heartbeat";
+    }
+
+    @Override
+    public void start(IntConsumer listener) {
+        this.listener = listener;
+        refresh();
+    }
+
+    @Override
+    public void refresh() {
+        IntConsumer current = listener;
+        if (current == null) {
+            return;
+        }
+        try {
+            long minScore = System.currentTimeMillis() - aliveWindowMs;
+            Long alive = redisTemplate.opsForZSet().count(ACTIVE_PODS_KEY, minScore, Double.POSITIVE_INFINITY);
+            if (alive != null && alive > 0) {
+                current.accept(alive.intValue());
+            }
+        } catch (Exception e) {
+            // 실패 시 값을 갱신하지 않는다 -> PodCountCache의 staleness 한도로 처리
+            logger.debug("heartbeat Pod 수 조회 실패: {}", e.getMessage());
+        }
+    }
+
+    @Override
+    public void stop() {
+        listener = null;
+    }
+}
@@ -0,0 +1,137 @@
+package com.example.pod.service;
+
+import io.kubernetes.client.informer.ResourceEventHandler;
+import io.kubernetes.client.informer.SharedIndexInformer;
+import io.kubernetes.client.informer.SharedInformerFactory;
+import io.kubernetes.client.openapi.ApiClient;
+import io.kubernetes.client.openapi.apis.CoreV1Api;
+import io.kubernetes.client.openapi.models.V1Pod;
+import io.kubernetes.client.openapi.models.V1PodList;
+import io.kubernetes.client.util.ClientBuilder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.function.IntConsumer;
+
+/**
+ * Kubernetes watch(SharedInformer) 기반 Pod 수 소스.
+ *
+ * 기동 시 한 번 LIST 후 WATCH로 Pod 추가/변경/삭제 이벤트를 받아 로컬 캐시(Indexer)를 유지한다.
+ * Pod 수는 로컬 캐시에서 세므로 요청 경로에서 API 서버를 호출하지 않는다.
+ *
+ * - 종료 중(deletionTimestamp 설정)이거나 Succeeded/Failed 상태인 Pod는 세지 않는다
+ * - resync 주기마다 현재 값을 다시 전달하여 staleness 타이머를 갱신한다
+ * - watch 오류 시 다음 이벤트(재LIST 포함)가 올 때까지 갱신을 멈춘다 -> 캐시의 staleness 한도로 폴백
+ */
+public class KubernetesPodWatchSource implements PodCountSource {
+
+    private static final Logger logger = LoggerFactory.getLogger(KubernetesPodWatchSource.class);
+
+    private final PodDiscoveryService podDiscoveryService;
+    private final long resyncPeriodMs;
+
+    private SharedInformerFactory informerFactory;
+    private SharedIndexInformer<V1Pod> informer;
+    private volatile IntConsumer listener;
+    private volatile boolean watchHealthy = true;
+
+    public KubernetesPodWatchSource(PodDiscoveryService podDiscoveryService, long resyncPeriodMs) {
+        this.podDiscoveryService = podDiscoveryService;
+        this.resyncPeriodMs = resyncPeriodMs;
+    }
+
+    @Override
+    public String name() {
+        return "kubernetes";
+    }
+
+    @Override
+    public void start(IntConsumer listener) {
+        this.listener = listener;
+
+        // watch는 장시간 열려 있는 연결이므로 read timeout을 끈 별도 클라이언트를 사용
+        ApiClient watchClient;
+        try {
+            watchClient = ClientBuilder.standard().setReadTimeout(Duration.ZERO).build();
+        } catch (IOException e) {
+            throw new IllegalStateException("Pod watch용 Kubernetes 클라이언트 생성 실패", e);
+        }
+        CoreV1Api coreV1Api = new CoreV1Api(watchClient);
+
+        String namespace = podDiscoveryService.getNamespace();
+        String appLabel = podDiscoveryService.getAppLabel();
+
+        informerFactory = new SharedInformerFactory(watchClient);
+        informer = informerFactory.sharedIndexInformerFor(
+                params -> coreV1Api.listNamespacedPod(namespace)
+                        .labelSelector(appLabel)
+                        .resourceVersion(params.resourceVersion)
+                        .timeoutSeconds(params.timeoutSeconds)
+                        .watch(params.watch)
+                        .buildCall(null),
+                V1Pod.class,
+                V1PodList.class,
+                resyncPeriodMs,
+                (type, error) -> {
+                    watchHealthy = false;
+                    logger.warn("Pod watch 오류 - 재연결 대기 (heartbeat 폴백): {}", error.getMessage());
+                });
+
+        informer.addEventHandler(new ResourceEventHandler<>() {
+            @Override
+            public void onAdd(V1Pod pod) {
+                publish(true);
+            }
+
+            @Override
+            public void onUpdate(V1Pod oldPod, V1Pod newPod) {
+                // resync도 onUpdate로 들어온다 -> watch가 정상일 때만 재확인으로 취급
+                publish(oldPod != newPod);
+            }
+
+            @Override
+            public void onDelete(V1Pod pod, boolean deletedFinalStateUnknown) {
+                publish(true);
+            }
+        });
+
+        informerFactory.startAllRegisteredInformers();
+        logger.info("Pod watch 시작 (namespace: {}, label: {}, resync: {}ms)", namespace, appLabel, resyncPeriodMs);
+    }
+
+    private void publish(boolean fromWatchEvent) {
+        if (fromWatchEvent) {
+            watchHealthy = true;
+        }
+        IntConsumer current = listener;
+        if (current == null || !watchHealthy || !informer.hasSynced()) {
+            return;
+        }
+        current.accept(countRunningPods());
+    }
+
+    private int countRunningPods() {
+        int count = 0;
+        for (V1Pod pod : informer.getIndexer().list()) {
+            if (pod.getMetadata() != null && pod.getMetadata().getDeletionTimestamp() != null) {
+                continue;
+            }
+            String phase = pod.getStatus() != null ? pod.getStatus().getPhase() : null;
+            if ("Succeeded".equals(phase) || "Failed".equals(phase)) {
+                continue;
+            }
+            count++;
+        }
+        return count;
+    }
+
+    @Override
+    public void stop() {
+        listener = null;
+        if (informerFactory != null) {
+            informerFactory.stopAllRegisteredInformers();
+        }
+    }
+}
@@ -0,0 +1,196 @@
+package com.example.pod.service;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.IntConsumer;
+
+/**
+ * PodCountCache - watch/heartbeat로 갱신되는 Pod 수 캐시
+ *
+ * 기존에는 calculateMaxActiveSessions()가 매 입장 요청/QueueProcessor tick마다
+ * listNamespacedPod를 동기 호출했다. 이제 Pod 수는 소스가 밀어 넣은 값을 캐시에서 읽기만 한다.
+ *
+ * 소스 우선순위 (admission.pod-count-source):
+ *   auto       - kubernetes watch (가능할 때) -> heartbeat ZSET 순으로 신선한 값을 사용
+ *   kubernetes - kubernetes watch만 사용
+ *   heartbeat  - load_balancer:active_pods heartbeat만 사용
+ *   static     - admission.fallback-pod-count 고정값 (로컬/오프라인)
+ *
+ * 신선도: 마지막 갱신이 admission.pod-count-max-staleness-ms 보다 오래된 값은 버리고
+ * 다음 우선순위 소스로 넘어간다. 모두 오래됐으면 getPodCount()는 0을 반환한다 (호출자가 폴백).
+ *
+ * 메트릭:
+ *   cgv_pod_count               - 현재 사용 중인 Pod 수 (신선한 값이 없으면 0)
+ *   cgv_pod_count_age_seconds   - 사용 중인 값의 나이 (초)
+ */
+@Service
+public class PodCountCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(PodCountCache.class);
+
+    private final PodDiscoveryService podDiscoveryService;
+    private final StringRedisTemplate redisTemplate;
+    private final MeterRegistry meterRegistry;
+
+    // 등록 순서 = 우선순위
+    private final List<PodCountSource> sources = new CopyOnWriteArrayList<>();
+    private final Map<String, Reading> readings = new ConcurrentHashMap<>();
+    private final List<IntConsumer> changeListeners = new CopyOnWriteArrayList<>();
+
+    private volatile int lastPublished = -1;
+
+    @Value("${admission.pod-count-source:auto}")
+    private String sourceMode;
+
+    @Value("${admission.pod-count-max-staleness-ms:60000}")
+    private long maxStalenessMs;
+
+    @Value("${admission.pod-count-resync-ms:30000}")
+    private long resyncMs;
+
+    // LoadBalancingOptimizer heartbeat 주기(30초)의 3배
+    @Value("${admission.pod-heartbeat-window-ms:90000}")
+    private long heartbeatWindowMs;
+
+    @Value("${admission.fallback-pod-count:2}")
+    private int fallbackPodCount;
+
+    public PodCountCache(PodDiscoveryService podDiscoveryService,
+                         StringRedisTemplate redisTemplate,
+                         MeterRegistry meterRegistry) {
+        this.podDiscoveryService = podDiscoveryService;
+        this.redisTemplate = redisTemplate;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @PostConstruct
+    public void init() {
+        String mode = sourceMode.toLowerCase();
+        boolean k8s = podDiscoveryService.isKubernetesClientAvailable();
+
+        if ((mode.equals("auto") || mode.equals("kubernetes")) && k8s) {
+            register(new KubernetesPodWatchSource(podDiscoveryService, resyncMs));
+        }
+        if (mode.equals("auto") || mode.equals("heartbeat")) {
+            register(new HeartbeatPodCountSource(redisTemplate, heartbeatWindowMs));
+        }
+        if (mode.equals("static")) {
+            register(new StaticPodCountSource(fallbackPodCount));
+        }
+
+        Gauge.builder("cgv_pod_count", this, PodCountCache::getPodCount)
+                .description("Pod count used for session capacity (0 = no fresh source)")
+                .register(meterRegistry);
+        Gauge.builder("cgv_pod_count_age_seconds", this, cache -> cache.getAgeMillis() / 1000.0)
+                .description("Age of the pod count in use")
+                .register(meterRegistry);
+
+        logger.info("Pod 수 캐시 초기화 - 모드: {}, 소스: {}, staleness 한도: {}ms",
+                mode, sources.stream().map(PodCountSource::name).toList(), maxStalenessMs);
+    }
+
+    /**
+     * 소스를 등록하고 시작한다. 먼저 등록된 소스가 우선한다.
+     * (오프라인 검증 시 StaticPodCountSource를 등록해 watch 이벤트를 흉내 낼 수 있다)
+     */
+    public void register(PodCountSource source) {
+        sources.add(source);
+        try {
+            source.start(count -> onReading(source.name(), count));
+        } catch (Exception e) {
+            logger.warn("Pod 수 소스 시작 실패 ({}): {}", source.name(), e.getMessage());
+        }
+    }
+
+    /**
+     * Pod 수가 바뀌거나 staleness로 소스가 전환될 때 호출될 listener 등록.
+     */
+    public void addChangeListener(IntConsumer listener) {
+        changeListeners.add(listener);
+    }
+
+    /**
+     * pull 소스 갱신 + staleness 전이 감지.
+     */
+    @Scheduled(fixedDelayString = "${admission.pod-count-refresh-ms:5000}")
+    public void refresh() {
+        for (PodCountSource source : sources) {
+            source.refresh();
+        }
+        publishIfChanged();
+    }
+
+    /**
+     * 우선순위가 가장 높은 신선한 소스의 Pod 수. 신선한 값이 없으면 0.
+     */
+    public int getPodCount() {
+        Reading reading = currentReading();
+        return reading != null ? reading.podCount() : 0;
+    }
+
+    /**
+     * 현재 값을 제공하는 소스 이름 (없으면 "none").
+     */
+    public String getActiveSource() {
+        Reading reading = currentReading();
+        return reading != null ? reading.source() : "none";
+    }
+
+    public long getAgeMillis() {
+        Reading reading = currentReading();
+        return reading != null ? System.currentTimeMillis() - reading.updatedAt() : 0L;
+    }
+
+    private Reading currentReading() {
+        long now = System.currentTimeMillis();
+        for (PodCountSource source : sources) {
+            Reading reading = readings.get(source.name());
+            if (reading != null && now - reading.updatedAt() <= maxStalenessMs) {
+                return reading;
+            }
+        }
+        return null;
+    }
+
+    private void onReading(String source, int podCount) {
+        if (podCount <= 0) {
+            return;
+        }
+        readings.put(source, new Reading(source, podCount, System.currentTimeMillis()));
+        publishIfChanged();
+    }
+
+    private synchronized void publishIfChanged() {
+        int current = getPodCount();
+        if (current == lastPublished) {
+            return;
+        }
+        int previous = lastPublished;
+        lastPublished = current;
+        logger.info("Pod 수 변경: {} -> {} (소스: {})", previous, current, getActiveSource());
+        for (IntConsumer listener : changeListeners) {
+            listener.accept(current);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        sources.forEach(PodCountSource::stop);
+    }
+
+    private record Reading(String source, int podCount, long updatedAt) {
+    }
+}
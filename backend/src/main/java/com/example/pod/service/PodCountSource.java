@@ -0,0 +1,25 @@
+package com.example.pod.service;
+
+import java.util.function.IntConsumer;
+
+/**
+ * Pod 수 공급원. PodCountCache가 소스별 최신 값을 보관하고,
+ * DynamicSessionCalculator는 캐시만 읽는다 (요청 경로에서 K8s API 호출 없음).
+ *
+ * - push 소스 (Kubernetes watch): start()에서 받은 listener로 변경 시점에 값을 전달
+ * - pull 소스 (Redis heartbeat):  refresh()가 주기적으로 호출될 때 listener로 값을 전달
+ */
+public interface PodCountSource {
+
+    /** 메트릭/관리 API 표시용 이름 (kubernetes, heartbeat, static) */
+    String name();
+
+    /** 소스를 시작한다. 값이 바뀌거나 재확인될 때마다 listener.accept(podCount) 호출 */
+    void start(IntConsumer listener);
+
+    /** pull 소스의 주기적 갱신. push 소스는 아무것도 하지 않는다. */
+    default void refresh() {
+    }
+
+    void stop();
+}
@@ -73,4 +73,12 @@ public class PodDiscoveryService {
     public boolean isKubernetesClientAvailable() {
         return this.isKubernetesClientAvailable;
     }
+
+    public String getNamespace() {
+        return namespace;
+    }
+
+    public String getAppLabel() {
+        return appLabel;
+    }
 }
\ No newline at end of file
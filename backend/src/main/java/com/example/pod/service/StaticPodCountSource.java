@@ -0,0 +1,50 @@
+package com.example.pod.service;
+
+import java.util.function.IntConsumer;
+
+/**
+ * 고정/수동 Pod 수 소스.
+ *
+ * admission.pod-count-source=static 일 때 사용하며 (로컬, K8s 없는 환경),
+ * update()로 watch 이벤트를 흉내 낼 수 있어 오프라인 검증에 쓴다.
+ */
+public class StaticPodCountSource implements PodCountSource {
+
+    private volatile int podCount;
+    private volatile IntConsumer listener;
+
+    public StaticPodCountSource(int podCount) {
+        this.podCount = podCount;
+    }
+
+    @Override
+    public String name() {
+        return "static";
+    }
+
+    @Override
+    public void start(IntConsumer listener) {
+        this.listener = listener;
+        listener.accept(podCount);
+    }
+
+    /** watch 이벤트 시뮬레이션: Pod 수 변경을 즉시 전달 */
+    public void update(int podCount) {
+        this.podCount = podCount;
+        IntConsumer current = listener;
+        if (current != null) {
+            current.accept(podCount);
+        }
+    }
+
+    @Override
+    public void refresh() {
+        // 정적 값도 주기적으로 재확인된 것으로 간주 (staleness 만료 방지)
+        update(podCount);
+    }
+
+    @Override
+    public void stop() {
+        listener = null;
+    }
+}
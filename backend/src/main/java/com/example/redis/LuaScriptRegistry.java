@@ -0,0 +1,243 @@
+package com.example.redis;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.ReturnType;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StreamUtils;
+
+import jakarta.annotation.PostConstruct;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * LuaScriptRegistry - 모든 Lua 스크립트의 단일 로딩/실행 지점
+ *
+ * 설계:
+ * - 기동 시 classpath:scripts/*.lua 를 모두 읽어 SHA1을 한 번만 계산하고 SCRIPT LOAD로 Redis에 적재
+ * - 실행은 항상 EVALSHA (스크립트 본문을 매 요청 전송하지 않음, 요청마다 재해싱하지 않음)
+ * - Redis failover 등으로 스크립트 캐시가 비면 NOSCRIPT 수신 -> SCRIPT LOAD 후 1회 재시도
+ * - 스크립트별 실행 지연을 Micrometer Timer로 기록
+ *
+ * 스크립트 이름 = 파일명에서 .lua 를 뺀 값 (예: scripts/seat_hold.lua -> "seat_hold")
+ *
+ * 헤더에 NON_CLUSTER_MARKER 가 있는 스크립트는 KEYS에 선언하지 않은 키(같은 Hash Tag)를
+ * 스크립트 안에서 만들어 쓴다. Cluster 연결이면 기동 시 실패시킨다 (Non-Cluster 전용 계약 강제).
+ *
+ * 메트릭:
+ *   cgv_redis_script_duration_seconds{script}  - EVALSHA 왕복 시간 (NOSCRIPT 재적재 포함)
+ *   cgv_redis_script_reload_total{script}      - NOSCRIPT로 인한 재적재 횟수
+ */
+@Component
+public class LuaScriptRegistry {
+
+    private static final Logger logger = LoggerFactory.getLogger(LuaScriptRegistry.class);
+    private static final String SCRIPT_LOCATION = "classpath:scripts/*.lua";
+    private static final String NON_CLUSTER_MARKER = "-- NON-CLUSTER ONLY:";
+
+    private final RedisTemplate<String, String> redisTemplate;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, LoadedScript> scripts = new ConcurrentHashMap<>();
+
+    public LuaScriptRegistry(RedisTemplate<String, String> redisTemplate,
+                             MeterRegistry meterRegistry) {
+        this.redisTemplate = redisTemplate;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @PostConstruct
+    private void loadScripts() throws IOException {
+        Resource[] resources = new PathMatchingResourcePatternResolver().getResources(SCRIPT_LOCATION);
+        for (Resource resource : resources) {
+            String filename = resource.getFilename();
+            if (filename == null) {
+                continue;
+            }
+            String name = filename.substring(0, filename.length() - ".lua".length());
+            String source = StreamUtils.copyToString(resource.getInputStream(), StandardCharsets.UTF_8);
+            scripts.put(name, new LoadedScript(name, source));
+        }
+        logger.info("Lua 스크립트 {}개 등록: {}", scripts.size(), getScriptShas().keySet());
+
+        checkNonClusterScripts();
+        preloadAll();
+    }
+
+    private void checkNonClusterScripts() {
+        List<String> nonCluster = new ArrayList<>();
+        scripts.forEach((name, script) -> {
+            if (script.nonClusterOnly) {
+                nonCluster.add(name);
+            }
+        });
+        if (!nonCluster.isEmpty()
+                && redisTemplate.getConnectionFactory() instanceof LettuceConnectionFactory factory
+                && factory.isClusterAware()) {
+            throw new IllegalStateException("Redis Cluster 에서는 실행할 수 없는 Lua 스크립트: " + nonCluster);
+        }
+    }
+
+    /**
+     * 등록된 모든 스크립트를 SCRIPT LOAD로 Redis 스크립트 캐시에 적재한다.
+     * Redis가 아직 준비되지 않았으면 경고만 남긴다 (첫 실행 시 NOSCRIPT 경로로 적재됨).
+     */
+    public void preloadAll() {
+        try {
+            redisTemplate.execute((RedisCallback<Void>) connection -> {
+                for (LoadedScript script : scripts.values()) {
+                    connection.scriptingCommands().scriptLoad(script.body);
+                }
+                return null;
+            });
+            logger.info("Lua 스크립트 SCRIPT LOAD 완료 ({}개)", scripts.size());
+        } catch (Exception e) {
+            logger.warn("Lua 스크립트 사전 적재 실패 - 첫 실행 시 재적재합니다: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 스크립트를 EVALSHA로 실행한다.
+     *
+     * @param name       스크립트 이름 (파일명에서 .lua 제외)
+     * @param resultType 반환 타입 (List, Long, Boolean, String)
+     * @param keys       KEYS 배열
+     * @param args       ARGV 배열
+     * @return 역직렬화된 결과 (bulk string -> String, integer -> Long, multi-bulk -> List)
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T execute(String name, Class<T> resultType, List<String> keys, String... args) {
+        return (T) execute(name, resultType, true, keys, args);
+    }
+
+    /**
+     * 스크립트 실행 결과를 List로 받는 단축 메서드.
+     */
+    @SuppressWarnings("unchecked")
+    public List<Object> executeForList(String name, List<String> keys, String... args) {
+        return execute(name, List.class, keys, args);
+    }
+
+    /**
+     * 결과의 bulk string을 문자열로 바꾸지 않고 byte[] 그대로 받는다 (비트맵 등 바이너리 값용).
+     */
+    @SuppressWarnings("unchecked")
+    public List<Object> executeForRawList(String name, List<String> keys, String... args) {
+        return (List<Object>) execute(name, List.class, false, keys, args);
+    }
+
+    private Object execute(String name, Class<?> resultType, boolean decodeStrings,
+                           List<String> keys, String... args) {
+        LoadedScript script = scripts.get(name);
+        if (script == null) {
+            throw new IllegalArgumentException("등록되지 않은 Lua 스크립트: " + name);
+        }
+
+        ReturnType returnType = ReturnType.fromJavaType(resultType);
+        byte[][] keysAndArgs = new byte[keys.size() + args.length][];
+        int i = 0;
+        for (String key : keys) {
+            keysAndArgs[i++] = key.getBytes(StandardCharsets.UTF_8);
+        }
+        for (String arg : args) {
+            keysAndArgs[i++] = arg.getBytes(StandardCharsets.UTF_8);
+        }
+
+        long start = System.nanoTime();
+        try {
+            Object raw = redisTemplate.execute((RedisCallback<Object>) connection ->
+                    evalSha(connection, script, returnType, keys.size(), keysAndArgs));
+            return decodeStrings ? deserialize(raw) : raw;
+        } finally {
+            script.timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * 등록된 스크립트 이름 -> SHA1 (관리/디버깅용).
+     */
+    public Map<String, String> getScriptShas() {
+        Map<String, String> shas = new TreeMap<>();
+        scripts.forEach((name, script) -> shas.put(name, script.sha));
+        return shas;
+    }
+
+    private Object evalSha(RedisConnection connection, LoadedScript script, ReturnType returnType,
+                           int numKeys, byte[][] keysAndArgs) {
+        try {
+            return connection.scriptingCommands().evalSha(script.sha, returnType, numKeys, keysAndArgs);
+        } catch (RuntimeException e) {
+            if (!isNoScriptError(e)) {
+                throw e;
+            }
+            // failover 후 새 primary에는 스크립트 캐시가 없다 -> 재적재 후 1회 재시도
+            logger.warn("NOSCRIPT 감지 - 스크립트 재적재: {}", script.name);
+            script.reloads.increment();
+            connection.scriptingCommands().scriptLoad(script.body);
+            return connection.scriptingCommands().evalSha(script.sha, returnType, numKeys, keysAndArgs);
+        }
+    }
+
+    private boolean isNoScriptError(Throwable e) {
+        Throwable current = e;
+        while (current != null) {
+            String message = current.getMessage();
+            if (message != null && message.contains("NOSCRIPT")) {
+                return true;
+            }
+            current = current.getCause();
+        }
+        return false;
+    }
+
+    private Object deserialize(Object raw) {
+        if (raw instanceof byte[] bytes) {
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+        if (raw instanceof List<?> list) {
+            List<Object> result = new ArrayList<>(list.size());
+            for (Object item : list) {
+                result.add(deserialize(item));
+            }
+            return result;
+        }
+        return raw;
+    }
+
+    private final class LoadedScript {
+        private final String name;
+        private final String sha;
+        private final byte[] body;
+        private final Timer timer;
+        private final Counter reloads;
+        private final boolean nonClusterOnly;
+
+        private LoadedScript(String name, String source) {
+            this.name = name;
+            this.sha = new DefaultRedisScript<>(source).getSha1();
+            this.nonClusterOnly = source.contains(NON_CLUSTER_MARKER);
+            this.body = source.getBytes(StandardCharsets.UTF_8);
+            this.timer = Timer.builder("cgv_redis_script_duration_seconds")
+                    .tag("script", name)
+                    .register(meterRegistry);
+            this.reloads = Counter.builder("cgv_redis_script_reload_total")
+                    .tag("script", name)
+                    .register(meterRegistry);
+        }
+    }
+}
@@ -2,6 +2,8 @@ package com.example.seats.repository;
 
 import com.example.seats.entity.Booking;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.util.List;
 
@@ -10,4 +12,20 @@ public interface BookingRepository extends JpaRepository<Booking, Long> {
     List<Booking> findByRequestId(String requestId);
 
     long countByMovieId(String movieId);
+
+    @Query("SELECT DISTINCT b.movieId FROM Booking b")
+    List<String> findDistinctMovieIds();
+
+    /**
+     * 상영관별 판매 좌석 수 (bookings.seats JSON 배열 길이 합). BookingCounterReconciler 전용.
+     */
+    @Query(value = "SELECT theater_id AS theaterId, SUM(JSON_LENGTH(seats)) AS soldSeats " +
+            "FROM bookings WHERE movie_id = :movieId GROUP BY theater_id", nativeQuery = true)
+    List<TheaterSoldSeats> sumSoldSeatsByTheater(@Param("movieId") String movieId);
+
+    interface TheaterSoldSeats {
+        String getTheaterId();
+
+        Long getSoldSeats();
+    }
 }
@@ -0,0 +1,90 @@
+package com.example.seats.service;
+
+import com.example.redis.LuaScriptRegistry;
+import com.example.seats.repository.BookingRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * BookingCounterReconciler - MySQL 예매 기록으로 Redis 판매 좌석 카운터 복구
+ *
+ * Redis failover / FLUSH 로 booking:completed / booking:sold 가 사라지면 잔여 좌석이 실제보다 많아진다.
+ * 주기마다 (또는 관리 API로) bookings 테이블의 상영관별 좌석 합계를 booking_counters_rebuild.lua에 넘긴다.
+ * - 카운터는 올라가기만 한다: Redis 값이 더 크면 아직 아웃박스/저널에 있는 예매이므로 그대로 둔다
+ * - 합계가 전체 좌석 수에 도달하면 sold-out 플래그도 다시 세운다
+ * - 결과가 같으므로 모든 Pod에서 실행해도 안전하다
+ */
+@Component
+public class BookingCounterReconciler {
+
+    private static final Logger logger = LoggerFactory.getLogger(BookingCounterReconciler.class);
+
+    private final BookingRepository bookingRepository;
+    private final BookingCounters bookingCounters;
+    private final LuaScriptRegistry scriptRegistry;
+
+    public BookingCounterReconciler(BookingRepository bookingRepository,
+                                    BookingCounters bookingCounters,
+                                    LuaScriptRegistry scriptRegistry) {
+        this.bookingRepository = bookingRepository;
+        this.bookingCounters = bookingCounters;
+        this.scriptRegistry = scriptRegistry;
+    }
+
+    @Scheduled(initialDelayString = "${booking.counters.reconcile-interval-ms:300000}",
+            fixedDelayString = "${booking.counters.reconcile-interval-ms:300000}")
+    public void reconcileAll() {
+        try {
+            for (String movieId : bookingRepository.findDistinctMovieIds()) {
+                reconcile(movieId);
+            }
+        } catch (Exception e) {
+            logger.error("판매 좌석 카운터 재구성 중 오류 발생", e);
+        }
+    }
+
+    /**
+     * 영화 1편의 카운터를 MySQL 기준으로 재구성한다.
+     *
+     * @return completedCount (재구성 후 판매 좌석 수), restoredTheaters (MySQL 값으로 올린 상영관 수), soldOut
+     */
+    public Map<String, Object> reconcile(String movieId) {
+        List<BookingRepository.TheaterSoldSeats> rows = bookingRepository.sumSoldSeatsByTheater(movieId);
+        List<String> args = new ArrayList<>(1 + rows.size() * 2);
+        args.add(String.valueOf(bookingCounters.totalSeats()));
+        for (BookingRepository.TheaterSoldSeats row : rows) {
+            args.add(row.getTheaterId());
+            args.add(String.valueOf(row.getSoldSeats() == null ? 0L : row.getSoldSeats()));
+        }
+
+        List<Object> result = scriptRegistry.executeForList(
+                "booking_counters_rebuild",
+                Arrays.asList(BookingCounters.completedKey(movieId),
+                        BookingCounters.soldKey(movieId),
+                        BookingCounters.soldOutKey(movieId)),
+                args.toArray(new String[0]));
+
+        long completedCount = ((Number) result.get(0)).longValue();
+        long restored = ((Number) result.get(1)).longValue();
+        boolean soldOut = ((Number) result.get(2)).longValue() == 1;
+        if (restored > 0) {
+            logger.warn("판매 좌석 카운터 복구 - movieId={}, 상영관 {}개, completedCount={}/{}, soldOut={}",
+                    movieId, restored, completedCount, bookingCounters.totalSeats(), soldOut);
+        }
+
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("movieId", movieId);
+        response.put("completedCount", completedCount);
+        response.put("restoredTheaters", restored);
+        response.put("soldOut", soldOut);
+        return response;
+    }
+}
@@ -0,0 +1,82 @@
+package com.example.seats.service;
+
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * BookingCounters - 영화별 / 상영관별 판매 좌석 카운터 (Redis)
+ *
+ * 기존: 잔여 좌석 = 하드코딩 6000 - booking:completed (예매 건수), 정확한 값은 bookings 테이블 COUNT.
+ * 현재: booking_complete.lua가 예매와 같은 스크립트에서 좌석 수만큼 증가시키는 카운터를 읽는다.
+ * - booking:completed:{movieId}   (String - 영화 전체 판매 좌석 수)
+ * - booking:sold:{movieId}        (Hash - theaterId -> 상영관 판매 좌석 수)
+ * - sold-out:{movieId}            (String flag, TTL 3600s)
+ *
+ * 전체 좌석 수는 Theater.totalSeats 합계 (TheaterCatalog 스냅샷).
+ * Redis 유실 후 카운터 복구는 BookingCounterReconciler (booking_counters_rebuild.lua).
+ */
+@Component
+public class BookingCounters {
+
+    private final RedisTemplate<String, String> redisTemplate;
+    private final TheaterCatalog theaterCatalog;
+
+    public BookingCounters(RedisTemplate<String, String> redisTemplate,
+                           TheaterCatalog theaterCatalog) {
+        this.redisTemplate = redisTemplate;
+        this.theaterCatalog = theaterCatalog;
+    }
+
+    public static String completedKey(String movieId) {
+        return "booking:completed:{" + movieId + "}";
+    }
+
+    public static String soldKey(String movieId) {
+        return "booking:sold:{" + movieId + "}";
+    }
+
+    public static String soldOutKey(String movieId) {
+        return "sold-out:{" + movieId + "}";
+    }
+
+    /**
+     * 영화 1편의 전체 좌석 수 (모든 상영관 Theater.totalSeats 합).
+     */
+    public int totalSeats() {
+        return theaterCatalog.get().totalSeats();
+    }
+
+    /**
+     * 영화 전체 판매 좌석 수 (GET 1회).
+     */
+    public long soldSeats(String movieId) {
+        String value = redisTemplate.opsForValue().get(completedKey(movieId));
+        return value == null ? 0L : Long.parseLong(value);
+    }
+
+    public long remainingSeats(String movieId) {
+        return Math.max(0, totalSeats() - soldSeats(movieId));
+    }
+
+    public boolean isSoldOut(String movieId) {
+        return Boolean.TRUE.equals(redisTemplate.hasKey(soldOutKey(movieId)))
+                || (totalSeats() > 0 && remainingSeats(movieId) == 0);
+    }
+
+    /**
+     * 상영관별 잔여 좌석 수 (HGETALL 1회). 판매 기록이 없는 상영관은 Theater.totalSeats 그대로.
+     */
+    public Map<String, Integer> remainingByTheater(String movieId) {
+        Map<Object, Object> sold = redisTemplate.opsForHash().entries(soldKey(movieId));
+        Map<String, Integer> remaining = new LinkedHashMap<>();
+        for (TheaterCatalog.Entry theater : theaterCatalog.get().theaters()) {
+            Object value = sold.get(theater.theaterId());
+            int soldSeats = value == null ? 0 : Integer.parseInt(value.toString());
+            remaining.put(theater.theaterId(), Math.max(0, theater.totalSeats() - soldSeats));
+        }
+        return remaining;
+    }
+}
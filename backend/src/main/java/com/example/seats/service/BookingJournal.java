@@ -0,0 +1,397 @@
+package com.example.seats.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * BookingJournal - MySQL 장애 시 예매를 담아 두는 Pod 로컬 append-only 저널
+ *
+ * 아웃박스 소비자가 저장하지 못한 예매를 재전달(XCLAIM)로 돌리면 장애가 길어질 때
+ * max-deliveries를 넘겨 데드레터로 빠진다. 대신 이 저널에 기록(force)해 두고,
+ * BookingJournalReplayer가 DB가 돌아오면 기록 순서대로 다시 넣는다.
+ *
+ * 저널은 Pod 로컬 디스크(기본 tmpdir)라 Pod 교체 시 사라질 수 있으므로 원본이 아니다.
+ * 저널에 넣은 예매의 스트림 이벤트는 ACK 하지 않고 이 Pod 소비자의 PEL에 남겨 두며 (레코드에 outboxId 기록),
+ * 재생이 커밋한 뒤에야 ACK + XDEL 한다. 저널이 사라지면 남은 PEL을 다른 Pod가 가져가 다시 저장한다.
+ *
+ * 파일 구조 (booking.journal.dir):
+ * - segment-{seq}.log   고정 크기(segment-bytes) 메모리 맵 파일, 가득 차면 다음 seq로 교체
+ *   레코드 = [int length][int crc32][length 바이트 JSON (BookingRecord + outboxId)], length 0 = 세그먼트 끝
+ * - cursor              재생 위치 "seq offset" (원자적 교체), 다 읽은 세그먼트는 삭제
+ *
+ * 기동 시 마지막 세그먼트를 처음부터 훑어 CRC가 맞는 마지막 레코드 뒤를 쓰기 위치로 삼는다
+ * (기록 도중 죽어 찢어진 꼬리는 덮어쓴다). 재생 중 CRC 불일치 레코드는 건너뛰고 세그먼트 나머지를 버린다.
+ *
+ * 메트릭:
+ *   cgv_booking_journal_pending                   - 재생 대기 예매 수
+ *   cgv_booking_journal_records_total{result}     - appended / replayed / corrupt
+ */
+@Component
+public class BookingJournal {
+
+    private static final Logger logger = LoggerFactory.getLogger(BookingJournal.class);
+    private static final String SEGMENT_PREFIX = "segment-";
+    private static final String SEGMENT_SUFFIX = ".log";
+    private static final String CURSOR_FILE = "cursor";
+    private static final int HEADER_BYTES = 8;
+    private static final String OUTBOX_ID_FIELD = "outboxId";
+
+    private final ObjectMapper objectMapper;
+    private final AtomicLong pending = new AtomicLong();
+    // movieId + '\n' + outboxId - 저널에 있어 재생을 기다리는 스트림 이벤트
+    private final Set<String> journaledIds = ConcurrentHashMap.newKeySet();
+    private final Counter appended;
+    private final Counter replayed;
+    private final Counter corrupt;
+
+    @Value("${booking.journal.dir:${java.io.tmpdir}/cgv-booking-journal}")
+    private String dir;
+
+    @Value("${booking.journal.segment-bytes:16777216}")
+    private int segmentBytes;
+
+    private Path directory;
+    private long writeSeq;
+    private FileChannel writeChannel;
+    private MappedByteBuffer writeBuffer;
+    private long readSeq;
+    private int readOffset;
+
+    public BookingJournal(ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        this.objectMapper = objectMapper;
+        Gauge.builder("cgv_booking_journal_pending", pending, AtomicLong::get)
+                .description("Bookings journaled locally and not yet replayed into MySQL")
+                .register(meterRegistry);
+        this.appended = Counter.builder("cgv_booking_journal_records_total").tag("result", "appended")
+                .register(meterRegistry);
+        this.replayed = Counter.builder("cgv_booking_journal_records_total").tag("result", "replayed")
+                .register(meterRegistry);
+        this.corrupt = Counter.builder("cgv_booking_journal_records_total").tag("result", "corrupt")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public synchronized void open() throws IOException {
+        directory = Paths.get(dir);
+        Files.createDirectories(directory);
+
+        List<Long> segments = listSegments();
+        writeSeq = segments.isEmpty() ? 1L : segments.get(segments.size() - 1);
+        readSeq = segments.isEmpty() ? 1L : segments.get(0);
+        readOffset = 0;
+        loadCursor();
+
+        openWriteSegment();
+        writeBuffer.position(scanEnd(writeBuffer));
+
+        List<Entry> entries = scan(Integer.MAX_VALUE, false);
+        for (Entry entry : entries) {
+            track(entry.booking().movieId(), entry.outboxId(), true);
+        }
+        long count = entries.size();
+        pending.set(count);
+        if (count > 0) {
+            logger.warn("예매 저널 미재생 {}건 발견 - {}", count, directory);
+        }
+    }
+
+    public boolean isEmpty() {
+        return pending.get() == 0;
+    }
+
+    /**
+     * 스트림 이벤트가 이 저널에서 재생을 기다리는지 (아웃박스 소비자가 자기 PEL을 다시 가져가지 않게).
+     */
+    public boolean isJournaled(String movieId, String outboxId) {
+        return journaledIds.contains(movieId + "\n" + outboxId);
+    }
+
+    /**
+     * 예매를 저널 끝에 붙이고 디스크에 반영(force)한다. 반환 후에는 Pod 재기동에도 남는다
+     * (디스크가 유지되는 경우 - 아니면 스트림 PEL이 원본).
+     */
+    public synchronized void append(List<Record> records) {
+        for (Record record : records) {
+            byte[] payload = toJson(record);
+            int size = HEADER_BYTES + payload.length;
+            if (size > segmentBytes - HEADER_BYTES) {
+                throw new IllegalArgumentException("예매 레코드가 세그먼트보다 큽니다: " + size);
+            }
+            // 끝 표시(length 0)를 쓸 자리까지 남긴다
+            if (writeBuffer.remaining() < size + HEADER_BYTES) {
+                rotate();
+            }
+            writeBuffer.putInt(payload.length);
+            writeBuffer.putInt(crc(payload));
+            writeBuffer.put(payload);
+        }
+        writeBuffer.force();
+        for (Record record : records) {
+            track(record.booking().movieId(), record.outboxId(), true);
+        }
+        pending.addAndGet(records.size());
+        appended.increment(records.size());
+    }
+
+    /**
+     * 재생 위치부터 최대 max건을 읽는다 (위치는 commit 전까지 그대로).
+     */
+    public synchronized List<Entry> peek(int max) {
+        return scan(max, true);
+    }
+
+    /**
+     * peek으로 읽은 예매 중 앞에서부터 entries까지를 처리 완료로 표시하고 재생 위치를 옮긴다.
+     */
+    public synchronized void commit(List<Entry> entries) {
+        Entry last = entries.get(entries.size() - 1);
+        readSeq = last.nextSeq();
+        readOffset = last.nextOffset();
+        saveCursor();
+        for (Entry entry : entries) {
+            track(entry.booking().movieId(), entry.outboxId(), false);
+        }
+        pending.addAndGet(-entries.size());
+        replayed.increment(entries.size());
+        deleteSegmentsBefore(readSeq);
+    }
+
+    private void track(String movieId, String outboxId, boolean add) {
+        if (outboxId == null) {
+            return;
+        }
+        if (add) {
+            journaledIds.add(movieId + "\n" + outboxId);
+        } else {
+            journaledIds.remove(movieId + "\n" + outboxId);
+        }
+    }
+
+    private List<Entry> scan(int max, boolean countCorrupt) {
+        List<Entry> entries = new ArrayList<>();
+        long seq = readSeq;
+        int offset = readOffset;
+        while (entries.size() < max && seq <= writeSeq) {
+            MappedByteBuffer segment = mapForRead(seq);
+            int end = seq == writeSeq ? writeBuffer.position() : segment.capacity();
+            boolean segmentDone = false;
+            while (entries.size() < max) {
+                if (offset + HEADER_BYTES > end) {
+                    segmentDone = true;
+                    break;
+                }
+                int length = segment.getInt(offset);
+                if (length <= 0 || offset + HEADER_BYTES + length > end) {
+                    segmentDone = true;
+                    break;
+                }
+                byte[] payload = new byte[length];
+                segment.get(offset + HEADER_BYTES, payload);
+                if (crc(payload) != segment.getInt(offset + 4)) {
+                    if (countCorrupt) {
+                        corrupt.increment();
+                        logger.error("예매 저널 CRC 불일치 - segment {}, offset {}: 세그먼트 나머지 건너뜀", seq, offset);
+                    }
+                    segmentDone = true;
+                    break;
+                }
+                offset += HEADER_BYTES + length;
+                entries.add(fromJson(payload, seq, offset));
+            }
+            if (!segmentDone || seq == writeSeq) {
+                break;
+            }
+            seq++;
+            offset = 0;
+        }
+        return entries;
+    }
+
+    private void rotate() {
+        writeBuffer.putInt(0);
+        writeBuffer.force();
+        closeWriteSegment();
+        writeSeq++;
+        try {
+            openWriteSegment();
+        } catch (IOException e) {
+            throw new UncheckedIOException("예매 저널 세그먼트 생성 실패", e);
+        }
+        logger.info("예매 저널 세그먼트 교체 - {}", segmentPath(writeSeq));
+    }
+
+    private void openWriteSegment() throws IOException {
+        writeChannel = FileChannel.open(segmentPath(writeSeq),
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        writeBuffer = writeChannel.map(FileChannel.MapMode.READ_WRITE, 0, segmentBytes);
+    }
+
+    private void closeWriteSegment() {
+        try {
+            writeChannel.close();
+        } catch (IOException e) {
+            logger.warn("예매 저널 세그먼트 닫기 실패: {}", e.getMessage());
+        }
+    }
+
+    private MappedByteBuffer mapForRead(long seq) {
+        if (seq == writeSeq) {
+            return writeBuffer;
+        }
+        try (FileChannel channel = FileChannel.open(segmentPath(seq), StandardOpenOption.READ)) {
+            return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        } catch (IOException e) {
+            throw new UncheckedIOException("예매 저널 세그먼트 읽기 실패: " + seq, e);
+        }
+    }
+
+    // CRC가 맞는 마지막 레코드 바로 뒤 (찢어진 꼬리는 덮어쓴다)
+    private int scanEnd(MappedByteBuffer segment) {
+        int offset = 0;
+        while (offset + HEADER_BYTES <= segment.capacity()) {
+            int length = segment.getInt(offset);
+            if (length <= 0 || offset + HEADER_BYTES + length > segment.capacity()) {
+                break;
+            }
+            byte[] payload = new byte[length];
+            segment.get(offset + HEADER_BYTES, payload);
+            if (crc(payload) != segment.getInt(offset + 4)) {
+                break;
+            }
+            offset += HEADER_BYTES + length;
+        }
+        return offset;
+    }
+
+    private void loadCursor() throws IOException {
+        Path cursor = directory.resolve(CURSOR_FILE);
+        if (!Files.exists(cursor)) {
+            return;
+        }
+        String[] parts = Files.readString(cursor).trim().split(" ");
+        if (parts.length == 2) {
+            readSeq = Long.parseLong(parts[0]);
+            readOffset = Integer.parseInt(parts[1]);
+        }
+    }
+
+    private void saveCursor() {
+        Path tmp = directory.resolve(CURSOR_FILE + ".tmp");
+        try {
+            Files.writeString(tmp, readSeq + " " + readOffset,
+                    StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.SYNC);
+            Files.move(tmp, directory.resolve(CURSOR_FILE),
+                    StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            // 커서를 못 옮기면 재기동 시 같은 예매를 다시 넣는다 (bookingId UNIQUE - 중복 행 없음)
+            logger.warn("예매 저널 커서 저장 실패: {}", e.getMessage());
+        }
+    }
+
+    private void deleteSegmentsBefore(long seq) {
+        for (long old : listSegments()) {
+            if (old >= seq) {
+                break;
+            }
+            try {
+                Files.deleteIfExists(segmentPath(old));
+            } catch (IOException e) {
+                logger.warn("예매 저널 세그먼트 삭제 실패 - {}: {}", old, e.getMessage());
+            }
+        }
+    }
+
+    private List<Long> listSegments() {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.map(path -> path.getFileName().toString())
+                    .filter(name -> name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX))
+                    .map(name -> Long.parseLong(name.substring(SEGMENT_PREFIX.length(),
+                            name.length() - SEGMENT_SUFFIX.length())))
+                    .sorted()
+                    .toList();
+        } catch (IOException e) {
+            throw new UncheckedIOException("예매 저널 디렉터리 읽기 실패: " + directory, e);
+        }
+    }
+
+    private Path segmentPath(long seq) {
+        return directory.resolve(String.format("%s%020d%s", SEGMENT_PREFIX, seq, SEGMENT_SUFFIX));
+    }
+
+    private byte[] toJson(Record record) {
+        try {
+            ObjectNode node = objectMapper.valueToTree(record.booking());
+            if (record.outboxId() != null) {
+                node.put(OUTBOX_ID_FIELD, record.outboxId());
+            }
+            return objectMapper.writeValueAsBytes(node);
+        } catch (IOException | IllegalArgumentException e) {
+            throw new IllegalArgumentException("예매 직렬화 실패 - bookingId=" + record.booking().bookingId(), e);
+        }
+    }
+
+    // outboxId가 없는 레코드 (이전 형식) 는 재생 후 ACK 할 스트림 이벤트가 없다
+    private Entry fromJson(byte[] payload, long nextSeq, int nextOffset) {
+        try {
+            ObjectNode node = (ObjectNode) objectMapper.readTree(payload);
+            JsonNode outboxId = node.remove(OUTBOX_ID_FIELD);
+            return new Entry(objectMapper.treeToValue(node, BookingWriter.BookingRecord.class),
+                    outboxId != null ? outboxId.asText() : null, nextSeq, nextOffset);
+        } catch (IOException e) {
+            throw new UncheckedIOException("예매 역직렬화 실패", e);
+        }
+    }
+
+    private static int crc(byte[] payload) {
+        CRC32 crc = new CRC32();
+        crc.update(payload);
+        return (int) crc.getValue();
+    }
+
+    @PreDestroy
+    public synchronized void close() {
+        writeBuffer.force();
+        closeWriteSegment();
+    }
+
+    /**
+     * @param outboxId 재생 후 ACK 할 스트림 이벤트 ID (bookings:{movieId}:outbox)
+     */
+    public record Record(BookingWriter.BookingRecord booking, String outboxId) {
+    }
+
+    /**
+     * @param outboxId   재생 후 ACK 할 스트림 이벤트 ID, 이전 형식 레코드는 null
+     * @param nextSeq    이 레코드 다음 재생 위치 (세그먼트)
+     * @param nextOffset 이 레코드 다음 재생 위치 (세그먼트 내 오프셋)
+     */
+    public record Entry(BookingWriter.BookingRecord booking, String outboxId, long nextSeq, int nextOffset) {
+    }
+}
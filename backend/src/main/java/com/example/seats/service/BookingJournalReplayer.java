@@ -0,0 +1,99 @@
+package com.example.seats.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * BookingJournalReplayer - 로컬 예매 저널을 MySQL로 재생
+ *
+ * 저널이 비어 있지 않으면 기록 순서대로 replay-batch 건씩 BookingWriter로 넣는다.
+ * - DB가 응답하지 않으면 (장애 지속) 위치를 그대로 두고 다음 주기에 재시도
+ * - 일시 오류(연결 / 락 대기 / 타임아웃)로 실패한 예매가 있으면 그 앞까지만 진행하고 나머지는 다음 주기에 재시도
+ * - 데이터 무결성 위반으로 거부된 예매만 데드레터로 옮기고 진행 (재생이 막히지 않게)
+ * - 진행한 예매는 아웃박스 스트림 이벤트를 ACK + XDEL 한 뒤 저널 위치를 옮긴다
+ * - 저널은 Pod 로컬이므로 모든 Pod에서 실행한다
+ */
+@Component
+public class BookingJournalReplayer {
+
+    private static final Logger logger = LoggerFactory.getLogger(BookingJournalReplayer.class);
+
+    private final BookingJournal bookingJournal;
+    private final BookingWriter bookingWriter;
+    private final BookingOutboxConsumer outboxConsumer;
+
+    @Value("${booking.journal.replay-batch:200}")
+    private int replayBatch;
+
+    public BookingJournalReplayer(BookingJournal bookingJournal,
+                                  BookingWriter bookingWriter,
+                                  BookingOutboxConsumer outboxConsumer) {
+        this.bookingJournal = bookingJournal;
+        this.bookingWriter = bookingWriter;
+        this.outboxConsumer = outboxConsumer;
+    }
+
+    @Scheduled(fixedDelayString = "${booking.journal.replay-interval-ms:1000}")
+    public void replay() {
+        try {
+            while (!bookingJournal.isEmpty()) {
+                List<BookingJournal.Entry> entries = bookingJournal.peek(replayBatch);
+                if (entries.isEmpty()) {
+                    return;
+                }
+                List<BookingWriter.BookingRecord> batch = new ArrayList<>(entries.size());
+                for (BookingJournal.Entry entry : entries) {
+                    batch.add(entry.booking());
+                }
+
+                if (!bookingWriter.isDatabaseAvailable()) {
+                    logger.warn("예매 저널 재생 대기 - DB 응답 없음, 미재생 {}건", batch.size());
+                    return;
+                }
+
+                BookingWriter.WriteResult result = bookingWriter.write(batch);
+                Set<String> retryable = new HashSet<>();
+                for (BookingWriter.BookingRecord booking : result.retryable()) {
+                    retryable.add(booking.bookingId());
+                }
+                // 첫 일시 오류 예매 앞까지만 진행 (순서 유지, 뒤는 다음 주기에 다시 - bookingId UNIQUE로 중복 없음)
+                int done = 0;
+                while (done < entries.size() && !retryable.contains(entries.get(done).booking().bookingId())) {
+                    done++;
+                }
+                List<BookingJournal.Entry> completed = entries.subList(0, done);
+
+                Set<String> rejected = new HashSet<>();
+                for (BookingWriter.BookingRecord booking : result.rejected()) {
+                    rejected.add(booking.bookingId());
+                }
+                int deadLettered = 0;
+                for (BookingJournal.Entry entry : completed) {
+                    if (rejected.contains(entry.booking().bookingId())) {
+                        bookingWriter.deadLetter(entry.booking(), "journal replay rejected");
+                        deadLettered++;
+                    }
+                }
+                if (!completed.isEmpty()) {
+                    outboxConsumer.acknowledgeJournaled(completed);
+                    bookingJournal.commit(completed);
+                    logger.info("예매 저널 재생 - {}건 (거부 {}건 데드레터)", completed.size(), deadLettered);
+                }
+                if (done < entries.size()) {
+                    logger.warn("예매 저널 재생 보류 - 일시 오류, {}건 다음 주기에 재시도", entries.size() - done);
+                    return;
+                }
+            }
+        } catch (Exception e) {
+            logger.error("예매 저널 재생 중 오류 발생", e);
+        }
+    }
+}
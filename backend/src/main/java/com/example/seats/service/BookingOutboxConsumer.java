@@ -0,0 +1,376 @@
+package com.example.seats.service;
+
+import com.example.admission.service.LoadBalancingOptimizer;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Range;
+import org.springframework.data.redis.RedisSystemException;
+import org.springframework.data.redis.connection.Limit;
+import org.springframework.data.redis.connection.stream.Consumer;
+import org.springframework.data.redis.connection.stream.MapRecord;
+import org.springframework.data.redis.connection.stream.PendingMessage;
+import org.springframework.data.redis.connection.stream.PendingMessages;
+import org.springframework.data.redis.connection.stream.ReadOffset;
+import org.springframework.data.redis.connection.stream.RecordId;
+import org.springframework.data.redis.connection.stream.StreamOffset;
+import org.springframework.data.redis.connection.stream.StreamInfo;
+import org.springframework.data.redis.connection.stream.StreamReadOptions;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StreamOperations;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * BookingOutboxConsumer - 예매 아웃박스 (Redis Stream) -> MySQL
+ *
+ * booking_complete.lua가 좌석 booked 비트와 같은 원자적 단계에서
+ * bookings:{movieId}:outbox 스트림에 예매 이벤트를 XADD 한다.
+ * 응답 직후 Pod가 죽어도 예매는 스트림에 남고, 이 컴포넌트가 소비자 그룹으로 꺼내 저장한다.
+ *
+ * - 영화 단위로 LoadBalancingOptimizer가 담당 Pod를 정한다 (소비자 이름 = podId)
+ * - XREADGROUP batch-size 건 -> BookingWriter 배치 INSERT -> 커밋된 건만 XACK + XDEL
+ *   (bookingId UNIQUE - 커밋 후 ACK 전 장애로 재전달되어도 중복 행 없음)
+ * - 저장하지 못한 건은 Pod 로컬 BookingJournal에 기록(force)하고 ACK 하지 않는다 (이 Pod 소비자의 PEL에 남김).
+ *   BookingJournalReplayer가 MySQL에 커밋한 뒤 acknowledgeJournaled로 ACK + XDEL 한다
+ *   (저널은 Pod 로컬 디스크라 Pod 교체 시 사라질 수 있다 - 원본은 끝까지 Redis 스트림).
+ *   저널에 재생 대기 예매가 있는 동안은 순서를 지키려 새 예매도 저널로 보낸다
+ * - 재시도 (XCLAIM, max-deliveries 회를 넘기면 데드레터로 옮기고 ACK):
+ *   · 다른 소비자 중 claim-idle-ms 이상 응답이 없는 소비자 (죽은 Pod, 영화 담당 이동) 의 PEL - 저널째 사라졌을 수 있다
+ *   · 이 Pod에서 저널 기록에 실패한 건, 재기동 전에 읽고 끝내지 못한 건 (영화별 첫 처리 때 자기 PEL 1회 점검)
+ *   저널에서 재생을 기다리는 자기 PEL 항목은 다시 가져가지 않는다 (장애 중 재전달 횟수가 늘지 않게)
+ * - 스트림은 booking_complete 호출 전에 bookings:outbox_movies 에 등록된다 (Pod마다 영화당 30초에 한 번 SADD)
+ *
+ * 메트릭:
+ *   cgv_booking_outbox_lag{movieId}          - 아직 MySQL에 없는 예매 수 (XLEN, ACK 후 XDEL 하므로)
+ *   cgv_booking_outbox_lag_seconds{movieId}  - 가장 오래된 미저장 예매의 경과 시간
+ */
+@Component
+public class BookingOutboxConsumer {
+
+    private static final Logger logger = LoggerFactory.getLogger(BookingOutboxConsumer.class);
+    private static final String GROUP = "booking-writers";
+    private static final String OUTBOX_MOVIES = "bookings:outbox_movies";
+    private static final long REGISTER_INTERVAL_MS = 30_000;
+
+    private final StringRedisTemplate redisTemplate;
+    private final StreamOperations<String, Object, Object> streamOps;
+    private final BookingWriter bookingWriter;
+    private final BookingJournal bookingJournal;
+    private final LoadBalancingOptimizer loadBalancer;
+    private final MeterRegistry meterRegistry;
+    private final String consumerName;
+
+    // movieId -> 이 Pod가 마지막으로 outbox_movies에 SADD 한 시각
+    private final Map<String, Long> registeredAt = new ConcurrentHashMap<>();
+    private final Set<String> groupsCreated = ConcurrentHashMap.newKeySet();
+    // 스트림 키 -> 이 Pod PEL 중 저널에 없어 다시 처리할 이벤트 ID
+    private final Map<String, Set<String>> ownRetry = new ConcurrentHashMap<>();
+    private final Set<String> ownPendingScanned = ConcurrentHashMap.newKeySet();
+    private final Map<String, AtomicLong> lagGauges = new ConcurrentHashMap<>();
+    private final Map<String, AtomicLong> lagSecondsGauges = new ConcurrentHashMap<>();
+
+    @Value("${booking.outbox.batch-size:200}")
+    private int batchSize;
+
+    @Value("${booking.outbox.claim-idle-ms:10000}")
+    private long claimIdleMs;
+
+    @Value("${booking.outbox.max-deliveries:5}")
+    private long maxDeliveries;
+
+    public BookingOutboxConsumer(StringRedisTemplate redisTemplate,
+                                 BookingWriter bookingWriter,
+                                 BookingJournal bookingJournal,
+                                 LoadBalancingOptimizer loadBalancer,
+                                 MeterRegistry meterRegistry) {
+        this.redisTemplate = redisTemplate;
+        this.streamOps = redisTemplate.opsForStream();
+        this.bookingWriter = bookingWriter;
+        this.bookingJournal = bookingJournal;
+        this.loadBalancer = loadBalancer;
+        this.meterRegistry = meterRegistry;
+        this.consumerName = loadBalancer.getPodId();
+    }
+
+    public static String outboxKey(String movieId) {
+        return "bookings:{" + movieId + "}:outbox";
+    }
+
+    /**
+     * 영화의 아웃박스 스트림을 소비 대상으로 등록한다. booking_complete 실행 전에 호출해야
+     * 스크립트 직후 Pod가 죽어도 스트림이 소비자에게 보인다.
+     */
+    public void registerMovie(String movieId) {
+        long now = System.currentTimeMillis();
+        Long last = registeredAt.get(movieId);
+        if (last != null && now - last < REGISTER_INTERVAL_MS) {
+            return;
+        }
+        redisTemplate.opsForSet().add(OUTBOX_MOVIES, movieId);
+        registeredAt.put(movieId, now);
+    }
+
+    @Scheduled(fixedDelayString = "${booking.outbox.poll-interval-ms:200}")
+    public void drain() {
+        try {
+            Set<String> movies = redisTemplate.opsForSet().members(OUTBOX_MOVIES);
+            if (movies == null) {
+                return;
+            }
+            for (String movieId : movies) {
+                if (loadBalancer.shouldProcessMovie(movieId)) {
+                    drainMovie(movieId);
+                }
+            }
+        } catch (Exception e) {
+            logger.error("예매 아웃박스 처리 중 오류 발생", e);
+        }
+    }
+
+    private void drainMovie(String movieId) {
+        String key = outboxKey(movieId);
+        try {
+            ensureGroup(key);
+            reclaim(movieId, key);
+
+            List<MapRecord<String, Object, Object>> records = streamOps.read(
+                    Consumer.from(GROUP, consumerName),
+                    StreamReadOptions.empty().count(batchSize),
+                    StreamOffset.create(key, ReadOffset.lastConsumed()));
+            if (records != null && !records.isEmpty()) {
+                persist(movieId, key, records);
+            }
+            updateLag(movieId, key);
+        } catch (Exception e) {
+            logger.error("[{}] 예매 아웃박스 처리 오류", movieId, e);
+        }
+    }
+
+    /**
+     * claim-idle-ms 동안 ACK 되지 않은 예매를 가져온다. 재전달 한도를 넘긴 건은 데드레터로 보낸다.
+     */
+    private void reclaim(String movieId, String key) {
+        if (ownPendingScanned.add(key)) {
+            scanOwnPending(movieId, key);
+        }
+
+        List<PendingMessage> stale = new ArrayList<>();
+        Set<String> retryIds = ownRetry.get(key);
+        if (retryIds != null && !retryIds.isEmpty()) {
+            Iterator<String> iterator = retryIds.iterator();
+            while (iterator.hasNext() && stale.size() < batchSize) {
+                String id = iterator.next();
+                PendingMessages message = streamOps.pending(key, Consumer.from(GROUP, consumerName),
+                        Range.closed(id, id), 1);
+                if (message == null || message.isEmpty()) {
+                    iterator.remove();  // 이미 ACK 됨
+                } else if (message.get(0).getElapsedTimeSinceLastDelivery().toMillis() >= claimIdleMs) {
+                    iterator.remove();
+                    stale.add(message.get(0));
+                }
+            }
+        }
+
+        StreamInfo.XInfoConsumers consumers = streamOps.consumers(key, GROUP);
+        for (StreamInfo.XInfoConsumer consumer : consumers) {
+            if (stale.size() >= batchSize) {
+                break;
+            }
+            if (consumer.consumerName().equals(consumerName) || consumer.pendingCount() == 0
+                    || consumer.idleTimeMs() < claimIdleMs) {
+                continue;
+            }
+            PendingMessages pending = streamOps.pending(key, Consumer.from(GROUP, consumer.consumerName()),
+                    Range.unbounded(), batchSize - stale.size());
+            if (pending != null) {
+                pending.forEach(stale::add);
+            }
+        }
+        if (stale.isEmpty()) {
+            return;
+        }
+
+        List<RecordId> retry = new ArrayList<>();
+        List<RecordId> exhausted = new ArrayList<>();
+        for (PendingMessage message : stale) {
+            if (message.getTotalDeliveryCount() >= maxDeliveries) {
+                exhausted.add(message.getId());
+            } else {
+                retry.add(message.getId());
+            }
+        }
+
+        for (RecordId id : exhausted) {
+            List<MapRecord<String, Object, Object>> records = streamOps.range(key,
+                    Range.closed(id.getValue(), id.getValue()), Limit.limit().count(1));
+            if (records != null && !records.isEmpty()) {
+                bookingWriter.deadLetter(toBooking(movieId, records.get(0)), "max-deliveries exceeded");
+            }
+            acknowledge(key, List.of(id));
+        }
+
+        if (!retry.isEmpty()) {
+            List<MapRecord<String, Object, Object>> claimed = streamOps.claim(key, GROUP, consumerName,
+                    Duration.ofMillis(claimIdleMs), retry.toArray(new RecordId[0]));
+            if (claimed != null && !claimed.isEmpty()) {
+                logger.warn("[{}] 미저장 예매 {}건 재시도", movieId, claimed.size());
+                persist(movieId, key, claimed);
+            }
+        }
+    }
+
+    /**
+     * 재기동 전 이 소비자 이름으로 읽고 끝내지 못한 이벤트 중 저널에 없는 것을 재시도 대상으로 둔다.
+     */
+    private void scanOwnPending(String movieId, String key) {
+        Consumer self = Consumer.from(GROUP, consumerName);
+        String from = "-";
+        while (true) {
+            PendingMessages page = streamOps.pending(key, self, Range.closed(from, "+"), batchSize);
+            if (page == null || page.isEmpty()) {
+                return;
+            }
+            for (PendingMessage message : page) {
+                if (!bookingJournal.isJournaled(movieId, message.getIdAsString())) {
+                    ownRetry.computeIfAbsent(key, k -> ConcurrentHashMap.newKeySet()).add(message.getIdAsString());
+                }
+            }
+            if (page.size() < batchSize) {
+                return;
+            }
+            RecordId last = page.get(page.size() - 1).getId();
+            from = last.getTimestamp() + "-" + (last.getSequence() + 1);
+        }
+    }
+
+    private void persist(String movieId, String key, List<MapRecord<String, Object, Object>> records) {
+        List<BookingWriter.BookingRecord> batch = new ArrayList<>(records.size());
+        for (MapRecord<String, Object, Object> record : records) {
+            batch.add(toBooking(movieId, record));
+        }
+
+        // 저널에 재생 대기 예매가 있으면 DB를 건너뛰고 뒤에 붙인다 (저널 -> MySQL 순서 유지)
+        List<BookingWriter.BookingRecord> failed = bookingJournal.isEmpty()
+                ? bookingWriter.write(batch).notWritten() : batch;
+        Set<String> notWritten = new HashSet<>();
+        for (BookingWriter.BookingRecord booking : failed) {
+            notWritten.add(booking.bookingId());
+        }
+
+        List<RecordId> committed = new ArrayList<>(records.size());
+        List<BookingJournal.Record> journal = new ArrayList<>(failed.size());
+        for (int i = 0; i < records.size(); i++) {
+            if (notWritten.contains(batch.get(i).bookingId())) {
+                journal.add(new BookingJournal.Record(batch.get(i), records.get(i).getId().getValue()));
+            } else {
+                committed.add(records.get(i).getId());
+            }
+        }
+        acknowledge(key, committed);
+
+        if (!journal.isEmpty()) {
+            try {
+                // ACK 하지 않는다 - 재생이 커밋한 뒤 acknowledgeJournaled
+                bookingJournal.append(journal);
+            } catch (Exception e) {
+                logger.error("[{}] 예매 저널 기록 실패 - {}건 {}ms 후 재시도", movieId, journal.size(), claimIdleMs, e);
+                Set<String> retryIds = ownRetry.computeIfAbsent(key, k -> ConcurrentHashMap.newKeySet());
+                for (BookingJournal.Record record : journal) {
+                    retryIds.add(record.outboxId());
+                }
+            }
+        }
+    }
+
+    /**
+     * 저널 재생이 MySQL에 커밋(또는 데드레터)한 예매의 스트림 이벤트를 ACK + XDEL 한다.
+     */
+    public void acknowledgeJournaled(List<BookingJournal.Entry> entries) {
+        Map<String, List<RecordId>> byKey = new LinkedHashMap<>();
+        for (BookingJournal.Entry entry : entries) {
+            if (entry.outboxId() != null) {
+                byKey.computeIfAbsent(outboxKey(entry.booking().movieId()), k -> new ArrayList<>())
+                        .add(RecordId.of(entry.outboxId()));
+            }
+        }
+        byKey.forEach(this::acknowledge);
+    }
+
+    // 커밋(또는 데드레터)된 이벤트만 ACK 하고 스트림에서 지운다 (XLEN = 미저장 예매 수)
+    private void acknowledge(String key, List<RecordId> ids) {
+        if (ids.isEmpty()) {
+            return;
+        }
+        RecordId[] array = ids.toArray(new RecordId[0]);
+        streamOps.acknowledge(key, GROUP, array);
+        streamOps.delete(key, array);
+    }
+
+    private void ensureGroup(String key) {
+        if (groupsCreated.contains(key)) {
+            return;
+        }
+        byte[] rawKey = key.getBytes(StandardCharsets.UTF_8);
+        try {
+            redisTemplate.execute((RedisCallback<String>) connection ->
+                    connection.streamCommands().xGroupCreate(rawKey, GROUP, ReadOffset.from("0"), true));
+        } catch (RedisSystemException e) {
+            if (e.getMessage() == null || !e.getMessage().contains("BUSYGROUP")) {
+                throw e;
+            }
+        }
+        groupsCreated.add(key);
+    }
+
+    private void updateLag(String movieId, String key) {
+        Long size = streamOps.size(key);
+        long lag = size != null ? size : 0L;
+        long lagSeconds = 0L;
+        if (lag > 0) {
+            List<MapRecord<String, Object, Object>> oldest = streamOps.range(key, Range.unbounded(),
+                    Limit.limit().count(1));
+            if (oldest != null && !oldest.isEmpty()) {
+                long addedAt = oldest.get(0).getId().getTimestamp();
+                lagSeconds = Math.max(0L, (System.currentTimeMillis() - addedAt) / 1000);
+            }
+        }
+        gauge(lagGauges, "cgv_booking_outbox_lag", movieId).set(lag);
+        gauge(lagSecondsGauges, "cgv_booking_outbox_lag_seconds", movieId).set(lagSeconds);
+    }
+
+    private AtomicLong gauge(Map<String, AtomicLong> gauges, String name, String movieId) {
+        return gauges.computeIfAbsent(movieId, id -> {
+            AtomicLong value = new AtomicLong(0);
+            meterRegistry.gauge(name, Tags.of("movieId", id), value);
+            return value;
+        });
+    }
+
+    private static BookingWriter.BookingRecord toBooking(String movieId, MapRecord<String, Object, Object> record) {
+        Map<Object, Object> fields = record.getValue();
+        return new BookingWriter.BookingRecord(
+                String.valueOf(fields.get("bookingId")),
+                movieId,
+                String.valueOf(fields.get("theaterId")),
+                String.valueOf(fields.get("seats")),
+                Integer.parseInt(String.valueOf(fields.get("totalPrice"))),
+                String.valueOf(fields.get("requestId")),
+                Long.parseLong(String.valueOf(fields.get("bookedAt"))));
+    }
+}
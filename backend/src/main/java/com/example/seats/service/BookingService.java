@@ -1,18 +1,16 @@
 package com.example.seats.service;
 
 import com.example.admission.dto.BookingResult;
+import com.example.admission.service.SlotReleasePublisher;
+import com.example.admission.token.AdmissionTokenRevocations;
 import com.example.admission.ws.WebSocketBroadcastService;
-import com.example.seats.entity.Booking;
-import com.example.seats.repository.BookingRepository;
+import com.example.redis.LuaScriptRegistry;
+import com.example.seats.converter.JsonListConverter;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.core.io.ClassPathResource;
-import org.springframework.data.redis.core.RedisTemplate;
-import org.springframework.data.redis.core.script.RedisScript;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 
-import jakarta.annotation.PostConstruct;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
@@ -23,47 +21,67 @@ import java.util.UUID;
  *
  * 설계:
  * - booking_complete.lua로 원자적 처리:
+ *   0) 좌석이 모두 이 requestId의 선점인지 확인 (아니면 NOT_HELD, 아무것도 바꾸지 않음)
  *   1) ZREM sessions:{movieId}:active (활성 세션에서 제거)
- *   2) SADD booked:{movieId}:{theaterId} (예매 좌석 기록)
- *   3) INCR booking:completed:{movieId} (완료 카운터)
- *   4) 6000석 도달 시 sold-out:{movieId} 플래그 SET EX 3600
+ *   2) SETBIT seats:{movieId}:{theaterId}:booked (예매 좌석 기록, 해당 좌석 선점 정리)
+ *      + 예매하지 않은 나머지 선점 해제 (소유자 인덱스 seats:{movieId}:holder:{requestId})
+ *   3) INCRBY booking:completed:{movieId} + HINCRBY booking:sold:{movieId} (영화/상영관 판매 좌석 수)
+ *   4) 전체 좌석(Theater.totalSeats 합) 도달 시 sold-out:{movieId} 플래그 SET EX 3600
+ *   5) XADD bookings:{movieId}:outbox (예매 이벤트 - Pod 장애에도 유실 없음)
  *
- * - RDS 비동기 저장 (@Async)
+ * - RDS 저장은 BookingOutboxConsumer가 아웃박스 스트림을 배치로 소비 (응답 경로에서 MySQL 접근 없음)
+ * - 활성 슬롯 반환 이벤트 발행 (다음 대기자 즉시 승격)
+ * - SEAT_DELTA(BOOKED) 발행 (좌석 페이지 실시간 반영)
  * - SOLD_OUT 발생 시 WebSocket 브로드캐스트
  *
  * Redis keys (Hash Tag: {movieId} ensures same Redis slot):
  * - sessions:{movieId}:active            (Sorted Set)
- * - booked:{movieId}:{theaterId}         (Set)
- * - booking:completed:{movieId}          (String counter)
+ * - seats:{movieId}:{theaterId}:*        (SeatInventory 비트맵 / 선점 만료 / 소유자)
+ * - booking:completed:{movieId}          (String counter - 판매 좌석 수)
+ * - booking:sold:{movieId}               (Hash - theaterId -> 판매 좌석 수, BookingCounters)
  * - sold-out:{movieId}                   (String flag, TTL 3600s)
+ * - bookings:{movieId}:outbox            (Stream - MySQL 미저장 예매)
  *
- * Total seats: 6,000 (20 theaters x 300 seats)
+ * 전체 좌석 수 / 잔여 좌석은 BookingCounters (MySQL COUNT 없음)
  */
 @Service
 public class BookingService {
 
     private static final Logger logger = LoggerFactory.getLogger(BookingService.class);
-    private static final int TOTAL_SEATS = 6000;
     private static final int PRICE_PER_SEAT = 15000;
+    private static final JsonListConverter SEATS_JSON = new JsonListConverter();
 
-    private final RedisTemplate<String, String> redisTemplate;
-    private final BookingRepository bookingRepository;
+    private final LuaScriptRegistry scriptRegistry;
+    private final SeatInventory seatInventory;
+    private final SeatLayout seatLayout;
+    private final BookingOutboxConsumer bookingOutbox;
     private final WebSocketBroadcastService broadcastService;
-    private RedisScript<List> bookingCompleteScript;
-
-    public BookingService(RedisTemplate<String, String> redisTemplate,
-                          BookingRepository bookingRepository,
-                          WebSocketBroadcastService broadcastService) {
-        this.redisTemplate = redisTemplate;
-        this.bookingRepository = bookingRepository;
+    private final SlotReleasePublisher slotReleasePublisher;
+    private final SeatDeltaPublisher seatDeltaPublisher;
+    private final SeatHoldReleaser seatHoldReleaser;
+    private final BookingCounters bookingCounters;
+    private final AdmissionTokenRevocations tokenRevocations;
+
+    public BookingService(LuaScriptRegistry scriptRegistry,
+                          SeatInventory seatInventory,
+                          SeatLayout seatLayout,
+                          BookingOutboxConsumer bookingOutbox,
+                          WebSocketBroadcastService broadcastService,
+                          SlotReleasePublisher slotReleasePublisher,
+                          SeatDeltaPublisher seatDeltaPublisher,
+                          SeatHoldReleaser seatHoldReleaser,
+                          BookingCounters bookingCounters,
+                          AdmissionTokenRevocations tokenRevocations) {
+        this.scriptRegistry = scriptRegistry;
+        this.seatInventory = seatInventory;
+        this.seatLayout = seatLayout;
+        this.bookingOutbox = bookingOutbox;
         this.broadcastService = broadcastService;
-    }
-
-    @PostConstruct
-    private void loadScripts() {
-        this.bookingCompleteScript = RedisScript.of(
-                new ClassPathResource("scripts/booking_complete.lua"), List.class);
-        logger.info("booking_complete.lua 스크립트 로드 완료");
+        this.slotReleasePublisher = slotReleasePublisher;
+        this.seatDeltaPublisher = seatDeltaPublisher;
+        this.seatHoldReleaser = seatHoldReleaser;
+        this.bookingCounters = bookingCounters;
+        this.tokenRevocations = tokenRevocations;
     }
 
     /**
@@ -74,37 +92,87 @@ public class BookingService {
      * @param theaterId 상영관 ID
      * @param seatIds   예매 좌석 목록
      * @param requestId 요청자 ID (활성 세션 멤버)
-     * @return BookingResult - COMPLETED 또는 ALREADY_COMPLETED
+     * @return BookingResult - COMPLETED, ALREADY_COMPLETED, NOT_HELD 또는 ERROR
+     * @throws IllegalArgumentException 격자 밖 좌석 ID, 중복 좌석, 최대 좌석 수 초과
      */
     public BookingResult completeBooking(String movieId, String theaterId,
                                          List<String> seatIds, String requestId) {
         // Redis keys (Hash Tag 사용 - 같은 슬롯 배치)
         String activeKey = "sessions:{" + movieId + "}:active";
-        String bookedKey = "booked:{" + movieId + "}:" + theaterId;
-        String completedKey = "booking:completed:{" + movieId + "}";
-        String soldOutKey = "sold-out:{" + movieId + "}";
 
-        // seatIds를 comma-separated 문자열로 변환
-        String seatsCsv = String.join(",", seatIds);
+        // 같은 좌석을 여러 번 보내 판매 카운터/금액을 부풀리지 못하게 한다 ("a1"과 "A1"도 같은 좌석)
+        if (seatIds.size() > SeatService.MAX_SEATS_PER_REQUEST) {
+            throw new IllegalArgumentException("예매 좌석은 최대 " + SeatService.MAX_SEATS_PER_REQUEST
+                    + "석입니다: " + seatIds.size());
+        }
+        List<Integer> indexes = new ArrayList<>(seatIds.size());
+        for (String seatId : seatIds) {
+            int index = seatLayout.indexOf(seatId);
+            if (indexes.contains(index)) {
+                throw new IllegalArgumentException("중복된 좌석 ID: " + seatId);
+            }
+            indexes.add(index);
+        }
 
+        int totalSeats = 0;
         try {
-            @SuppressWarnings("unchecked")
-            List<Object> result = redisTemplate.execute(
-                    bookingCompleteScript,
-                    Arrays.asList(activeKey, bookedKey, completedKey, soldOutKey),
-                    requestId,
-                    seatsCsv,
-                    String.valueOf(TOTAL_SEATS)
+            totalSeats = bookingCounters.totalSeats();
+
+            // 스크립트가 XADD 하기 전에 스트림을 소비 대상으로 등록 (스크립트 직후 장애 대비)
+            bookingOutbox.registerMovie(movieId);
+
+            // ARGV: member, totalSeats, theaterId, now, 선점 TTL, 좌석 키 접두사,
+            //       bookingId, 좌석 JSON, 결제 금액, 좌석 인덱스...
+            String bookingId = UUID.randomUUID().toString();
+            String[] args = new String[9 + seatIds.size()];
+            args[0] = requestId;
+            args[1] = String.valueOf(totalSeats);
+            args[2] = theaterId;
+            args[3] = String.valueOf(System.currentTimeMillis());
+            args[4] = String.valueOf(SeatInventory.HOLD_TTL_MS);
+            args[5] = seatInventory.seatKeyPrefix(movieId);
+            args[6] = bookingId;
+            args[7] = SEATS_JSON.convertToDatabaseColumn(seatIds);
+            args[8] = String.valueOf(seatIds.size() * PRICE_PER_SEAT);
+            for (int i = 0; i < seatIds.size(); i++) {
+                args[9 + i] = String.valueOf(indexes.get(i));
+            }
+
+            List<Object> result = scriptRegistry.executeForList(
+                    "booking_complete",
+                    Arrays.asList(activeKey,
+                            seatInventory.bookedKey(movieId, theaterId),
+                            BookingCounters.completedKey(movieId),
+                            BookingCounters.soldOutKey(movieId),
+                            seatInventory.heldKey(movieId, theaterId),
+                            seatInventory.holdsKey(movieId, theaterId),
+                            seatInventory.ownersKey(movieId, theaterId),
+                            seatInventory.versionKey(movieId, theaterId),
+                            seatInventory.holderKey(movieId, requestId),
+                            BookingOutboxConsumer.outboxKey(movieId),
+                            BookingCounters.soldKey(movieId)),
+                    args
             );
 
             if (result == null || result.isEmpty()) {
                 logger.error("booking_complete.lua 실행 결과 null - requestId={}", requestId);
-                return new BookingResult("ERROR", 0, TOTAL_SEATS, false);
+                return new BookingResult("ERROR", 0, totalSeats, false);
             }
 
             long status = toLong(result.get(0));
             String statusText = result.get(1).toString();
 
+            if (status == 0 && "NOT_HELD".equals(statusText)) {
+                // 선점 만료 후 다른 사용자가 잡았거나, 선점하지 않은 좌석
+                List<String> notHeld = new ArrayList<>(result.size() - 2);
+                for (int i = 2; i < result.size(); i++) {
+                    notHeld.add(seatLayout.seatIdOf((int) toLong(result.get(i))));
+                }
+                logger.info("예매 거절 - 선점하지 않은 좌석: movieId={}, theaterId={}, seats={}, requestId={}",
+                        movieId, theaterId, notHeld, requestId);
+                return new BookingResult("NOT_HELD", 0, 0, false);
+            }
+
             if (status == 0) {
                 // 이미 완료된 예매 (멱등성)
                 logger.info("이미 완료된 예매 - requestId={}, movieId={}", requestId, movieId);
@@ -114,21 +182,34 @@ public class BookingService {
             // 성공 - 카운터와 sold-out 여부 확인
             long completedCount = toLong(result.get(2));
             long isSoldOut = toLong(result.get(3));
-            long remainingSeats = Math.max(0, TOTAL_SEATS - completedCount);
+            long remainingSeats = Math.max(0, totalSeats - completedCount);
             boolean soldOut = isSoldOut == 1;
 
-            logger.info("예매 완료 - movieId={}, theaterId={}, seats={}, requestId={}, " +
+            logger.info("예매 완료 - bookingId={}, movieId={}, theaterId={}, seats={}, requestId={}, " +
                             "completedCount={}/{}, soldOut={}",
-                    movieId, theaterId, seatIds, requestId,
-                    completedCount, TOTAL_SEATS, soldOut);
+                    bookingId, movieId, theaterId, seatIds, requestId,
+                    completedCount, totalSeats, soldOut);
+
+            // 좌석 페이지 구독자에게 예매 좌석 델타 전파
+            seatDeltaPublisher.publish(movieId, theaterId, indexes, SeatDeltaPublisher.BOOKED,
+                    result.size() > 4 ? toLong(result.get(4)) : 0L);
+
+            // 예매하지 않고 잡고 있던 나머지 좌석 (스크립트에서 이미 해제됨)
+            if (result.size() > 6) {
+                seatHoldReleaser.publish(movieId, new SeatInventory.ReleaseSummary(1L,
+                        toLong(result.get(5)), toLong(result.get(6)),
+                        SeatInventory.theaterReleases(result, 7)), "booking");
+            }
+
+            // 활성 세션에서 빠졌으므로 다음 대기자 승격 트리거, 입장 토큰 철회
+            slotReleasePublisher.publish(movieId);
+            tokenRevocations.revoke(movieId, requestId);
 
-            // RDS 비동기 저장
-            int totalPrice = seatIds.size() * PRICE_PER_SEAT;
-            saveBookingAsync(movieId, theaterId, seatIds, totalPrice, requestId);
+            // RDS 저장은 아웃박스 소비자가 처리 (응답은 기다리지 않음)
 
             // 매진 감지 시 WebSocket 브로드캐스트
             if (soldOut) {
-                broadcastSoldOut(movieId);
+                broadcastSoldOut(movieId, totalSeats);
             }
 
             return new BookingResult("COMPLETED", completedCount, remainingSeats, soldOut);
@@ -136,33 +217,7 @@ public class BookingService {
         } catch (Exception e) {
             logger.error("예매 완료 처리 Redis 오류 - movieId={}, theaterId={}, requestId={}",
                     movieId, theaterId, requestId, e);
-            return new BookingResult("ERROR", 0, TOTAL_SEATS, false);
-        }
-    }
-
-    /**
-     * RDS 비동기 저장 - 예매 정보를 MySQL에 영속화한다.
-     * Redis 원자적 처리 후 비동기로 실행되므로 예매 응답 지연에 영향 없음.
-     */
-    @Async("bookingExecutor")
-    public void saveBookingAsync(String movieId, String theaterId,
-                                  List<String> seatIds, int totalPrice, String requestId) {
-        try {
-            String bookingId = UUID.randomUUID().toString();
-            Booking booking = new Booking(
-                    bookingId, movieId, theaterId,
-                    seatIds, totalPrice, requestId
-            );
-
-            bookingRepository.save(booking);
-            logger.info("예매 RDS 저장 완료 - bookingId={}, movieId={}, theaterId={}, seats={}",
-                    bookingId, movieId, theaterId, seatIds);
-
-        } catch (Exception e) {
-            // 비동기 저장 실패는 로그만 남기고 Redis 상태는 유지
-            // 별도 보상 로직(재시도 큐 등)으로 처리 가능
-            logger.error("예매 RDS 저장 실패 - movieId={}, theaterId={}, requestId={}, seats={}",
-                    movieId, theaterId, requestId, seatIds, e);
+            return new BookingResult("ERROR", 0, totalSeats, false);
         }
     }
 
@@ -170,9 +225,9 @@ public class BookingService {
      * 매진 감지 시 해당 영화의 모든 대기 사용자에게 SOLD_OUT 브로드캐스트.
      * Redis Pub/Sub -> 모든 Pod의 WebSocketBroadcastListener -> /topic/stats/movie/{movieId}
      */
-    private void broadcastSoldOut(String movieId) {
+    private void broadcastSoldOut(String movieId, int totalSeats) {
         try {
-            logger.warn("SOLD OUT 감지 - movieId={}, 전체 {}석 매진", movieId, TOTAL_SEATS);
+            logger.warn("SOLD OUT 감지 - movieId={}, 전체 {}석 매진", movieId, totalSeats);
             broadcastService.broadcastSoldOut(movieId);
             logger.info("SOLD OUT 브로드캐스트 완료 - movieId={}", movieId);
         } catch (Exception e) {
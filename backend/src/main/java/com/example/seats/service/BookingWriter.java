@@ -0,0 +1,244 @@
+package com.example.seats.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * BookingWriter - 예매 RDS 배치 INSERT
+ *
+ * 기존: 예매 1건 = JPA save 1회 (bookingExecutor 4~8 스레드, 큐 100).
+ * 큐가 차면 RejectedExecutionHandler가 로그만 남기고 예매를 버렸고,
+ * Booking의 IDENTITY 키 때문에 Hibernate JDBC 배치도 쓸 수 없었다.
+ *
+ * 현재:
+ * - BookingOutboxConsumer가 Redis Stream(bookings:{movieId}:outbox)에서 읽은 예매를 묶어 넘기면
+ *   JdbcTemplate.batchUpdate로 한 번에 INSERT (MySQL은 rewriteBatchedStatements=true -> 다중 행 INSERT 1문)
+ * - 배치 실패 시 max-retries 회 재시도 (지수 백오프), 그래도 실패하면 행 단위로 나눠
+ *   중복 키(bookingId - 이미 저장된 행)는 성공 처리, 나머지는 호출자에게 돌려준다 (BookingJournal로 이동)
+ *   돌려줄 때 데이터 무결성 위반(행 자체 문제, 재시도해도 실패)은 rejected, 그 외(연결 / 락 대기 / 타임아웃)는
+ *   retryable 로 나눈다. 행 단위 처리 중 일시 오류가 나면 나머지 행은 시도하지 않고 retryable 로 돌려준다
+ * - 재전달 한도를 넘긴 예매는 Redis 데드레터 리스트(booking:dead-letter)에 JSON으로 보관
+ *
+ * 메트릭:
+ *   cgv_booking_write_batch_size              - 배치당 행 수
+ *   cgv_booking_write_flush_seconds           - 배치 INSERT 소요 시간 (재시도 포함)
+ *   cgv_booking_write_total{result}           - written / duplicate / retried / failed / dead_letter
+ */
+@Component
+public class BookingWriter {
+
+    private static final Logger logger = LoggerFactory.getLogger(BookingWriter.class);
+    private static final String DEAD_LETTER_KEY = "booking:dead-letter";
+    private static final String INSERT_SQL =
+            "INSERT INTO bookings (booking_id, movie_id, theater_id, seats, total_price, request_id, booked_at) "
+                    + "VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final StringRedisTemplate redisTemplate;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+
+    private final DistributionSummary batchSizeSummary;
+    private final Timer flushTimer;
+    private final Counter written;
+    private final Counter duplicate;
+    private final Counter retried;
+    private final Counter failed;
+    private final Counter deadLettered;
+
+    @Value("${booking.write.max-retries:2}")
+    private int maxRetries;
+
+    public BookingWriter(JdbcTemplate jdbcTemplate,
+                         StringRedisTemplate redisTemplate,
+                         ObjectMapper objectMapper,
+                         MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.redisTemplate = redisTemplate;
+        this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry;
+        this.batchSizeSummary = DistributionSummary.builder("cgv_booking_write_batch_size")
+                .description("Bookings per batched INSERT")
+                .register(meterRegistry);
+        this.flushTimer = Timer.builder("cgv_booking_write_flush_seconds")
+                .description("Batched booking INSERT latency including retries")
+                .register(meterRegistry);
+        this.written = writeCounter("written");
+        this.duplicate = writeCounter("duplicate");
+        this.retried = writeCounter("retried");
+        this.failed = writeCounter("failed");
+        this.deadLettered = writeCounter("dead_letter");
+    }
+
+    /**
+     * 예매 묶음을 저장한다.
+     *
+     * @return 저장하지 못한 예매 (비어 있으면 전부 저장 또는 이미 저장됨)
+     */
+    public WriteResult write(List<BookingRecord> batch) {
+        if (batch.isEmpty()) {
+            return WriteResult.ALL_WRITTEN;
+        }
+        batchSizeSummary.record(batch.size());
+        long start = System.nanoTime();
+        try {
+            for (int attempt = 0; attempt <= maxRetries; attempt++) {
+                try {
+                    insert(batch);
+                    written.increment(batch.size());
+                    logger.debug("예매 {}건 저장", batch.size());
+                    return WriteResult.ALL_WRITTEN;
+                } catch (DuplicateKeyException e) {
+                    // 재전달된 예매가 섞여 있음 - 행 단위로 가른다
+                    break;
+                } catch (Exception e) {
+                    if (attempt == maxRetries) {
+                        logger.error("예매 배치 저장 {}회 실패 - {}건 행 단위 처리", attempt + 1, batch.size(), e);
+                        break;
+                    }
+                    retried.increment();
+                    logger.warn("예매 배치 저장 실패 - 재시도 {}/{}: {}", attempt + 1, maxRetries, e.getMessage());
+                    sleep(100L << attempt);
+                }
+            }
+            return writeOneByOne(batch);
+        } finally {
+            flushTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * 쓰기 DB가 응답하는지 (저널 재생 시 장애 지속 / 레코드 자체 문제 구분용).
+     */
+    public boolean isDatabaseAvailable() {
+        try {
+            jdbcTemplate.queryForObject("SELECT 1", Integer.class);
+            return true;
+        } catch (Exception e) {
+            return false;
+        }
+    }
+
+    /**
+     * 재전달 한도를 넘긴 예매를 데드레터 리스트로 옮긴다 (수동 복구용).
+     */
+    public void deadLetter(BookingRecord booking, String reason) {
+        deadLettered.increment();
+        logger.error("예매 RDS 저장 포기 - 데드레터 보관: bookingId={}, movieId={}, requestId={}, reason={}",
+                booking.bookingId(), booking.movieId(), booking.requestId(), reason);
+        Map<String, Object> entry = new LinkedHashMap<>();
+        entry.put("bookingId", booking.bookingId());
+        entry.put("movieId", booking.movieId());
+        entry.put("theaterId", booking.theaterId());
+        entry.put("seats", booking.seatsJson());
+        entry.put("totalPrice", booking.totalPrice());
+        entry.put("requestId", booking.requestId());
+        entry.put("bookedAt", booking.bookedAt());
+        entry.put("reason", reason);
+        try {
+            redisTemplate.opsForList().rightPush(DEAD_LETTER_KEY, objectMapper.writeValueAsString(entry));
+        } catch (Exception e) {
+            throw new IllegalStateException("데드레터 기록 실패 - bookingId=" + booking.bookingId(), e);
+        }
+    }
+
+    private WriteResult writeOneByOne(List<BookingRecord> batch) {
+        List<BookingRecord> retryable = new ArrayList<>();
+        List<BookingRecord> rejected = new ArrayList<>();
+        for (int i = 0; i < batch.size(); i++) {
+            BookingRecord booking = batch.get(i);
+            try {
+                insert(List.of(booking));
+                written.increment();
+            } catch (DuplicateKeyException e) {
+                duplicate.increment();
+                logger.debug("이미 저장된 예매 - bookingId={}", booking.bookingId());
+            } catch (DataIntegrityViolationException e) {
+                failed.increment();
+                logger.warn("예매 저장 거부 - bookingId={}: {}", booking.bookingId(), e.getMessage());
+                rejected.add(booking);
+            } catch (Exception e) {
+                // 일시 오류 - 나머지 행도 같은 상태일 가능성이 높으니 시도하지 않고 돌려준다
+                failed.increment(batch.size() - i);
+                logger.warn("예매 저장 실패 - bookingId={}, 나머지 {}건 보류: {}",
+                        booking.bookingId(), batch.size() - i - 1, e.getMessage());
+                retryable.addAll(batch.subList(i, batch.size()));
+                break;
+            }
+        }
+        return new WriteResult(retryable, rejected);
+    }
+
+    private void insert(List<BookingRecord> batch) {
+        jdbcTemplate.batchUpdate(INSERT_SQL, batch, batch.size(), (ps, booking) -> {
+            ps.setString(1, booking.bookingId());
+            ps.setString(2, booking.movieId());
+            ps.setString(3, booking.theaterId());
+            ps.setString(4, booking.seatsJson());
+            ps.setInt(5, booking.totalPrice());
+            ps.setString(6, booking.requestId());
+            ps.setTimestamp(7, new Timestamp(booking.bookedAt()));
+        });
+    }
+
+    private Counter writeCounter(String result) {
+        return Counter.builder("cgv_booking_write_total")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * @param retryable 일시 오류로 저장하지 못한 예매 (나중에 다시 시도)
+     * @param rejected  데이터 무결성 위반으로 거부된 예매 (재시도해도 실패)
+     */
+    public record WriteResult(List<BookingRecord> retryable, List<BookingRecord> rejected) {
+
+        static final WriteResult ALL_WRITTEN = new WriteResult(List.of(), List.of());
+
+        public boolean isEmpty() {
+            return retryable.isEmpty() && rejected.isEmpty();
+        }
+
+        public List<BookingRecord> notWritten() {
+            if (rejected.isEmpty()) {
+                return retryable;
+            }
+            List<BookingRecord> all = new ArrayList<>(retryable);
+            all.addAll(rejected);
+            return all;
+        }
+    }
+
+    /**
+     * bookings 테이블 한 행. seatsJson은 JsonListConverter와 같은 형식의 JSON 배열.
+     */
+    public record BookingRecord(String bookingId, String movieId, String theaterId, String seatsJson,
+                                int totalPrice, String requestId, long bookedAt) {
+    }
+}
@@ -0,0 +1,163 @@
+package com.example.seats.service;
+
+import com.example.redis.LuaScriptRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * LegacySeatMigrator - 예전 예매 좌석 Set을 비트맵으로 옮긴다
+ *
+ * 비트맵 재고(seats:{movieId}:{theaterId}:booked) 이전에는 예매 좌석이
+ * booked:{movieId}:{theaterId} Set ("A1", "C14" ...) 에 있었다. 옮기지 않으면 그 좌석이
+ * 비트맵에서 빈 좌석으로 보여 seat_hold / seat_allocate 가 다시 판다 (이중 예매).
+ *
+ * - 기동 시 트래픽을 받기 전(ApplicationRunner, readiness 전환 전)에 한 번 전체를 옮긴다
+ * - 롤링 배포 중 이전 버전 Pod가 Set에 더 쓸 수 있으므로, 남은 Set이 없는 주기를 만날 때까지
+ *   legacy-migration-interval-ms 마다 다시 훑는다
+ * - seat_migrate_legacy.lua: SREM + SETBIT + 버전 INCR 원자 처리, 새로 세운 좌석은 SEAT_DELTA(BOOKED)
+ * - 격자 밖 좌석 ID는 비트를 세우지 않고 오류 로그만 남긴 채 Set에서 뺀다
+ */
+@Component
+public class LegacySeatMigrator implements ApplicationRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(LegacySeatMigrator.class);
+    private static final String LEGACY_PATTERN = "booked:{*}:*";
+
+    private final RedisTemplate<String, String> redisTemplate;
+    private final LuaScriptRegistry scriptRegistry;
+    private final SeatInventory seatInventory;
+    private final SeatLayout seatLayout;
+    private final SeatDeltaPublisher seatDeltaPublisher;
+
+    private volatile boolean drained;
+
+    public LegacySeatMigrator(RedisTemplate<String, String> redisTemplate,
+                              LuaScriptRegistry scriptRegistry,
+                              SeatInventory seatInventory,
+                              SeatLayout seatLayout,
+                              SeatDeltaPublisher seatDeltaPublisher) {
+        this.redisTemplate = redisTemplate;
+        this.scriptRegistry = scriptRegistry;
+        this.seatInventory = seatInventory;
+        this.seatLayout = seatLayout;
+        this.seatDeltaPublisher = seatDeltaPublisher;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        migrate();
+    }
+
+    @Scheduled(initialDelayString = "${seats.legacy-migration-interval-ms:60000}",
+            fixedDelayString = "${seats.legacy-migration-interval-ms:60000}")
+    public void migrateRemaining() {
+        if (drained) {
+            return;
+        }
+        try {
+            migrate();
+        } catch (Exception e) {
+            logger.error("예전 예매 좌석 이전 중 오류 발생", e);
+        }
+    }
+
+    /**
+     * 남은 Set을 모두 옮긴다.
+     *
+     * @return 처리한 Set 수 (0이면 더 옮길 것이 없음)
+     */
+    public int migrate() {
+        List<String> keys = scanLegacyKeys();
+        int migrated = 0;
+        long seats = 0;
+        for (String key : keys) {
+            try {
+                seats += migrateKey(key);
+                migrated++;
+            } catch (Exception e) {
+                logger.error("예전 예매 좌석 이전 실패 - {}", key, e);
+            }
+        }
+        if (keys.isEmpty()) {
+            if (!drained) {
+                logger.info("예전 예매 좌석 Set 없음 - 이전 완료");
+            }
+            drained = true;
+        } else {
+            logger.warn("예전 예매 좌석 이전 - Set {}개, 새로 예매 처리한 좌석 {}석", migrated, seats);
+        }
+        return migrated;
+    }
+
+    private long migrateKey(String key) {
+        // booked:{movieId}:{theaterId}
+        int open = key.indexOf('{');
+        int close = key.indexOf("}:", open);
+        if (open < 0 || close < 0) {
+            logger.error("예전 예매 좌석 키 형식 오류 - {}", key);
+            return 0;
+        }
+        String movieId = key.substring(open + 1, close);
+        String theaterId = key.substring(close + 2);
+
+        Set<String> members = redisTemplate.opsForSet().members(key);
+        if (members == null || members.isEmpty()) {
+            return 0;
+        }
+        List<String> args = new ArrayList<>(members.size() * 2);
+        for (String seatId : members) {
+            int index;
+            try {
+                index = seatLayout.indexOf(seatId);
+            } catch (IllegalArgumentException e) {
+                logger.error("예전 예매 좌석 ID를 격자에 둘 수 없음 - {} {}: {}", key, seatId, e.getMessage());
+                index = -1;
+            }
+            args.add(seatId);
+            args.add(String.valueOf(index));
+        }
+
+        List<Object> result = scriptRegistry.executeForList("seat_migrate_legacy",
+                List.of(key, seatInventory.bookedKey(movieId, theaterId), seatInventory.versionKey(movieId, theaterId)),
+                args.toArray(new String[0]));
+        if (result == null || result.size() < 2) {
+            throw new IllegalStateException("seat_migrate_legacy.lua 실행 결과 없음");
+        }
+        long version = Long.parseLong(result.get(0).toString());
+        List<Integer> moved = new ArrayList<>(result.size() - 2);
+        for (int i = 2; i < result.size(); i++) {
+            moved.add(Integer.parseInt(result.get(i).toString()));
+        }
+        if (version > 0) {
+            seatDeltaPublisher.publish(movieId, theaterId, moved, SeatDeltaPublisher.BOOKED, version);
+        }
+        return moved.size();
+    }
+
+    private List<String> scanLegacyKeys() {
+        List<String> keys = new ArrayList<>();
+        redisTemplate.execute((RedisCallback<Void>) connection -> {
+            ScanOptions options = ScanOptions.scanOptions().match(LEGACY_PATTERN).count(1000).build();
+            try (Cursor<byte[]> cursor = connection.keyCommands().scan(options)) {
+                while (cursor.hasNext()) {
+                    keys.add(new String(cursor.next(), StandardCharsets.UTF_8));
+                }
+            }
+            return null;
+        });
+        return keys;
+    }
+}
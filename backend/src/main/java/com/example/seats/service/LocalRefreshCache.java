@@ -0,0 +1,82 @@
+package com.example.seats.service;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BiFunction;
+
+/**
+ * LocalRefreshCache - Pod 로컬 TTL 캐시 (키당 single-flight 갱신)
+ *
+ * SeatMapCache(좌석 맵)와 TheaterService(잔여 좌석)가 같은 규칙으로 쓴다.
+ *
+ * - ttl 이 지난 뒤 첫 조회만 loader를 호출한다 (키당 동시에 1건, 나머지는 기다리지 않고 기존 값 반환)
+ * - 첫 적재만 키당 1건이 loader를 호출하고 나머지는 그 결과를 기다린다
+ * - 캐시 항목은 maxEntries 까지 (넘으면 캐시 없이 바로 loader 호출)
+ * - loader는 (키, 이전 값 또는 null)을 받아 새 값을 돌려준다. 오류 시 이전 값을 돌려줄지는 loader가 정한다
+ */
+final class LocalRefreshCache<K, V> {
+
+    private final int maxEntries;
+    private final long ttlMs;
+    private final BiFunction<K, V, V> loader;
+
+    private final Map<K, Entry<V>> entries = new ConcurrentHashMap<>();
+
+    LocalRefreshCache(int maxEntries, long ttlMs, BiFunction<K, V, V> loader) {
+        this.maxEntries = maxEntries;
+        this.ttlMs = ttlMs;
+        this.loader = loader;
+    }
+
+    V get(K key) {
+        Entry<V> entry = entries.get(key);
+        if (entry == null) {
+            if (entries.size() >= maxEntries) {
+                // 임의 키로 캐시 항목이 무한히 늘어나지 않게 한다
+                return loader.apply(key, null);
+            }
+            entry = entries.computeIfAbsent(key, k -> new Entry<>());
+        }
+
+        V current = entry.value;
+        if (current != null && isFresh(entry)) {
+            return current;
+        }
+        if (current != null) {
+            // 다른 스레드가 갱신 중이면 기다리지 않고 기존 값 반환
+            if (!entry.refreshing.compareAndSet(false, true)) {
+                return entry.value;
+            }
+            try {
+                return load(key, entry);
+            } finally {
+                entry.refreshing.set(false);
+            }
+        }
+        synchronized (entry) {
+            return load(key, entry);
+        }
+    }
+
+    private V load(K key, Entry<V> entry) {
+        // 다른 스레드가 방금 갱신했으면 그대로 사용
+        if (entry.value != null && isFresh(entry)) {
+            return entry.value;
+        }
+        V value = loader.apply(key, entry.value);
+        entry.value = value;
+        entry.checkedAt = System.currentTimeMillis();
+        return value;
+    }
+
+    private boolean isFresh(Entry<V> entry) {
+        return System.currentTimeMillis() - entry.checkedAt < ttlMs;
+    }
+
+    private static final class Entry<V> {
+        private volatile V value;
+        private volatile long checkedAt;
+        private final AtomicBoolean refreshing = new AtomicBoolean();
+    }
+}
@@ -0,0 +1,118 @@
+package com.example.seats.service;
+
+import com.example.admission.ws.WebSocketBroadcastService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * SeatDeltaPublisher - 좌석 변경 델타 발행 (상영관별 짧은 윈도우 병합)
+ *
+ * 선점(seat_hold) / 예매(booking_complete) / 선점 만료(seat_expire) 결과를
+ * (좌석 인덱스, 새 상태, 버전) 으로 받아 상영관별로 delta-window-ms 동안 모은 뒤
+ * SEAT_DELTA 1건으로 /topic/seats/{movieId}/{theaterId} 에 보낸다.
+ *
+ * - 같은 좌석이 윈도우 안에서 여러 번 바뀌면 마지막 상태만 보낸다
+ * - 병합된 모든 버전을 versions 로 함께 보내 클라이언트가 누락을 판별한다
+ *   (누락 시 GET /api/theaters/{movieId}/{theaterId}/seats 스냅샷으로 재동기화)
+ * - 병합은 Pod 단위다. 다른 Pod의 변경은 별도 SEAT_DELTA로 도착한다
+ */
+@Component
+public class SeatDeltaPublisher {
+
+    private static final Logger logger = LoggerFactory.getLogger(SeatDeltaPublisher.class);
+
+    public static final int FREE = 0;
+    public static final int HELD = 1;
+    public static final int BOOKED = 2;
+
+    private final WebSocketBroadcastService broadcastService;
+    private final TaskScheduler taskScheduler;
+
+    // movieId/theaterId -> 아직 발행되지 않은 변경
+    private final Map<String, PendingDelta> pending = new ConcurrentHashMap<>();
+
+    @Value("${seats.delta-window-ms:100}")
+    private long windowMs;
+
+    public SeatDeltaPublisher(WebSocketBroadcastService broadcastService,
+                              @Qualifier("taskScheduler") TaskScheduler taskScheduler) {
+        this.broadcastService = broadcastService;
+        this.taskScheduler = taskScheduler;
+    }
+
+    /**
+     * 스크립트 1회의 결과(같은 버전의 좌석들)를 기록한다.
+     */
+    public void publish(String movieId, String theaterId, List<Integer> indexes, int state, long version) {
+        if (indexes.isEmpty() || version <= 0) {
+            return;
+        }
+        if (windowMs <= 0) {
+            PendingDelta delta = new PendingDelta(movieId, theaterId);
+            delta.add(indexes, state, version);
+            send(delta);
+            return;
+        }
+
+        String key = movieId + "/" + theaterId;
+        pending.compute(key, (k, delta) -> {
+            if (delta == null) {
+                delta = new PendingDelta(movieId, theaterId);
+                taskScheduler.schedule(() -> flush(k), Instant.now().plusMillis(windowMs));
+            }
+            delta.add(indexes, state, version);
+            return delta;
+        });
+    }
+
+    private void flush(String key) {
+        PendingDelta delta = pending.remove(key);
+        if (delta != null) {
+            send(delta);
+        }
+    }
+
+    private void send(PendingDelta delta) {
+        try {
+            List<int[]> changes = new ArrayList<>(delta.changes.size());
+            delta.changes.forEach((index, state) -> changes.add(new int[]{index, state}));
+            broadcastService.broadcastSeatDelta(delta.movieId, delta.theaterId,
+                    changes, new ArrayList<>(delta.versions));
+        } catch (Exception e) {
+            // 델타 유실은 클라이언트의 버전 누락 판별 -> 스냅샷 재동기화로 복구된다
+            logger.warn("SEAT_DELTA 발행 실패 - movieId: {}, theaterId: {}", delta.movieId, delta.theaterId, e);
+        }
+    }
+
+    private static final class PendingDelta {
+        private final String movieId;
+        private final String theaterId;
+        private final Map<Integer, Integer> changes = new LinkedHashMap<>();
+        private final TreeSet<Long> versions = new TreeSet<>();
+
+        private PendingDelta(String movieId, String theaterId) {
+            this.movieId = movieId;
+            this.theaterId = theaterId;
+        }
+
+        private void add(List<Integer> indexes, int state, long version) {
+            for (Integer index : indexes) {
+                changes.remove(index);
+                changes.put(index, state);
+            }
+            versions.add(version);
+        }
+    }
+}
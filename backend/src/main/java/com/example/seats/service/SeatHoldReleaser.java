@@ -0,0 +1,84 @@
+package com.example.seats.service;
+
+import com.example.admission.service.QueueMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+
+/**
+ * SeatHoldReleaser - 세션 전환과 함께 좌석 선점 해제
+ *
+ * 퇴장 / 세션 만료 시 사용자가 잡고 있던 좌석은 예전에는 선점 TTL(5분)이 끝날 때까지
+ * 묶여 있었다. 이 컴포넌트는 session_release.lua로 세션 제거와 선점 해제를 한 번에 처리하고
+ * (소유자 인덱스 seats:{movieId}:holder:{requestId}), 해제된 좌석을 SEAT_DELTA(FREE)로 알린다.
+ *
+ * - AdmissionService.leave 가 세션 제거를 이 경로로 위임
+ * - 세션 만료는 expireSessions (session_expire.lua, 한 번에 최대 N개)
+ * - 예매 완료 / 직접 해제 / 선점 만료는 각 스크립트 결과를 publish()로 넘긴다
+ * - 회수 좌석-시간은 모든 해제, 낭비 좌석-시간은 세션 만료만 기록 (QueueMetrics, cgv_seat_hold_*_seconds_total{reason})
+ */
+@Component
+public class SeatHoldReleaser {
+
+    private static final Logger logger = LoggerFactory.getLogger(SeatHoldReleaser.class);
+
+    private final SeatInventory seatInventory;
+    private final SeatDeltaPublisher seatDeltaPublisher;
+    private final QueueMetrics queueMetrics;
+
+    public SeatHoldReleaser(SeatInventory seatInventory,
+                            SeatDeltaPublisher seatDeltaPublisher,
+                            QueueMetrics queueMetrics) {
+        this.seatInventory = seatInventory;
+        this.seatDeltaPublisher = seatDeltaPublisher;
+        this.queueMetrics = queueMetrics;
+    }
+
+    /**
+     * 세션을 끝내고 선점을 해제한다.
+     *
+     * @param removeWaiting true면 대기열에서도 제거 (퇴장)
+     * @param reason        메트릭 태그 (leave / timeout)
+     * @return 활성 세션에서 제거된 수
+     */
+    public long releaseSessions(String movieId, String activeKey, String waitingKey,
+                                Collection<String> requestIds, boolean removeWaiting, String reason) {
+        SeatInventory.ReleaseSummary summary = seatInventory.releaseSessions(movieId, activeKey, waitingKey,
+                requestIds, removeWaiting);
+        publish(movieId, summary, reason);
+        return summary.removedActive();
+    }
+
+    /**
+     * 타임아웃된 활성 세션을 최대 limit개 만료시키고 선점을 해제한다 (reason = timeout).
+     */
+    public SeatInventory.SessionExpiry expireSessions(String movieId, String activeKey, long timeoutMs, int limit) {
+        SeatInventory.SessionExpiry expiry = seatInventory.expireSessions(movieId, activeKey, timeoutMs, limit);
+        if (!expiry.expired().isEmpty()) {
+            publish(movieId, expiry.summary(), "timeout");
+            queueMetrics.recordSeatHoldExpiry(movieId, "timeout", expiry.summary().wastedMs());
+        }
+        return expiry;
+    }
+
+    /**
+     * 해제 결과를 좌석 델타와 메트릭으로 내보낸다. 실패해도 재고는 이미 해제되어 있으므로 로그만 남긴다.
+     */
+    public void publish(String movieId, SeatInventory.ReleaseSummary summary, String reason) {
+        try {
+            for (SeatInventory.TheaterRelease theater : summary.theaters()) {
+                seatDeltaPublisher.publish(movieId, theater.theaterId(), theater.released(),
+                        SeatDeltaPublisher.FREE, theater.version());
+            }
+            queueMetrics.recordSeatHoldRelease(movieId, reason, summary.reclaimedMs());
+            if (!summary.theaters().isEmpty()) {
+                logger.info("[{}] 좌석 선점 {}석 해제 ({}) - 회수 {}초",
+                        movieId, summary.releasedSeats(), reason, summary.reclaimedMs() / 1000);
+            }
+        } catch (Exception e) {
+            logger.warn("[{}] 좌석 해제 알림 실패 ({}): {}", movieId, reason, e.getMessage());
+        }
+    }
+}
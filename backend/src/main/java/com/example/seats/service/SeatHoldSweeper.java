@@ -0,0 +1,81 @@
+package com.example.seats.service;
+
+import com.example.admission.service.LoadBalancingOptimizer;
+import com.example.admission.service.QueueMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Set;
+
+/**
+ * SeatHoldSweeper - 만료된 좌석 선점 해제
+ *
+ * seats:hold_theaters 에 등록된 상영관마다 seat_expire.lua를 실행해
+ * 만료 선점의 held 비트를 내리고, 해제된 좌석을 SEAT_DELTA(FREE)로 알린다.
+ *
+ * - 영화 단위로 LoadBalancingOptimizer가 담당 Pod를 정한다 (중복 해제/중복 델타 없음)
+ * - 한 번에 상영관당 최대 sweep-batch 좌석, 남은 선점이 없으면 레지스트리에서 제거
+ * - 만료까지 간 선점은 전부 낭비 시간으로 기록 (cgv_seat_hold_wasted_seconds_total{reason=expired})
+ */
+@Component
+public class SeatHoldSweeper {
+
+    private static final Logger logger = LoggerFactory.getLogger(SeatHoldSweeper.class);
+
+    private final SeatInventory seatInventory;
+    private final SeatDeltaPublisher seatDeltaPublisher;
+    private final LoadBalancingOptimizer loadBalancer;
+    private final QueueMetrics queueMetrics;
+
+    @Value("${seats.hold-sweep-batch:500}")
+    private int sweepBatch;
+
+    public SeatHoldSweeper(SeatInventory seatInventory,
+                           SeatDeltaPublisher seatDeltaPublisher,
+                           LoadBalancingOptimizer loadBalancer,
+                           QueueMetrics queueMetrics) {
+        this.seatInventory = seatInventory;
+        this.seatDeltaPublisher = seatDeltaPublisher;
+        this.loadBalancer = loadBalancer;
+        this.queueMetrics = queueMetrics;
+    }
+
+    @Scheduled(fixedDelayString = "${seats.hold-sweep-interval-ms:1000}")
+    public void sweepExpiredHolds() {
+        try {
+            Set<String> theaters = seatInventory.getHoldTheaters();
+            for (String member : theaters) {
+                int slash = member.lastIndexOf('/');
+                if (slash <= 0) {
+                    continue;
+                }
+                String movieId = member.substring(0, slash);
+                if (loadBalancer.shouldProcessMovie(movieId)) {
+                    sweepTheater(movieId, member.substring(slash + 1));
+                }
+            }
+        } catch (Exception e) {
+            logger.error("좌석 선점 만료 처리 중 오류 발생", e);
+        }
+    }
+
+    private void sweepTheater(String movieId, String theaterId) {
+        try {
+            SeatInventory.ExpireResult result = seatInventory.expireHolds(movieId, theaterId, sweepBatch);
+            if (!result.released().isEmpty()) {
+                logger.debug("[{}] 상영관 {} 만료 선점 {}석 해제", movieId, theaterId, result.released().size());
+                seatDeltaPublisher.publish(movieId, theaterId, result.released(),
+                        SeatDeltaPublisher.FREE, result.version());
+                queueMetrics.recordSeatHoldExpiry(movieId, "expired", result.wastedMs());
+            }
+            if (result.remainingHolds() == 0) {
+                seatInventory.unregisterHoldTheater(movieId, theaterId);
+            }
+        } catch (Exception e) {
+            logger.error("[{}] 상영관 {} 선점 만료 처리 오류", movieId, theaterId, e);
+        }
+    }
+}
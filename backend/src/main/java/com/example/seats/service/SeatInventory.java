@@ -0,0 +1,591 @@
+package com.example.seats.service;
+
+import com.example.redis.LuaScriptRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * SeatInventory - 상영관별 비트맵 좌석 재고
+ *
+ * 기존 구조 (좌석 1개 = 키 1개):
+ * - seat:{movieId}:{theaterId}:{seatId}   (String SET NX EX, 선점 좌석마다 키 생성)
+ * - booked:{movieId}:{theaterId}          (Set of seatId 문자열)
+ * 영화당 6,000석이면 선점 키만 수천 개, 좌석 맵 전체를 한 번에 읽을 방법이 없었다.
+ *
+ * 현재 구조 (상영관당 키 5개, 좌석 번호 = SeatLayout 인덱스 = 비트 위치):
+ * - seats:{movieId}:{theaterId}:held     (String bitmap - 선점 좌석)
+ * - seats:{movieId}:{theaterId}:booked   (String bitmap - 예매 완료 좌석)
+ * - seats:{movieId}:{theaterId}:holds    (Sorted Set - 인덱스 -> 선점 만료 epoch ms)
+ * - seats:{movieId}:{theaterId}:owners   (Hash - 인덱스 -> requestId)
+ * - seats:{movieId}:{theaterId}:version  (String counter - 좌석 맵이 바뀔 때마다 INCR)
+ *
+ * 선점 / 자동 배정 / 예매 / 좌석 맵 조회는 각각 Lua 1회
+ * (seat_hold / seat_allocate / booking_complete / seat_map, Hash Tag로 같은 슬롯).
+ * 만료된 선점은 SeatHoldSweeper가 seat_expire.lua로 해제한다. 해제 전이라도 seat_hold는
+ * 만료된 선점을 빈 좌석으로 취급한다.
+ * version은 변경 1건(스크립트 1회)마다 1 증가하며, SeatMapCache 조건 조회와
+ * SEAT_DELTA 순서/누락 판별에 쓴다.
+ *
+ * 선점 소유자 인덱스 (영화당 requestId별, 상영관을 가로지름):
+ * - seats:{movieId}:holder:{requestId}  (Set - "theaterId|index", TTL = 선점 TTL + 60초)
+ * 퇴장 / 세션 만료 / 예매 완료 시 session_release.lua / booking_complete.lua가 이 인덱스로
+ * 해당 사용자의 선점을 세션 전환과 같은 스크립트 안에서 모두 해제한다.
+ * owners 해시가 여전히 그 requestId를 가리키는 좌석만 해제한다 (만료 후 다른 사용자가 잡은 좌석 보호).
+ *
+ * 선점이 남아 있는 상영관은 seats:hold_theaters (전역 Set, "movieId/theaterId") 에 등록된다.
+ * 선점이 성공할 때마다 SADD 하고(멱등), 제거는 SREM 후 holds를 다시 확인해
+ * 그 사이 잡힌 선점이 있으면 되돌린다 (등록이 빠진 상영관의 선점이 영영 해제되지 않는 경쟁 방지).
+ *
+ * 비트 순서는 Redis SETBIT 기준 (바이트 0의 최상위 비트 = 인덱스 0).
+ */
+@Component
+public class SeatInventory {
+
+    private static final Logger logger = LoggerFactory.getLogger(SeatInventory.class);
+    private static final String HOLD_THEATERS = "seats:hold_theaters";
+
+    /** 좌석 선점 TTL (5분, 연장 시 연장 시점부터 다시 5분) */
+    public static final long HOLD_TTL_MS = 300_000;
+
+    private final RedisTemplate<String, String> redisTemplate;
+    private final LuaScriptRegistry scriptRegistry;
+
+    public SeatInventory(RedisTemplate<String, String> redisTemplate,
+                         LuaScriptRegistry scriptRegistry) {
+        this.redisTemplate = redisTemplate;
+        this.scriptRegistry = scriptRegistry;
+    }
+
+    public String heldKey(String movieId, String theaterId) {
+        return prefix(movieId, theaterId) + "held";
+    }
+
+    public String bookedKey(String movieId, String theaterId) {
+        return prefix(movieId, theaterId) + "booked";
+    }
+
+    public String holdsKey(String movieId, String theaterId) {
+        return prefix(movieId, theaterId) + "holds";
+    }
+
+    public String ownersKey(String movieId, String theaterId) {
+        return prefix(movieId, theaterId) + "owners";
+    }
+
+    public String versionKey(String movieId, String theaterId) {
+        return prefix(movieId, theaterId) + "version";
+    }
+
+    public String holderKey(String movieId, String requestId) {
+        return seatKeyPrefix(movieId) + "holder:" + requestId;
+    }
+
+    /**
+     * 영화 단위 좌석 키 접두사. 여러 상영관을 건드리는 스크립트가 키를 직접 조립할 때 쓴다
+     * ({movieId} Hash Tag가 접두사에 있으므로 같은 슬롯).
+     */
+    public String seatKeyPrefix(String movieId) {
+        return "seats:{" + movieId + "}:";
+    }
+
+    /**
+     * 상영관 키 5개 (held, booked, holds, owners, version)
+     */
+    public List<String> keys(String movieId, String theaterId) {
+        return List.of(
+                heldKey(movieId, theaterId),
+                bookedKey(movieId, theaterId),
+                holdsKey(movieId, theaterId),
+                ownersKey(movieId, theaterId),
+                versionKey(movieId, theaterId));
+    }
+
+    /**
+     * 좌석 선점 (all-or-nothing). 같은 requestId가 이미 선점한 좌석은 만료 시각만 연장된다.
+     *
+     * @param maxSeats 요청자가 영화 전체에서 동시에 선점할 수 있는 좌석 수 (기존 선점 포함)
+     */
+    public HoldResult hold(String movieId, String theaterId, List<Integer> indexes,
+                           String requestId, long ttlMs, int maxSeats) {
+        String[] args = new String[5 + indexes.size()];
+        args[0] = requestId;
+        args[1] = String.valueOf(System.currentTimeMillis());
+        args[2] = String.valueOf(ttlMs);
+        args[3] = theaterId;
+        args[4] = String.valueOf(maxSeats);
+        for (int i = 0; i < indexes.size(); i++) {
+            args[5 + i] = String.valueOf(indexes.get(i));
+        }
+
+        List<Object> result = scriptRegistry.executeForList("seat_hold",
+                holdKeys(movieId, theaterId, requestId), args);
+        if (result == null || result.isEmpty()) {
+            throw new IllegalStateException("seat_hold.lua 실행 결과 없음");
+        }
+        long status = Long.parseLong(result.get(0).toString());
+        if (status == 1) {
+            registerHoldTheater(movieId, theaterId);
+            return new HoldResult(Long.parseLong(result.get(1).toString()), List.of(), false);
+        }
+        if (status == -1) {
+            return new HoldResult(0L, List.of(), true);
+        }
+        List<Integer> conflicts = new ArrayList<>(result.size() - 1);
+        for (int i = 1; i < result.size(); i++) {
+            conflicts.add(Integer.parseInt(result.get(i).toString()));
+        }
+        return new HoldResult(0L, conflicts, false);
+    }
+
+    /**
+     * 연속 좌석 count개를 서버에서 찾아 선점한다 (seat_allocate.lua, 탐색 + 선점 원자적).
+     *
+     * @param preferredRow 탐색 시작 행 (구역 중심)
+     * @param maxSeats     요청자가 영화 전체에서 동시에 선점할 수 있는 좌석 수 (기존 선점 포함)
+     * @return 선점 결과, 빈 블록이 없거나 좌석 수 한도를 넘으면 seats가 빈 Allocation
+     */
+    public Allocation allocate(String movieId, String theaterId, int count, int preferredRow,
+                               SeatLayout layout, String requestId, long ttlMs, int maxSeats) {
+        String[] args = new String[8 + layout.getRows()];
+        args[0] = requestId;
+        args[1] = String.valueOf(System.currentTimeMillis());
+        args[2] = String.valueOf(ttlMs);
+        args[3] = String.valueOf(count);
+        args[4] = String.valueOf(layout.getSeatsPerRow());
+        args[5] = String.valueOf(preferredRow);
+        args[6] = theaterId;
+        args[7] = String.valueOf(maxSeats);
+        for (int row = 0; row < layout.getRows(); row++) {
+            args[8 + row] = String.valueOf(layout.rowWidth(row));
+        }
+
+        List<Object> result = scriptRegistry.executeForList("seat_allocate",
+                holdKeys(movieId, theaterId, requestId), args);
+        if (result == null || result.isEmpty()) {
+            throw new IllegalStateException("seat_allocate.lua 실행 결과 없음");
+        }
+        long status = Long.parseLong(result.get(0).toString());
+        if (status != 1) {
+            return new Allocation(0L, List.of(), status == -1);
+        }
+        registerHoldTheater(movieId, theaterId);
+        List<Integer> seats = new ArrayList<>(result.size() - 2);
+        for (int i = 2; i < result.size(); i++) {
+            seats.add(Integer.parseInt(result.get(i).toString()));
+        }
+        return new Allocation(Long.parseLong(result.get(1).toString()), seats, false);
+    }
+
+    /**
+     * 요청자가 고른 좌석의 선점을 푼다 (자기 선점만, 나머지는 무시).
+     */
+    public ReleaseSummary release(String movieId, String theaterId, List<Integer> indexes, String requestId) {
+        String[] args = new String[4 + indexes.size()];
+        args[0] = requestId;
+        args[1] = String.valueOf(System.currentTimeMillis());
+        args[2] = String.valueOf(HOLD_TTL_MS);
+        args[3] = theaterId;
+        for (int i = 0; i < indexes.size(); i++) {
+            args[4 + i] = String.valueOf(indexes.get(i));
+        }
+
+        List<Object> result = scriptRegistry.executeForList("seat_release",
+                List.of(heldKey(movieId, theaterId),
+                        holdsKey(movieId, theaterId),
+                        ownersKey(movieId, theaterId),
+                        versionKey(movieId, theaterId),
+                        holderKey(movieId, requestId)),
+                args);
+        if (result == null || result.size() < 3) {
+            throw new IllegalStateException("seat_release.lua 실행 결과 없음");
+        }
+        long version = Long.parseLong(result.get(0).toString());
+        List<TheaterRelease> theaters = List.of();
+        if (version > 0) {
+            theaters = List.of(new TheaterRelease(theaterId, version, toIndexes(result, 3)));
+        }
+        return new ReleaseSummary(0L,
+                Long.parseLong(result.get(1).toString()),
+                Long.parseLong(result.get(2).toString()),
+                theaters);
+    }
+
+    /**
+     * 세션을 끝내고 (active ZREM, 필요 시 waiting ZREM) 그 사용자들이 잡고 있던 선점을
+     * 같은 스크립트에서 모두 해제한다 (session_release.lua).
+     *
+     * @param activeKey     sessions:{movieId}:active
+     * @param waitingKey    sessions:{movieId}:waiting
+     * @param removeWaiting true면 대기열에서도 제거 (퇴장)
+     */
+    public ReleaseSummary releaseSessions(String movieId, String activeKey, String waitingKey,
+                                          Collection<String> requestIds, boolean removeWaiting) {
+        String[] args = new String[4 + requestIds.size()];
+        args[0] = String.valueOf(System.currentTimeMillis());
+        args[1] = String.valueOf(HOLD_TTL_MS);
+        args[2] = seatKeyPrefix(movieId);
+        args[3] = removeWaiting ? "1" : "0";
+        int i = 4;
+        for (String requestId : requestIds) {
+            args[i++] = requestId;
+        }
+
+        List<Object> result = scriptRegistry.executeForList("session_release",
+                List.of(activeKey, waitingKey), args);
+        if (result == null || result.size() < 3) {
+            throw new IllegalStateException("session_release.lua 실행 결과 없음");
+        }
+        return new ReleaseSummary(
+                Long.parseLong(result.get(0).toString()),
+                Long.parseLong(result.get(1).toString()),
+                Long.parseLong(result.get(2).toString()),
+                theaterReleases(result, 3));
+    }
+
+    /**
+     * 타임아웃된 활성 세션을 최대 limit개 꺼내고 그 사용자들의 선점을 같은 스크립트에서 해제한다
+     * (session_expire.lua, 기준 시각은 Redis TIME).
+     *
+     * @param activeKey sessions:{movieId}:active
+     * @param timeoutMs 세션 타임아웃 (ms)
+     * @param limit     한 번에 만료시킬 최대 세션 수
+     */
+    public SessionExpiry expireSessions(String movieId, String activeKey, long timeoutMs, int limit) {
+        List<Object> result = scriptRegistry.executeForList("session_expire",
+                List.of(activeKey),
+                String.valueOf(timeoutMs),
+                String.valueOf(limit),
+                String.valueOf(HOLD_TTL_MS),
+                seatKeyPrefix(movieId));
+        if (result == null || result.size() < 4) {
+            throw new IllegalStateException("session_expire.lua 실행 결과 없음");
+        }
+        List<String> expired = new ArrayList<>();
+        if (result.get(3) instanceof List<?> members) {
+            for (Object member : members) {
+                expired.add(member.toString());
+            }
+        }
+        ReleaseSummary summary = new ReleaseSummary(
+                expired.size(),
+                Long.parseLong(result.get(1).toString()),
+                Long.parseLong(result.get(2).toString()),
+                theaterReleases(result, 4));
+        return new SessionExpiry(expired, Long.parseLong(result.get(0).toString()) == 1L, summary);
+    }
+
+    /**
+     * 결제 중인 사용자의 모든 선점 만료를 지금부터 HOLD_TTL_MS 뒤로 미룬다.
+     * 활성 세션에 없는 requestId는 연장하지 않는다.
+     *
+     * @return 연장 결과, 활성 세션이 아니면 seats = 0
+     */
+    public ExtendResult extend(String movieId, String activeKey, String requestId) {
+        List<Object> result = scriptRegistry.executeForList("seat_extend",
+                List.of(holderKey(movieId, requestId), activeKey),
+                requestId,
+                String.valueOf(System.currentTimeMillis()),
+                String.valueOf(HOLD_TTL_MS),
+                seatKeyPrefix(movieId));
+        if (result == null || result.size() < 2) {
+            throw new IllegalStateException("seat_extend.lua 실행 결과 없음");
+        }
+        return new ExtendResult(
+                Integer.parseInt(result.get(0).toString()),
+                Long.parseLong(result.get(1).toString()));
+    }
+
+    /**
+     * 만료된 선점을 해제한다 (SeatHoldSweeper 전용).
+     *
+     * @param limit 한 번에 해제할 최대 좌석 수
+     */
+    public ExpireResult expireHolds(String movieId, String theaterId, int limit) {
+        List<Object> result = scriptRegistry.executeForList("seat_expire",
+                List.of(heldKey(movieId, theaterId),
+                        holdsKey(movieId, theaterId),
+                        ownersKey(movieId, theaterId),
+                        versionKey(movieId, theaterId)),
+                String.valueOf(System.currentTimeMillis()),
+                String.valueOf(limit),
+                seatKeyPrefix(movieId) + "holder:",
+                theaterId,
+                String.valueOf(HOLD_TTL_MS));
+        if (result == null || result.size() < 3) {
+            throw new IllegalStateException("seat_expire.lua 실행 결과 없음");
+        }
+        return new ExpireResult(
+                Long.parseLong(result.get(0).toString()),
+                Long.parseLong(result.get(1).toString()),
+                Long.parseLong(result.get(2).toString()),
+                toIndexes(result, 3));
+    }
+
+    /**
+     * session_release / booking_complete 결과 뒤쪽의 {theaterId, version, index...} 목록을 읽는다.
+     */
+    public static List<TheaterRelease> theaterReleases(List<Object> result, int from) {
+        List<TheaterRelease> theaters = new ArrayList<>();
+        for (int i = from; i < result.size(); i++) {
+            if (result.get(i) instanceof List<?> entry && entry.size() >= 2) {
+                List<Integer> indexes = new ArrayList<>(entry.size() - 2);
+                for (int j = 2; j < entry.size(); j++) {
+                    indexes.add(Integer.parseInt(entry.get(j).toString()));
+                }
+                theaters.add(new TheaterRelease(entry.get(0).toString(),
+                        Long.parseLong(entry.get(1).toString()), indexes));
+            }
+        }
+        return theaters;
+    }
+
+    /**
+     * 선점이 남아 있을 수 있는 상영관 목록 ("movieId/theaterId").
+     */
+    public Set<String> getHoldTheaters() {
+        Set<String> members = redisTemplate.opsForSet().members(HOLD_THEATERS);
+        return members != null ? members : Set.of();
+    }
+
+    /**
+     * 선점이 모두 사라진 상영관을 레지스트리에서 뺀다.
+     * seat_expire가 ZCARD 0을 본 뒤 SREM 전에 다른 Pod가 선점했을 수 있으므로,
+     * SREM 후 holds를 다시 세어 남아 있으면 되돌린다. 그보다 늦은 선점은
+     * 선점 직후의 SADD가 SREM 뒤에 실행되므로 등록이 남는다.
+     */
+    public void unregisterHoldTheater(String movieId, String theaterId) {
+        String member = movieId + "/" + theaterId;
+        redisTemplate.opsForSet().remove(HOLD_THEATERS, member);
+        Long remaining = redisTemplate.opsForZSet().zCard(holdsKey(movieId, theaterId));
+        if (remaining != null && remaining > 0) {
+            redisTemplate.opsForSet().add(HOLD_THEATERS, member);
+        }
+    }
+
+    private void registerHoldTheater(String movieId, String theaterId) {
+        String member = movieId + "/" + theaterId;
+        try {
+            redisTemplate.opsForSet().add(HOLD_THEATERS, member);
+        } catch (Exception e) {
+            logger.warn("선점 상영관 등록 실패 - {}: {}", member, e.getMessage());
+        }
+    }
+
+    /**
+     * 상영관 좌석 맵 전체를 한 번에 읽는다 (Redis 왕복 1회).
+     *
+     * @param knownVersion 호출자가 가진 버전 (-1 이면 항상 비트맵을 받는다)
+     * @return 좌석 맵, 버전이 knownVersion 그대로면 null (비트맵 전송 생략)
+     */
+    public SeatMap read(String movieId, String theaterId, long knownVersion) {
+        List<Object> result = scriptRegistry.executeForRawList("seat_map",
+                List.of(heldKey(movieId, theaterId), bookedKey(movieId, theaterId), versionKey(movieId, theaterId)),
+                String.valueOf(knownVersion));
+        if (result == null || result.isEmpty()) {
+            throw new IllegalStateException("seat_map.lua 실행 결과 없음");
+        }
+        if (result.size() < 3) {
+            return null;
+        }
+        return new SeatMap(((Number) result.get(0)).longValue(), toBytes(result.get(1)), toBytes(result.get(2)));
+    }
+
+    /**
+     * 예매 완료 좌석 수 (BITCOUNT)
+     */
+    public long bookedCount(String movieId, String theaterId) {
+        byte[] key = bookedKey(movieId, theaterId).getBytes(StandardCharsets.UTF_8);
+        Long count = redisTemplate.execute((RedisCallback<Long>) connection ->
+                connection.stringCommands().bitCount(key));
+        return count != null ? count : 0L;
+    }
+
+    /**
+     * 여러 상영관의 예매 완료 좌석 수 (BITCOUNT 파이프라인, 왕복 1회). 결과는 theaterIds 순서.
+     */
+    public List<Long> bookedCounts(String movieId, List<String> theaterIds) {
+        List<Object> counts = redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            for (String theaterId : theaterIds) {
+                connection.stringCommands().bitCount(
+                        bookedKey(movieId, theaterId).getBytes(StandardCharsets.UTF_8));
+            }
+            return null;
+        });
+        List<Long> result = new ArrayList<>(counts.size());
+        for (Object count : counts) {
+            result.add(count instanceof Number number ? number.longValue() : 0L);
+        }
+        return result;
+    }
+
+    /**
+     * 비트맵 구조와 기존 좌석별 키 구조의 Redis 키 수 / 메모리(MEMORY USAGE) 비교 (관리용).
+     * 기존 키는 SCAN으로 세므로 운영 중 호출은 관리 API에서만 한다.
+     */
+    public Map<String, Object> measureFootprint(String movieId, List<String> theaterIds) {
+        Map<String, Object> footprint = new LinkedHashMap<>();
+        redisTemplate.execute((RedisCallback<Void>) connection -> {
+            long bitmapKeys = 0;
+            long bitmapBytes = 0;
+            for (String theaterId : theaterIds) {
+                for (String key : keys(movieId, theaterId)) {
+                    Long usage = memoryUsage(connection, key);
+                    if (usage != null) {
+                        bitmapKeys++;
+                        bitmapBytes += usage;
+                    }
+                }
+            }
+
+            long legacyKeys = 0;
+            long legacyBytes = 0;
+            for (String pattern : List.of("seat:{" + movieId + "}:*", "booked:{" + movieId + "}:*")) {
+                ScanOptions options = ScanOptions.scanOptions().match(pattern).count(1000).build();
+                try (Cursor<byte[]> cursor = connection.keyCommands().scan(options)) {
+                    while (cursor.hasNext()) {
+                        Long usage = memoryUsage(connection, new String(cursor.next(), StandardCharsets.UTF_8));
+                        legacyKeys++;
+                        legacyBytes += usage != null ? usage : 0;
+                    }
+                }
+            }
+
+            footprint.put("movieId", movieId);
+            footprint.put("theaters", theaterIds.size());
+            footprint.put("bitmapKeys", bitmapKeys);
+            footprint.put("bitmapBytes", bitmapBytes);
+            footprint.put("legacyKeys", legacyKeys);
+            footprint.put("legacyBytes", legacyBytes);
+            return null;
+        });
+        logger.info("좌석 재고 메모리 측정 - {}", footprint);
+        return footprint;
+    }
+
+    private Long memoryUsage(RedisConnection connection, String key) {
+        Object usage = connection.execute("MEMORY",
+                "USAGE".getBytes(StandardCharsets.UTF_8), key.getBytes(StandardCharsets.UTF_8));
+        return usage instanceof Long l ? l : null;
+    }
+
+    private String prefix(String movieId, String theaterId) {
+        return seatKeyPrefix(movieId) + theaterId + ":";
+    }
+
+    // seat_hold / seat_allocate KEYS: 상영관 키 5개 + 소유자 인덱스
+    private List<String> holdKeys(String movieId, String theaterId, String requestId) {
+        List<String> keys = new ArrayList<>(keys(movieId, theaterId));
+        keys.add(holderKey(movieId, requestId));
+        return keys;
+    }
+
+    private static List<Integer> toIndexes(List<Object> result, int from) {
+        List<Integer> indexes = new ArrayList<>(Math.max(0, result.size() - from));
+        for (int i = from; i < result.size(); i++) {
+            indexes.add(Integer.parseInt(result.get(i).toString()));
+        }
+        return indexes;
+    }
+
+    private static byte[] toBytes(Object raw) {
+        return raw instanceof byte[] bytes ? bytes : raw.toString().getBytes(StandardCharsets.ISO_8859_1);
+    }
+
+    /**
+     * @param version   선점 후 좌석 맵 버전 (충돌 시 0)
+     * @param conflicts 충돌 좌석 인덱스 (비어 있으면 전체 선점 성공)
+     * @param limitExceeded 요청자 좌석 수 한도 초과로 아무것도 선점하지 않음
+     */
+    public record HoldResult(long version, List<Integer> conflicts, boolean limitExceeded) {
+
+        public boolean isHeld() {
+            return !limitExceeded && conflicts.isEmpty();
+        }
+    }
+
+    /**
+     * @param version 선점 후 좌석 맵 버전 (배정 실패 시 0)
+     * @param seats   선점한 좌석 인덱스 (오름차순 연속, 비어 있으면 빈 블록 없음 또는 한도 초과)
+     * @param limitExceeded 요청자 좌석 수 한도 초과로 탐색하지 않음
+     */
+    public record Allocation(long version, List<Integer> seats, boolean limitExceeded) {
+    }
+
+    /**
+     * @param remainingHolds 해제 후 남은 선점 좌석 수
+     * @param version        해제 후 좌석 맵 버전 (해제한 좌석이 없으면 0)
+     * @param wastedMs       해제한 선점이 좌석을 묶어 둔 시간 합계 (좌석-ms, 예매로 이어지지 않음)
+     * @param released       해제한 좌석 인덱스
+     */
+    public record ExpireResult(long remainingHolds, long version, long wastedMs, List<Integer> released) {
+    }
+
+    /**
+     * @param removedActive 활성 세션에서 제거된 수 (seat_release는 항상 0)
+     * @param reclaimedMs   만료 전에 재고로 돌려준 남은 선점 시간 합계 (좌석-ms)
+     * @param wastedMs      해제한 선점이 이미 좌석을 묶어 둔 시간 합계 (좌석-ms, 마지막 선점/연장 기준, 세션 만료일 때만 낭비로 기록)
+     * @param theaters      상영관별 해제 좌석
+     */
+    public record ReleaseSummary(long removedActive, long reclaimedMs, long wastedMs,
+                                 List<TheaterRelease> theaters) {
+
+        public int releasedSeats() {
+            return theaters.stream().mapToInt(theater -> theater.released().size()).sum();
+        }
+    }
+
+    /**
+     * @param version  해제 후 좌석 맵 버전
+     * @param released 해제한 좌석 인덱스
+     */
+    public record TheaterRelease(String theaterId, long version, List<Integer> released) {
+    }
+
+    /**
+     * @param expired 이번 호출에서 만료된 requestId
+     * @param more    호출 후에도 만료 세션이 남아 있음 (이어서 처리)
+     * @param summary 선점 해제 결과
+     */
+    public record SessionExpiry(List<String> expired, boolean more, ReleaseSummary summary) {
+    }
+
+    /**
+     * @param seats     연장한 좌석 수 (0이면 활성 세션이 아니거나 선점 없음)
+     * @param expiresAt 새 만료 시각 (epoch ms)
+     */
+    public record ExtendResult(int seats, long expiresAt) {
+    }
+
+    /**
+     * 상영관 좌석 상태. held/booked는 Redis 비트맵 바이트 그대로 (bit = SeatLayout 인덱스).
+     */
+    public record SeatMap(long version, byte[] held, byte[] booked) {
+
+        public boolean isHeld(int index) {
+            return isSet(held, index);
+        }
+
+        public boolean isBooked(int index) {
+            return isSet(booked, index);
+        }
+
+        private static boolean isSet(byte[] bitmap, int index) {
+            int offset = index >> 3;
+            return offset < bitmap.length && (bitmap[offset] & (0x80 >>> (index & 7))) != 0;
+        }
+    }
+}
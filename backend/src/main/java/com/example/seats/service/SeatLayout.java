@@ -0,0 +1,97 @@
+package com.example.seats.service;
+
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+
+/**
+ * SeatLayout - 좌석 ID <-> 비트맵 인덱스 변환
+ *
+ * 좌석 ID는 "행 문자 + 번호" (예: A1, C14). 모든 상영관이 같은 고정 폭 격자를 쓴다:
+ *   index = 행 순번(A=0) * seats-per-row + (번호 - 1)
+ *
+ * 기본값 15행 x 20석 = 300 인덱스 (상영관 300석, 비트맵 1개당 38 bytes).
+ * 행별 좌석 수가 20보다 적으면 seats.row-widths 로 지정한다 (예: 12,12,14,14,...).
+ * 남는 인덱스는 쓰지 않으며, 그 범위의 좌석 ID는 거절되고 자동 배정 대상에서도 빠진다.
+ */
+@Component
+public class SeatLayout {
+
+    @Value("${seats.rows:15}")
+    private int rows;
+
+    @Value("${seats.seats-per-row:20}")
+    private int seatsPerRow;
+
+    // 행별 좌석 수 (비어 있으면 모든 행이 seats-per-row)
+    @Value("${seats.row-widths:}")
+    private String rowWidthsSpec;
+
+    private int[] rowWidths;
+
+    @PostConstruct
+    public void init() {
+        rowWidths = new int[rows];
+        Arrays.fill(rowWidths, seatsPerRow);
+        if (rowWidthsSpec == null || rowWidthsSpec.isBlank()) {
+            return;
+        }
+        String[] widths = rowWidthsSpec.split(",");
+        if (widths.length > rows) {
+            throw new IllegalStateException("seats.row-widths 행 수가 seats.rows(" + rows + ")보다 많습니다");
+        }
+        Arrays.fill(rowWidths, 0);
+        for (int row = 0; row < widths.length; row++) {
+            int width = Integer.parseInt(widths[row].trim());
+            if (width < 0 || width > seatsPerRow) {
+                throw new IllegalStateException("seats.row-widths 값은 0~" + seatsPerRow + " 범위여야 합니다: " + width);
+            }
+            rowWidths[row] = width;
+        }
+    }
+
+    public int getRows() {
+        return rows;
+    }
+
+    public int getSeatsPerRow() {
+        return seatsPerRow;
+    }
+
+    public int rowWidth(int row) {
+        return rowWidths[row];
+    }
+
+    public int capacity() {
+        return rows * seatsPerRow;
+    }
+
+    /**
+     * @throws IllegalArgumentException 형식이 틀렸거나 격자 밖의 좌석 ID
+     */
+    public int indexOf(String seatId) {
+        if (seatId == null || seatId.length() < 2) {
+            throw new IllegalArgumentException("잘못된 좌석 ID: " + seatId);
+        }
+        int row = Character.toUpperCase(seatId.charAt(0)) - 'A';
+        int number;
+        try {
+            number = Integer.parseInt(seatId.substring(1));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("잘못된 좌석 ID: " + seatId);
+        }
+        if (row < 0 || row >= rows || number < 1 || number > rowWidths[row]) {
+            throw new IllegalArgumentException("상영관 범위 밖의 좌석 ID: " + seatId);
+        }
+        return row * seatsPerRow + (number - 1);
+    }
+
+    public String seatIdOf(int index) {
+        if (index < 0 || index >= capacity()) {
+            throw new IllegalArgumentException("상영관 범위 밖의 좌석 인덱스: " + index);
+        }
+        return String.valueOf((char) ('A' + index / seatsPerRow)) + (index % seatsPerRow + 1);
+    }
+}
@@ -0,0 +1,112 @@
+package com.example.seats.service;
+
+import com.example.admission.dto.SeatMapResponse;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Base64;
+
+/**
+ * SeatMapCache - Pod 로컬 좌석 맵 캐시
+ *
+ * 좌석 페이지 조회자 수천 명이 각자 Redis를 치지 않도록, 상영관별 좌석 맵을
+ * 인코딩된 응답(SeatMapResponse) 그대로 들고 있다가 재사용한다.
+ *
+ * - refresh-ms TTL, 상영관당 single-flight 갱신, 최대 MAX_CACHED_ENTRIES 항목 (LocalRefreshCache)
+ * - 갱신은 증분: 보유 버전을 seat_map.lua에 넘기고, 버전이 같으면 비트맵 전송 없이 정수 1개만 받는다
+ * - Redis 오류 시 마지막 좌석 맵을 그대로 반환 (한 번도 못 읽었으면 예외)
+ *
+ * 메트릭:
+ *   cgv_seat_map_refresh_total{result=unchanged|changed}
+ */
+@Component
+public class SeatMapCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(SeatMapCache.class);
+    private static final String ENCODING = "bitmap-base64";
+    private static final int MAX_CACHED_ENTRIES = 10_000;
+
+    private final SeatInventory seatInventory;
+    private final SeatLayout seatLayout;
+    private final TheaterCatalog theaterCatalog;
+    private final Counter unchangedCount;
+    private final Counter changedCount;
+
+    @Value("${seats.seat-map-refresh-ms:500}")
+    private long refreshMs;
+
+    // (movieId, theaterId) -> 인코딩된 좌석 맵
+    private LocalRefreshCache<Key, SeatMapResponse> cache;
+
+    public SeatMapCache(SeatInventory seatInventory,
+                        SeatLayout seatLayout,
+                        TheaterCatalog theaterCatalog,
+                        MeterRegistry meterRegistry) {
+        this.seatInventory = seatInventory;
+        this.seatLayout = seatLayout;
+        this.theaterCatalog = theaterCatalog;
+        this.unchangedCount = Counter.builder("cgv_seat_map_refresh_total")
+                .tag("result", "unchanged")
+                .register(meterRegistry);
+        this.changedCount = Counter.builder("cgv_seat_map_refresh_total")
+                .tag("result", "changed")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void init() {
+        cache = new LocalRefreshCache<>(MAX_CACHED_ENTRIES, refreshMs, this::load);
+    }
+
+    /**
+     * @throws IllegalArgumentException 존재하지 않는 상영관
+     */
+    public SeatMapResponse get(String movieId, String theaterId) {
+        // 임의 theaterId로 캐시 항목이 늘어나지 않도록 상영관 목록 스냅샷으로 확인
+        if (!theaterCatalog.contains(theaterId)) {
+            throw new IllegalArgumentException("존재하지 않는 상영관: " + theaterId);
+        }
+        return cache.get(new Key(movieId, theaterId));
+    }
+
+    private SeatMapResponse load(Key key, SeatMapResponse previous) {
+        long knownVersion = previous != null ? previous.version() : -1L;
+        try {
+            SeatInventory.SeatMap seatMap = seatInventory.read(key.movieId(), key.theaterId(), knownVersion);
+            if (seatMap == null) {
+                unchangedCount.increment();
+                return previous;
+            }
+            changedCount.increment();
+            return encode(key, seatMap);
+        } catch (RuntimeException e) {
+            if (previous == null) {
+                throw e;
+            }
+            logger.warn("좌석 맵 갱신 실패 - 이전 버전 사용: movieId={}, theaterId={}, version={}, error={}",
+                    key.movieId(), key.theaterId(), previous.version(), e.getMessage());
+            return previous;
+        }
+    }
+
+    private SeatMapResponse encode(Key key, SeatInventory.SeatMap seatMap) {
+        Base64.Encoder encoder = Base64.getEncoder();
+        return new SeatMapResponse(
+                key.movieId(),
+                key.theaterId(),
+                seatMap.version(),
+                seatLayout.getRows(),
+                seatLayout.getSeatsPerRow(),
+                ENCODING,
+                encoder.encodeToString(seatMap.held()),
+                encoder.encodeToString(seatMap.booked()));
+    }
+
+    private record Key(String movieId, String theaterId) {
+    }
+}
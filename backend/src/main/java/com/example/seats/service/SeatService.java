@@ -1,46 +1,52 @@
 package com.example.seats.service;
 
+import com.example.admission.dto.SeatAllocationResult;
 import com.example.admission.dto.SeatLockResult;
+import com.example.admission.dto.SeatReleaseResult;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.core.io.ClassPathResource;
-import org.springframework.data.redis.core.RedisTemplate;
-import org.springframework.data.redis.core.script.RedisScript;
 import org.springframework.stereotype.Service;
 
-import jakarta.annotation.PostConstruct;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 
 /**
  * SeatService - 원자적 멀티좌석 선점 (all-or-nothing)
  *
  * 설계:
- * - seat_lock.lua로 다수 좌석을 원자적으로 선점
- * - 좌석 하나라도 이미 선점되어 있으면 전체 실패 (conflict)
- * - Redis key: seat:{movieId}:{theaterId}:{seatId} (Hash Tag on movieId, String SET NX EX 300)
- * - TTL 300초 (5분) 이내 결제 미완료 시 자동 해제
- * - 최대 4좌석 동시 선점 허용
+ * - seat_hold.lua로 다수 좌석을 원자적으로 선점 (SeatInventory 상영관별 비트맵)
+ * - 좌석 하나라도 이미 선점/예매되어 있으면 전체 실패 (conflict)
+ * - 좌석 ID는 SeatLayout 인덱스로 변환, 격자 밖 좌석 ID는 conflict로 거절
+ * - TTL 300초 (5분) 이내 결제 미완료 시 만료 (SeatHoldSweeper가 해제)
+ * - 선점 성공 시 SEAT_DELTA(HELD) 발행 -> 좌석 페이지가 다른 사용자의 선점을 즉시 반영
+ * - 요청자당 최대 4좌석 동시 선점 (이미 잡은 좌석 포함, 상영관 무관 - seat_hold / seat_allocate가 원자 검사)
+ * - 자동 배정: seat_allocate.lua가 선호 구역(SeatZone)부터 연속 빈 좌석을 찾아 바로 선점
+ * - 선점 해제 (좌석 선택 취소) / 연장 (결제 중, 활성 세션일 때만)
  */
 @Service
 public class SeatService {
 
     private static final Logger logger = LoggerFactory.getLogger(SeatService.class);
-    private static final int SEAT_LOCK_TTL_SECONDS = 300;
-    private static final int MAX_SEATS_PER_REQUEST = 4;
-
-    private final RedisTemplate<String, String> redisTemplate;
-    private RedisScript<List> seatLockScript;
-
-    public SeatService(RedisTemplate<String, String> redisTemplate) {
-        this.redisTemplate = redisTemplate;
-    }
-
-    @PostConstruct
-    private void loadScripts() {
-        this.seatLockScript = RedisScript.of(
-                new ClassPathResource("scripts/seat_lock.lua"), List.class);
-        logger.info("seat_lock.lua 스크립트 로드 완료");
+    private static final int SEAT_LOCK_TTL_SECONDS = (int) (SeatInventory.HOLD_TTL_MS / 1000);
+    static final int MAX_SEATS_PER_REQUEST = 4;
+
+    private final SeatInventory seatInventory;
+    private final SeatLayout seatLayout;
+    private final TheaterCatalog theaterCatalog;
+    private final SeatDeltaPublisher seatDeltaPublisher;
+    private final SeatHoldReleaser seatHoldReleaser;
+
+    public SeatService(SeatInventory seatInventory,
+                       SeatLayout seatLayout,
+                       TheaterCatalog theaterCatalog,
+                       SeatDeltaPublisher seatDeltaPublisher,
+                       SeatHoldReleaser seatHoldReleaser) {
+        this.seatInventory = seatInventory;
+        this.seatLayout = seatLayout;
+        this.theaterCatalog = theaterCatalog;
+        this.seatDeltaPublisher = seatDeltaPublisher;
+        this.seatHoldReleaser = seatHoldReleaser;
     }
 
     /**
@@ -66,52 +72,45 @@ public class SeatService {
             return SeatLockResult.conflict(List.of());
         }
 
-        // Redis key 목록 생성: seat:{movieId}:{theaterId}:{seatId} (Hash Tag ensures same slot)
-        List<String> keys = new ArrayList<>(seatIds.size());
+        // 좌석 ID -> 비트맵 인덱스
+        List<Integer> indexes = new ArrayList<>(seatIds.size());
         for (String seatId : seatIds) {
-            keys.add("seat:{" + movieId + "}:" + theaterId + ":" + seatId);
+            try {
+                indexes.add(seatLayout.indexOf(seatId));
+            } catch (IllegalArgumentException e) {
+                logger.warn("좌석 선점 요청 실패 - {}: requestId={}", e.getMessage(), requestId);
+                return SeatLockResult.conflict(List.of(seatId));
+            }
         }
 
         try {
-            @SuppressWarnings("unchecked")
-            List<Object> result = redisTemplate.execute(
-                    seatLockScript,
-                    keys,
-                    requestId,
-                    String.valueOf(SEAT_LOCK_TTL_SECONDS)
-            );
-
-            if (result == null || result.isEmpty()) {
-                logger.error("seat_lock.lua 실행 결과 null - requestId={}", requestId);
+            SeatInventory.HoldResult hold = seatInventory.hold(movieId, theaterId, indexes, requestId,
+                    SEAT_LOCK_TTL_SECONDS * 1000L, MAX_SEATS_PER_REQUEST);
+
+            if (hold.limitExceeded()) {
+                logger.warn("좌석 선점 요청 실패 - 보유 좌석 포함 최대 {}석 초과: requestId={}, 요청={}석",
+                        MAX_SEATS_PER_REQUEST, requestId, seatIds.size());
                 return SeatLockResult.conflict(List.of());
             }
 
-            long status = toLong(result.get(0));
-
-            if (status == 1) {
-                // 선점 성공
+            if (hold.isHeld()) {
+                // 선점 성공 -> 좌석 페이지 구독자에게 델타 전파
+                seatDeltaPublisher.publish(movieId, theaterId, indexes, SeatDeltaPublisher.HELD, hold.version());
                 long lockedUntil = System.currentTimeMillis() + (SEAT_LOCK_TTL_SECONDS * 1000L);
                 logger.info("좌석 선점 성공 - movieId={}, theaterId={}, seats={}, requestId={}",
                         movieId, theaterId, seatIds, requestId);
                 return SeatLockResult.locked(lockedUntil);
-            } else {
-                // 충돌 - result[1..N]은 충돌된 키 목록
-                List<String> conflictKeys = new ArrayList<>();
-                for (int i = 1; i < result.size(); i++) {
-                    String fullKey = result.get(i).toString();
-                    // seat:{movieId}:{theaterId}:{seatId} 에서 seatId 추출
-                    String[] parts = fullKey.split(":");
-                    if (parts.length >= 4) {
-                        conflictKeys.add(parts[3]);
-                    } else {
-                        conflictKeys.add(fullKey);
-                    }
-                }
-                logger.info("좌석 선점 충돌 - movieId={}, theaterId={}, conflicts={}, requestId={}",
-                        movieId, theaterId, conflictKeys, requestId);
-                return SeatLockResult.conflict(conflictKeys);
             }
 
+            // 충돌 - 인덱스를 좌석 ID로 되돌린다
+            List<String> conflictSeats = new ArrayList<>(hold.conflicts().size());
+            for (int index : hold.conflicts()) {
+                conflictSeats.add(seatLayout.seatIdOf(index));
+            }
+            logger.info("좌석 선점 충돌 - movieId={}, theaterId={}, conflicts={}, requestId={}",
+                    movieId, theaterId, conflictSeats, requestId);
+            return SeatLockResult.conflict(conflictSeats);
+
         } catch (Exception e) {
             logger.error("좌석 선점 Redis 오류 - movieId={}, theaterId={}, requestId={}",
                     movieId, theaterId, requestId, e);
@@ -119,13 +118,97 @@ public class SeatService {
         }
     }
 
-    private long toLong(Object obj) {
-        if (obj instanceof Long l) {
-            return l;
+    /**
+     * 자동 배정: 선호 구역에서 가장 좋은 연속 좌석 count개를 찾아 선점한다.
+     * 클라이언트가 좌석을 골라 409를 반복하는 대신 Redis 왕복 1회로 끝난다.
+     *
+     * @param zone FRONT / MIDDLE / BACK (비어 있으면 MIDDLE)
+     * @return ALLOCATED (좌석 ID 목록) 또는 UNAVAILABLE (해당 크기 블록 없음)
+     * @throws IllegalArgumentException 좌석 수 범위 밖 또는 알 수 없는 구역
+     */
+    public SeatAllocationResult allocateSeats(String movieId, String theaterId, int count,
+                                              String zone, String requestId) {
+        if (count < 1 || count > MAX_SEATS_PER_REQUEST) {
+            throw new IllegalArgumentException("좌석 수는 1~" + MAX_SEATS_PER_REQUEST + "석이어야 합니다: " + count);
+        }
+        SeatZone seatZone = SeatZone.from(zone);
+
+        SeatInventory.Allocation allocation = seatInventory.allocate(movieId, theaterId, count,
+                seatZone.preferredRow(seatLayout.getRows()), seatLayout, requestId,
+                SEAT_LOCK_TTL_SECONDS * 1000L, MAX_SEATS_PER_REQUEST);
+
+        if (allocation.limitExceeded()) {
+            logger.warn("자동 배정 실패 - 보유 좌석 포함 최대 {}석 초과: movieId={}, theaterId={}, count={}, requestId={}",
+                    MAX_SEATS_PER_REQUEST, movieId, theaterId, count, requestId);
+            return SeatAllocationResult.unavailable();
         }
-        if (obj instanceof Integer i) {
-            return i.longValue();
+        if (allocation.seats().isEmpty()) {
+            logger.info("자동 배정 실패 - 연속 {}석 없음: movieId={}, theaterId={}, zone={}, requestId={}",
+                    count, movieId, theaterId, seatZone, requestId);
+            return SeatAllocationResult.unavailable();
         }
-        return Long.parseLong(obj.toString());
+
+        seatDeltaPublisher.publish(movieId, theaterId, allocation.seats(), SeatDeltaPublisher.HELD,
+                allocation.version());
+
+        List<String> seatIds = new ArrayList<>(allocation.seats().size());
+        for (int index : allocation.seats()) {
+            seatIds.add(seatLayout.seatIdOf(index));
+        }
+        long lockedUntil = System.currentTimeMillis() + (SEAT_LOCK_TTL_SECONDS * 1000L);
+        logger.info("자동 배정 성공 - movieId={}, theaterId={}, zone={}, seats={}, requestId={}",
+                movieId, theaterId, seatZone, seatIds, requestId);
+        return SeatAllocationResult.allocated(seatIds, lockedUntil);
+    }
+
+    /**
+     * 선점 해제 (좌석 선택 취소). 요청자가 선점한 좌석만 풀고 나머지는 무시한다.
+     *
+     * @return 실제로 해제한 좌석 ID 목록
+     * @throws IllegalArgumentException 격자 밖 좌석 ID
+     */
+    public SeatReleaseResult releaseSeats(String movieId, String theaterId,
+                                          List<String> seatIds, String requestId) {
+        List<Integer> indexes = new ArrayList<>(seatIds.size());
+        for (String seatId : seatIds) {
+            indexes.add(seatLayout.indexOf(seatId));
+        }
+
+        SeatInventory.ReleaseSummary summary = seatInventory.release(movieId, theaterId, indexes, requestId);
+        seatHoldReleaser.publish(movieId, summary, "release");
+
+        List<String> released = new ArrayList<>(summary.releasedSeats());
+        for (SeatInventory.TheaterRelease theater : summary.theaters()) {
+            for (int index : theater.released()) {
+                released.add(seatLayout.seatIdOf(index));
+            }
+        }
+        logger.info("좌석 선점 해제 - movieId={}, theaterId={}, seats={}, requestId={}",
+                movieId, theaterId, released, requestId);
+        return SeatReleaseResult.released(released);
+    }
+
+    /**
+     * 결제 중인 사용자의 선점을 지금부터 다시 TTL(300초)만큼 연장한다.
+     * 활성 세션이 아니면 (만료/퇴장/예매 완료) 연장하지 않는다.
+     *
+     * @return LOCKED (새 만료 시각) 또는 NOT_ACTIVE
+     */
+    public SeatLockResult extendHolds(String movieId, String requestId) {
+        SeatInventory.ExtendResult result = seatInventory.extend(movieId,
+                "sessions:{" + movieId + "}:active", requestId);
+        if (result.seats() == 0) {
+            logger.info("좌석 선점 연장 불가 - 활성 세션/선점 없음: movieId={}, requestId={}", movieId, requestId);
+            return SeatLockResult.notActive();
+        }
+        logger.debug("좌석 선점 연장 - movieId={}, {}석, requestId={}", movieId, result.seats(), requestId);
+        return SeatLockResult.locked(result.expiresAt());
+    }
+
+    /**
+     * 비트맵 재고와 기존 좌석별 키 구조의 키 수 / 메모리 비교 (관리 API용).
+     */
+    public Map<String, Object> getInventoryFootprint(String movieId) {
+        return seatInventory.measureFootprint(movieId, theaterCatalog.get().theaterIds());
     }
 }
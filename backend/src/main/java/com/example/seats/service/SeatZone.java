@@ -0,0 +1,37 @@
+package com.example.seats.service;
+
+/**
+ * 자동 배정 선호 구역. 구역 중심 행부터 가까운 행 순서로 빈 블록을 찾는다.
+ */
+public enum SeatZone {
+
+    FRONT(0.2),
+    MIDDLE(0.5),
+    BACK(0.8);
+
+    // 전체 행 중 구역 중심의 상대 위치 (0 = 맨 앞, 1 = 맨 뒤)
+    private final double position;
+
+    SeatZone(double position) {
+        this.position = position;
+    }
+
+    public int preferredRow(int rows) {
+        return (int) Math.round((rows - 1) * position);
+    }
+
+    /**
+     * @param zone 구역 이름 (대소문자 무시, 비어 있으면 MIDDLE)
+     * @throws IllegalArgumentException 알 수 없는 구역
+     */
+    public static SeatZone from(String zone) {
+        if (zone == null || zone.isBlank()) {
+            return MIDDLE;
+        }
+        try {
+            return valueOf(zone.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("알 수 없는 좌석 구역: " + zone);
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package com.example.seats.service;
+
+import com.example.seats.entity.Theater;
+import com.example.seats.repository.TheaterRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * TheaterCatalog - Pod 로컬 상영관 목록 스냅샷
+ *
+ * 상영관 목록(20개)은 거의 바뀌지 않는데 좌석 선택 페이지 조회마다 findAll()을 치고 있었다.
+ * - 첫 사용 시 1회 로드한 불변 스냅샷(Snapshot)을 volatile 참조로 공유한다 (읽기에 락 없음)
+ * - refresh-ms 마다 다시 읽어 내용이 바뀐 경우에만 스냅샷을 교체한다
+ * - DB 오류 시 이전 스냅샷을 그대로 쓴다 (한 번도 못 읽었으면 예외)
+ */
+@Component
+public class TheaterCatalog {
+
+    private static final Logger logger = LoggerFactory.getLogger(TheaterCatalog.class);
+
+    private final TheaterRepository theaterRepository;
+
+    private volatile Snapshot snapshot;
+
+    public TheaterCatalog(TheaterRepository theaterRepository) {
+        this.theaterRepository = theaterRepository;
+    }
+
+    public Snapshot get() {
+        Snapshot current = snapshot;
+        return current != null ? current : load();
+    }
+
+    public boolean contains(String theaterId) {
+        return get().byId().containsKey(theaterId);
+    }
+
+    @Scheduled(initialDelayString = "${seats.theater-catalog-refresh-ms:60000}",
+            fixedDelayString = "${seats.theater-catalog-refresh-ms:60000}")
+    public void refresh() {
+        try {
+            load();
+        } catch (Exception e) {
+            logger.warn("상영관 목록 갱신 실패 - 이전 스냅샷 사용: {}", e.getMessage());
+        }
+    }
+
+    private synchronized Snapshot load() {
+        List<Theater> theaters = theaterRepository.findAll();
+        List<Entry> entries = new ArrayList<>(theaters.size());
+        for (Theater theater : theaters) {
+            entries.add(new Entry(theater.getTheaterId(), theater.getName(), theater.getTotalSeats()));
+        }
+
+        Snapshot current = snapshot;
+        if (current != null && current.theaters().equals(entries)) {
+            return current;
+        }
+        Snapshot next = Snapshot.of(entries);
+        snapshot = next;
+        logger.info("상영관 목록 스냅샷 교체 - theaters={}, totalSeats={}", entries.size(), next.totalSeats());
+        return next;
+    }
+
+    public record Entry(String theaterId, String name, int totalSeats) {
+    }
+
+    /**
+     * @param theaters   DB 순서 상영관 목록
+     * @param byId       theaterId -> 상영관
+     * @param totalSeats 모든 상영관 좌석 수 합 (영화 1편 전체 좌석)
+     */
+    public record Snapshot(List<Entry> theaters, Map<String, Entry> byId, int totalSeats) {
+
+        private static Snapshot of(List<Entry> theaters) {
+            Map<String, Entry> byId = new LinkedHashMap<>();
+            int totalSeats = 0;
+            for (Entry theater : theaters) {
+                byId.put(theater.theaterId(), theater);
+                totalSeats += theater.totalSeats();
+            }
+            return new Snapshot(List.copyOf(theaters), Map.copyOf(byId), totalSeats);
+        }
+
+        public List<String> theaterIds() {
+            return theaters.stream().map(Entry::theaterId).toList();
+        }
+    }
+}
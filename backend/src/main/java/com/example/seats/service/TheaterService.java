@@ -1,11 +1,13 @@
 package com.example.seats.service;
 
+import com.example.admission.dto.SeatMapResponse;
 import com.example.admission.dto.TheaterInfo;
-import com.example.seats.entity.Theater;
-import com.example.seats.repository.TheaterRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import java.util.ArrayList;
@@ -15,22 +17,48 @@ import java.util.List;
  * TheaterService - 영화별 상영관 목록 + 잔여 좌석 조회
  *
  * 설계:
- * - DB에서 상영관 목록(20개 x 300석) 조회
- * - Redis SCARD로 booked:{movieId}:{theaterId} Set의 크기 = 예매 완료 좌석 수 (Hash Tag on movieId)
+ * - 상영관 목록(20개 x 300석)은 TheaterCatalog 불변 스냅샷 (요청마다 DB 조회 없음)
+ * - 예매 완료 좌석 수 = seats:{movieId}:{theaterId}:booked 비트맵 BITCOUNT, 영화당 파이프라인 1회 (SeatInventory)
  * - availableSeats = totalSeats - bookedCount
+ * - 영화별 결과를 availability-ttl-ms 동안 Pod 로컬로 재사용, 영화당 single-flight 갱신,
+ *   최대 MAX_CACHED_MOVIES 항목 (LocalRefreshCache - SeatMapCache와 같은 규칙)
+ * - Redis 오류 시 마지막 결과 반환 (한 번도 못 읽었으면 잔여 좌석 = 전체 좌석)
+ * - 좌석 맵(선점/예매 비트맵)은 SeatMapCache 경유 (Pod 로컬, 버전 기반 증분 갱신)
+ *
+ * 메트릭:
+ *   cgv_theater_availability_refresh_total  - 잔여 좌석 Redis 조회 횟수
  */
 @Service
 public class TheaterService {
 
     private static final Logger logger = LoggerFactory.getLogger(TheaterService.class);
+    private static final int MAX_CACHED_MOVIES = 1000;
+
+    private final TheaterCatalog theaterCatalog;
+    private final SeatInventory seatInventory;
+    private final SeatMapCache seatMapCache;
+    private final Counter refreshCount;
+
+    @Value("${seats.theater-availability-ttl-ms:1000}")
+    private long availabilityTtlMs;
 
-    private final TheaterRepository theaterRepository;
-    private final RedisTemplate<String, String> redisTemplate;
+    // movieId -> 상영관별 잔여 좌석
+    private LocalRefreshCache<String, List<TheaterInfo>> cache;
 
-    public TheaterService(TheaterRepository theaterRepository,
-                          RedisTemplate<String, String> redisTemplate) {
-        this.theaterRepository = theaterRepository;
-        this.redisTemplate = redisTemplate;
+    public TheaterService(TheaterCatalog theaterCatalog,
+                          SeatInventory seatInventory,
+                          SeatMapCache seatMapCache,
+                          MeterRegistry meterRegistry) {
+        this.theaterCatalog = theaterCatalog;
+        this.seatInventory = seatInventory;
+        this.seatMapCache = seatMapCache;
+        this.refreshCount = Counter.builder("cgv_theater_availability_refresh_total")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void init() {
+        cache = new LocalRefreshCache<>(MAX_CACHED_MOVIES, availabilityTtlMs, this::load);
     }
 
     /**
@@ -41,38 +69,45 @@ public class TheaterService {
      * @return 상영관별 잔여 좌석 정보 목록
      */
     public List<TheaterInfo> getTheaters(String movieId) {
-        List<Theater> theaters = theaterRepository.findAll();
-        List<TheaterInfo> result = new ArrayList<>(theaters.size());
+        return cache.get(movieId);
+    }
 
-        for (Theater theater : theaters) {
-            int bookedCount = getBookedCount(movieId, theater.getTheaterId());
-            int availableSeats = Math.max(0, theater.getTotalSeats() - bookedCount);
+    /**
+     * 상영관 좌석 맵 (선점/예매 비트맵 + 버전). Pod 로컬 SeatMapCache에서 반환한다.
+     */
+    public SeatMapResponse getSeatMap(String movieId, String theaterId) {
+        return seatMapCache.get(movieId, theaterId);
+    }
+
+    private List<TheaterInfo> load(String movieId, List<TheaterInfo> previous) {
+        TheaterCatalog.Snapshot catalog = theaterCatalog.get();
+        List<Long> bookedCounts;
+        try {
+            refreshCount.increment();
+            bookedCounts = seatInventory.bookedCounts(movieId, catalog.theaterIds());
+        } catch (Exception e) {
+            logger.error("Redis 예매 좌석 수 조회 실패 - movieId: {}", movieId, e);
+            if (previous != null) {
+                return previous;
+            }
+            bookedCounts = List.of();
+        }
+
+        List<TheaterInfo> result = new ArrayList<>(catalog.theaters().size());
+        for (int i = 0; i < catalog.theaters().size(); i++) {
+            TheaterCatalog.Entry theater = catalog.theaters().get(i);
+            long bookedCount = i < bookedCounts.size() ? bookedCounts.get(i) : 0L;
+            int availableSeats = (int) Math.max(0, theater.totalSeats() - bookedCount);
 
             result.add(new TheaterInfo(
-                    theater.getTheaterId(),
-                    theater.getName(),
-                    theater.getTotalSeats(),
+                    theater.theaterId(),
+                    theater.name(),
+                    theater.totalSeats(),
                     availableSeats
             ));
         }
 
         logger.debug("상영관 목록 조회 완료 - movieId: {}, theaters: {}개", movieId, result.size());
-        return result;
-    }
-
-    /**
-     * Redis SCARD로 특정 상영관의 예매 완료 좌석 수를 조회한다.
-     * Key: booked:{movieId}:{theaterId} (Set, Hash Tag on movieId)
-     */
-    private int getBookedCount(String movieId, String theaterId) {
-        try {
-            String key = "booked:{" + movieId + "}:" + theaterId;
-            Long count = redisTemplate.opsForSet().size(key);
-            return count != null ? count.intValue() : 0;
-        } catch (Exception e) {
-            logger.error("Redis 예매 좌석 수 조회 실패 - movieId: {}, theaterId: {}",
-                    movieId, theaterId, e);
-            return 0;
-        }
+        return List.copyOf(result);
     }
 }
@@ -1,18 +1,52 @@
--- KEYS[1]: active ZSET, KEYS[2]: waiting ZSET
--- ARGV[1]: maxActive, ARGV[2]: member (requestId), ARGV[3]: now
+-- admission.lua
+-- 대기열 입장: 중복 체크 + active 정원 확인 후 즉시 입장 또는 대기열 등록 (원자적)
+--
+-- KEYS[1]: sessions:{movieId}:active   (Sorted Set - active sessions)
+-- KEYS[2]: sessions:{movieId}:waiting  (Sorted Set - waiting queue)
+--
+-- ARGV[1]: maxActive (최대 활성 세션 수)
+-- ARGV[2]: member (requestId)
+-- ARGV[3]: now (epoch ms, active ZADD score)
+--
+-- 대기열 score = now * 4096 (정수, admission_enter_batch.lua 와 같은 단위)
+--
+-- Returns:
+--   {1, 'ALREADY_ACTIVE', activeCount}          이미 활성 세션에 있음
+--   {2, 'ALREADY_WAITING', rank, totalWaiting}  이미 대기열에 있음
+--   {1, 'ADMITTED', activeCount}                즉시 입장
+--   {2, 'WAITING', rank, totalWaiting}          대기열 등록
 local activeKey  = KEYS[1]
 local waitingKey = KEYS[2]
 local maxActive  = tonumber(ARGV[1])
 local member     = ARGV[2]
 local now        = tonumber(ARGV[3])
 
+-- 이전 단위(epoch ms)로 기록된 대기 score를 now * 4096 단위로 옮긴다.
+-- 배포 전 등록분과 롤링 업데이트 중 이전 버전 Pod 등록분이 대상이며, 옮기지 않으면 새 단위
+-- 멤버보다 항상 앞에 정렬된다. ms score는 1e14 미만, 새 단위는 1e15 이상이라 범위로 구분되고
+-- 이전할 멤버가 없으면 빈 범위 조회 1회로 끝난다 (호출당 최대 1000건, 오래된 순).
+local legacy = redis.call('ZRANGEBYSCORE', waitingKey, '-inf', '(100000000000000', 'WITHSCORES', 'LIMIT', 0, 1000)
+for j = 1, #legacy, 2 do
+  redis.call('ZADD', waitingKey, tonumber(legacy[j + 1]) * 4096, legacy[j])
+end
+
+-- 이미 활성 세션에 있는지 확인 (중복 입장 방지)
+if redis.call('ZSCORE', activeKey, member) then
+  return {1, 'ALREADY_ACTIVE', redis.call('ZCARD', activeKey)}
+end
+
+-- 이미 대기열에 있는지 확인 (중복 등록 방지)
+if redis.call('ZSCORE', waitingKey, member) then
+  local rank = redis.call('ZRANK', waitingKey, member)
+  return {2, 'ALREADY_WAITING', rank + 1, redis.call('ZCARD', waitingKey)}
+end
+
 local activeCount = redis.call('ZCARD', activeKey)
 if activeCount < maxActive then
   redis.call('ZADD', activeKey, now, member)
-  return {1}
-else
-  redis.call('ZADD', waitingKey, now, member)
-  local rank = redis.call('ZRANK', waitingKey, member)
-  local totalWaiting = redis.call('ZCARD', waitingKey)
-  return {2, rank + 1, totalWaiting}
+  return {1, 'ADMITTED', activeCount + 1}
 end
+
+redis.call('ZADD', waitingKey, now * 4096, member)
+local rank = redis.call('ZRANK', waitingKey, member)
+return {2, 'WAITING', rank + 1, redis.call('ZCARD', waitingKey)}
@@ -0,0 +1,78 @@
+-- admission_atomic.lua
+-- 단일 왕복 대기열 입장: WRONGTYPE 방어 + 입장/대기 분기 + 영화 레지스트리 SADD (원자적)
+--
+-- admission.lua 와 같은 입장 규칙에 더해, Java 측에서 별도로 하던
+-- TYPE 검사(ensureKeyType x2)와 active_movies / waiting_movies SADD 를 스크립트 안으로 옮겼다.
+-- Java는 입장 1건당 Redis 호출을 정확히 1회만 수행한다.
+--
+-- 주의: KEYS[3], KEYS[4]는 Hash Tag가 없는 전역 키이므로 Non-Cluster 모드 전용.
+--       Cluster 전환 시 admission.single-round-trip-enter=false 로 기존 경로를 사용한다.
+--
+-- KEYS[1]: sessions:{movieId}:active   (Sorted Set - active sessions)
+-- KEYS[2]: sessions:{movieId}:waiting  (Sorted Set - waiting queue)
+-- KEYS[3]: active_movies               (Set - 활성 영화 레지스트리)
+-- KEYS[4]: waiting_movies              (Set - 대기 영화 레지스트리)
+--
+-- ARGV[1]: maxActive (최대 활성 세션 수)
+-- ARGV[2]: member (requestId)
+-- ARGV[3]: now (epoch ms, active ZADD score)
+-- ARGV[4]: movieId (레지스트리 멤버)
+--
+-- 대기열 score = now * 4096 (정수, admission_enter_batch.lua 와 같은 단위)
+--
+-- Returns: admission.lua 와 동일
+--   {1, 'ALREADY_ACTIVE', activeCount}
+--   {2, 'ALREADY_WAITING', rank, totalWaiting}
+--   {1, 'ADMITTED', activeCount}
+--   {2, 'WAITING', rank, totalWaiting}
+local activeKey        = KEYS[1]
+local waitingKey       = KEYS[2]
+local activeMoviesKey  = KEYS[3]
+local waitingMoviesKey = KEYS[4]
+local maxActive        = tonumber(ARGV[1])
+local member           = ARGV[2]
+local now              = tonumber(ARGV[3])
+local movieId          = ARGV[4]
+
+-- WRONGTYPE 방어: 예상 타입이 아니면 삭제 후 재생성 (Java ensureKeyType 과 동일 정책)
+local function ensureType(key, expected)
+  local actual = redis.call('TYPE', key)['ok']
+  if actual ~= 'none' and actual ~= expected then
+    redis.call('DEL', key)
+  end
+end
+
+ensureType(activeKey, 'zset')
+ensureType(waitingKey, 'zset')
+ensureType(activeMoviesKey, 'set')
+ensureType(waitingMoviesKey, 'set')
+
+-- 이전 단위(epoch ms) 대기 score를 now * 4096 단위로 이전 (admission.lua 참고)
+local legacy = redis.call('ZRANGEBYSCORE', waitingKey, '-inf', '(100000000000000', 'WITHSCORES', 'LIMIT', 0, 1000)
+for j = 1, #legacy, 2 do
+  redis.call('ZADD', waitingKey, tonumber(legacy[j + 1]) * 4096, legacy[j])
+end
+
+-- 영화를 활성 목록에 추가 (동적 movieId 추적)
+redis.call('SADD', activeMoviesKey, movieId)
+
+if redis.call('ZSCORE', activeKey, member) then
+  return {1, 'ALREADY_ACTIVE', redis.call('ZCARD', activeKey)}
+end
+
+if redis.call('ZSCORE', waitingKey, member) then
+  redis.call('SADD', waitingMoviesKey, movieId)
+  local rank = redis.call('ZRANK', waitingKey, member)
+  return {2, 'ALREADY_WAITING', rank + 1, redis.call('ZCARD', waitingKey)}
+end
+
+local activeCount = redis.call('ZCARD', activeKey)
+if activeCount < maxActive then
+  redis.call('ZADD', activeKey, now, member)
+  return {1, 'ADMITTED', activeCount + 1}
+end
+
+redis.call('ZADD', waitingKey, now * 4096, member)
+redis.call('SADD', waitingMoviesKey, movieId)
+local rank = redis.call('ZRANK', waitingKey, member)
+return {2, 'WAITING', rank + 1, redis.call('ZCARD', waitingKey)}
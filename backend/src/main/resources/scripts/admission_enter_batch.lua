@@ -0,0 +1,85 @@
+-- admission_enter_batch.lua
+-- 대기열 입장 마이크로 배치: 같은 영화의 입장 요청 N건을 한 번의 EVALSHA로 처리 (원자적)
+--
+-- EnterCoalescer가 짧은 윈도우 동안 모은 requestId를 도착 순서대로 넘긴다.
+-- 각 요청은 admission.lua 와 같은 규칙으로 순서대로 처리되므로,
+-- 앞선 요청이 빈 슬롯을 먼저 차지하고 대기열 순위도 도착 순서를 따른다.
+--
+-- KEYS[1]: sessions:{movieId}:active   (Sorted Set - active sessions)
+-- KEYS[2]: sessions:{movieId}:waiting  (Sorted Set - waiting queue)
+-- KEYS[3]: active_movies               (Set, 선택 - single-round-trip-enter 모드에서만 전달)
+-- KEYS[4]: waiting_movies              (Set, 선택 - 위와 동일, Non-Cluster 전용)
+--
+-- ARGV[1]: maxActive (최대 활성 세션 수)
+-- ARGV[2]: now (epoch ms, active ZADD score)
+-- ARGV[3]: movieId (레지스트리 멤버)
+-- ARGV[4..]: requestId 목록 (도착 순서)
+--
+-- 대기열 score = now * 4096 + 배치 내 순번 (정수, admission.lua 와 같은 단위).
+-- double 소수 오프셋 대신 정수로 배치 내 도착 순서를 보존한다 (배치 크기 < 4096,
+-- now < 2^41 ms 동안 2^53 이하라 정확히 표현됨).
+--
+-- Returns: 요청별 결과 배열 (ARGV[4..] 순서와 동일), 각 원소는 admission.lua 반환값과 같다
+--   {1, 'ALREADY_ACTIVE', activeCount}
+--   {2, 'ALREADY_WAITING', rank, totalWaiting}
+--   {1, 'ADMITTED', activeCount}
+--   {2, 'WAITING', rank, totalWaiting}
+local activeKey  = KEYS[1]
+local waitingKey = KEYS[2]
+local maxActive  = tonumber(ARGV[1])
+local now        = tonumber(ARGV[2])
+local movieId    = ARGV[3]
+local trackMovies = #KEYS >= 4
+
+local function ensureType(key, expected)
+  local actual = redis.call('TYPE', key)['ok']
+  if actual ~= 'none' and actual ~= expected then
+    redis.call('DEL', key)
+  end
+end
+
+ensureType(activeKey, 'zset')
+ensureType(waitingKey, 'zset')
+if trackMovies then
+  ensureType(KEYS[3], 'set')
+  ensureType(KEYS[4], 'set')
+  redis.call('SADD', KEYS[3], movieId)
+end
+
+-- 이전 단위(epoch ms) 대기 score를 now * 4096 단위로 이전 (admission.lua 참고)
+local legacy = redis.call('ZRANGEBYSCORE', waitingKey, '-inf', '(100000000000000', 'WITHSCORES', 'LIMIT', 0, 1000)
+for j = 1, #legacy, 2 do
+  redis.call('ZADD', waitingKey, tonumber(legacy[j + 1]) * 4096, legacy[j])
+end
+
+local activeCount = redis.call('ZCARD', activeKey)
+local anyWaiting = false
+local results = {}
+
+for i = 4, #ARGV do
+  local member = ARGV[i]
+
+  if redis.call('ZSCORE', activeKey, member) then
+    results[#results + 1] = {1, 'ALREADY_ACTIVE', activeCount}
+  elseif redis.call('ZSCORE', waitingKey, member) then
+    anyWaiting = true
+    local rank = redis.call('ZRANK', waitingKey, member)
+    results[#results + 1] = {2, 'ALREADY_WAITING', rank + 1, redis.call('ZCARD', waitingKey)}
+  elseif activeCount < maxActive then
+    redis.call('ZADD', activeKey, now, member)
+    activeCount = activeCount + 1
+    results[#results + 1] = {1, 'ADMITTED', activeCount}
+  else
+    -- 같은 ms 안의 동점 score는 member 사전순으로 정렬되므로 순번을 더한다
+    redis.call('ZADD', waitingKey, now * 4096 + (i - 4), member)
+    anyWaiting = true
+    local rank = redis.call('ZRANK', waitingKey, member)
+    results[#results + 1] = {2, 'WAITING', rank + 1, redis.call('ZCARD', waitingKey)}
+  end
+end
+
+if trackMovies and anyWaiting then
+  redis.call('SADD', KEYS[4], movieId)
+end
+
+return results
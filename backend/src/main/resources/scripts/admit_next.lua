@@ -0,0 +1,30 @@
+-- admit_next.lua
+-- 대기자 승격: 대기열 앞에서 count명을 꺼내 active로 이동 (원자적 배치)
+--
+-- KEYS[1]: sessions:{movieId}:waiting  (Sorted Set - waiting queue)
+-- KEYS[2]: sessions:{movieId}:active   (Sorted Set - active sessions)
+-- KEYS[3]: processed:{movieId}         (String - 누적 입장 카운터)
+--
+-- ARGV[1]: count (승격할 최대 인원)
+-- ARGV[2]: now (epoch ms, active ZADD score)
+--
+-- Returns: 승격된 requestId 목록 (대기 순서 유지)
+local waitingKey = KEYS[1]
+local activeKey  = KEYS[2]
+local countKey   = KEYS[3]
+local count      = tonumber(ARGV[1])
+local now        = tonumber(ARGV[2])
+
+local admitted = redis.call('ZRANGE', waitingKey, 0, count - 1)
+
+for i = 1, #admitted do
+  redis.call('ZREM', waitingKey, admitted[i])
+  redis.call('ZADD', activeKey, now, admitted[i])
+end
+
+-- 승격 수만큼 누적 카운터 증가 (broadcast-only 순위 계산용)
+if #admitted > 0 then
+  redis.call('INCRBY', countKey, #admitted)
+end
+
+return admitted
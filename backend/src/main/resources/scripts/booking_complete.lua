@@ -1,40 +1,138 @@
 -- booking_complete.lua
--- Atomic booking completion: ZREM active + SADD booked + INCR counter + sold-out detection
+-- Atomic booking completion: hold ownership check + ZREM active + booked bits + hold cleanup + seat map version
+-- + INCRBY sold seat counters (movie + theater) + sold-out detection + release of any other seats the request still holds
+-- + XADD booking event to the movie's outbox stream (BookingOutboxConsumer persists it to MySQL)
 --
--- KEYS[1]: sessions:{movieId}:active       (Sorted Set - active sessions)
--- KEYS[2]: booked:{movieId}:{theaterId}    (Set - booked seats per theater)
--- KEYS[3]: booking:completed:{movieId}     (String - completed booking counter)
--- KEYS[4]: sold-out:{movieId}              (String - sold-out flag)
+-- KEYS[1]: sessions:{movieId}:active            (Sorted Set - active sessions)
+-- KEYS[2]: seats:{movieId}:{theaterId}:booked   (String bitmap - booked seats per theater)
+-- KEYS[3]: booking:completed:{movieId}          (String - sold seat counter)
+-- KEYS[4]: sold-out:{movieId}                   (String - sold-out flag)
+-- KEYS[5]: seats:{movieId}:{theaterId}:held     (String bitmap - held seats)
+-- KEYS[6]: seats:{movieId}:{theaterId}:holds    (Sorted Set - seat index -> hold expiry)
+-- KEYS[7]: seats:{movieId}:{theaterId}:owners   (Hash - seat index -> requestId)
+-- KEYS[8]: seats:{movieId}:{theaterId}:version  (String counter - seat map version)
+-- KEYS[9]: seats:{movieId}:holder:{requestId}   (Set - "theaterId|index" held by this request)
+-- KEYS[10]: bookings:{movieId}:outbox           (Stream - booking events not yet in MySQL)
+-- KEYS[11]: booking:sold:{movieId}              (Hash - theaterId -> sold seat counter)
 --
 -- ARGV[1]: member (requestId - to remove from active session)
--- ARGV[2]: seatIds (comma-separated, e.g. "A1,A2,A3")
--- ARGV[3]: totalSeats (6000 = 20 theaters x 300 seats)
+-- ARGV[2]: totalSeats (sum of Theater.totalSeats, BookingCounters)
+-- ARGV[3]: theaterId (holder index member prefix)
+-- ARGV[4]: now (epoch ms)
+-- ARGV[5]: hold TTL (ms)
+-- ARGV[6]: seat key prefix "seats:{movieId}:" (keys of other theaters held by the request, same hash slot)
+-- ARGV[7]: bookingId (idempotency key of the MySQL row)
+-- ARGV[8]: seat IDs as JSON array (bookings.seats column)
+-- ARGV[9]: total price
+-- ARGV[10..N]: seat indexes (SeatLayout, duplicates are counted once)
+--
+-- NON-CLUSTER ONLY: keys of the other theaters in Step 2b come from the holder index
+-- (see session_release.lua).
 --
 -- Returns:
---   {0, 'ALREADY_COMPLETED'}                 if requestId not in active set (idempotent)
---   {1, 'COMPLETED', completedCount, 0}      on success (not sold out)
---   {1, 'COMPLETED', completedCount, 1}      on success (sold out triggered)
+--   {0, 'ALREADY_COMPLETED'}                          if requestId not in active set (idempotent)
+--   {0, 'NOT_HELD', index1, index2, ...}              seats not held by this request (nothing changed)
+--   {1, 'COMPLETED', completedCount, soldOut, version, reclaimedMs, wastedMs, {theaterId, version, index...}, ...}
+--   completedCount = seats sold for the movie so far (compared against totalSeats)
+--   soldOut  = 1 if sold out was triggered by this booking
+--   version  = seat map version after booking (0 if no seats were given)
+--   trailing = seats the request held but did not book, released here (see session_release.lua)
 
--- Step 1: Remove from active session (idempotency check)
-local removed = redis.call('ZREM', KEYS[1], ARGV[1])
-if removed == 0 then
+-- Step 1: Active session check (idempotency - a completed booking already left the active set)
+if not redis.call('ZSCORE', KEYS[1], ARGV[1]) then
     return {0, 'ALREADY_COMPLETED'}
 end
 
--- Step 2: Add seats to booked set for this theater
-for seat in string.gmatch(ARGV[2], '([^,]+)') do
-    redis.call('SADD', KEYS[2], seat)
+-- Step 1a: Distinct seat indexes (a repeated seat must not inflate the counters)
+local seats = {}
+local seen = {}
+for i = 10, #ARGV do
+    local index = tostring(tonumber(ARGV[i]))
+    if not seen[index] then
+        seen[index] = true
+        table.insert(seats, index)
+    end
+end
+
+-- Step 1b: Every seat must still be held by this request and not booked.
+-- A hold past its expiry still counts while the owner is unchanged (nobody else took it yet).
+local notHeld = {}
+for _, index in ipairs(seats) do
+    if redis.call('HGET', KEYS[7], index) ~= ARGV[1] or redis.call('GETBIT', KEYS[2], index) == 1 then
+        table.insert(notHeld, index)
+    end
 end
+if #notHeld > 0 then
+    return {0, 'NOT_HELD', unpack(notHeld)}
+end
+redis.call('ZREM', KEYS[1], ARGV[1])
 
--- Step 3: Increment global completed counter
-local count = redis.call('INCR', KEYS[3])
+-- Step 2: Mark seats booked and drop their holds
+for _, index in ipairs(seats) do
+    redis.call('SETBIT', KEYS[2], index, 1)
+    redis.call('SETBIT', KEYS[5], index, 0)
+    redis.call('ZREM', KEYS[6], index)
+    redis.call('HDEL', KEYS[7], index)
+    redis.call('SREM', KEYS[9], ARGV[3] .. '|' .. index)
+end
+local version = 0
+if #seats > 0 then
+    version = redis.call('INCR', KEYS[8])
+end
+
+-- Step 2b: Release the seats the request held but did not book
+local now = tonumber(ARGV[4])
+local ttl = tonumber(ARGV[5])
+local reclaimed = 0
+local wasted = 0
+local byTheater = {}
+local theaters = {}
+for _, member in ipairs(redis.call('SMEMBERS', KEYS[9])) do
+    local sep = string.find(member, '|', 1, true)
+    local theaterId = string.sub(member, 1, sep - 1)
+    local index = string.sub(member, sep + 1)
+    local base = ARGV[6] .. theaterId .. ':'
+    if redis.call('HGET', base .. 'owners', index) == ARGV[1] then
+        local remaining = tonumber(redis.call('ZSCORE', base .. 'holds', index) or now) - now
+        if remaining > 0 then
+            reclaimed = reclaimed + remaining
+        end
+        wasted = wasted + math.max(0, ttl - remaining)
+        redis.call('SETBIT', base .. 'held', index, 0)
+        redis.call('ZREM', base .. 'holds', index)
+        redis.call('HDEL', base .. 'owners', index)
+        if byTheater[theaterId] == nil then
+            byTheater[theaterId] = {}
+            table.insert(theaters, theaterId)
+        end
+        table.insert(byTheater[theaterId], index)
+    end
+end
+redis.call('DEL', KEYS[9])
+
+-- Step 3: Increment sold seat counters (movie total + per theater)
+local count = redis.call('INCRBY', KEYS[3], #seats)
+redis.call('HINCRBY', KEYS[11], ARGV[3], #seats)
+
+-- Step 3b: Outbox event (same atomic step as the booked bits - survives a pod crash before MySQL)
+redis.call('XADD', KEYS[10], '*',
+    'bookingId', ARGV[7],
+    'theaterId', ARGV[3],
+    'seats', ARGV[8],
+    'totalPrice', ARGV[9],
+    'requestId', ARGV[1],
+    'bookedAt', ARGV[4])
 
 -- Step 4: Check if all seats are sold out
-local totalSeats = tonumber(ARGV[3])
+local totalSeats = tonumber(ARGV[2])
 local isSoldOut = 0
-if count >= totalSeats then
+if totalSeats > 0 and count >= totalSeats then
     redis.call('SET', KEYS[4], '1', 'EX', 3600)
     isSoldOut = 1
 end
 
-return {1, 'COMPLETED', count, isSoldOut}
+local result = {1, 'COMPLETED', count, isSoldOut, version, reclaimed, wasted}
+for _, theaterId in ipairs(theaters) do
+    table.insert(result, {theaterId, redis.call('INCR', ARGV[6] .. theaterId .. ':version'), unpack(byTheater[theaterId])})
+end
+return result
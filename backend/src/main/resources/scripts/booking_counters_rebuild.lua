@@ -0,0 +1,43 @@
+-- booking_counters_rebuild.lua
+-- Rebuild sold seat counters from MySQL (BookingCounterReconciler) after Redis lost them
+--
+-- Counters only move up: a Redis value above MySQL is a booking still in the outbox/journal,
+-- a MySQL value above Redis means Redis lost writes (failover, flush) and is restored here.
+--
+-- KEYS[1]: booking:completed:{movieId}   (String - sold seat counter)
+-- KEYS[2]: booking:sold:{movieId}        (Hash - theaterId -> sold seat counter)
+-- KEYS[3]: sold-out:{movieId}            (String - sold-out flag)
+--
+-- ARGV[1]: totalSeats
+-- ARGV[2..N]: theaterId, soldSeats pairs (MySQL)
+--
+-- Returns:
+--   {completedCount, restoredTheaters, soldOut}
+
+local restored = 0
+for i = 2, #ARGV, 2 do
+    local current = tonumber(redis.call('HGET', KEYS[2], ARGV[i]) or '0')
+    local sold = tonumber(ARGV[i + 1])
+    if sold > current then
+        redis.call('HSET', KEYS[2], ARGV[i], sold)
+        restored = restored + 1
+    end
+end
+
+local sum = 0
+for _, value in ipairs(redis.call('HVALS', KEYS[2])) do
+    sum = sum + tonumber(value)
+end
+local count = tonumber(redis.call('GET', KEYS[1]) or '0')
+if sum > count then
+    redis.call('SET', KEYS[1], sum)
+    count = sum
+end
+
+local isSoldOut = 0
+local totalSeats = tonumber(ARGV[1])
+if totalSeats > 0 and count >= totalSeats then
+    redis.call('SET', KEYS[3], '1', 'EX', 3600)
+    isSoldOut = 1
+end
+return {count, restored, isSoldOut}
@@ -0,0 +1,120 @@
+-- seat_allocate.lua
+-- Best-available allocation: find N adjacent free seats and hold them (atomic)
+--
+-- KEYS[1]: seats:{movieId}:{theaterId}:held    (String bitmap - held seats, bit = seat index)
+-- KEYS[2]: seats:{movieId}:{theaterId}:booked  (String bitmap - booked seats)
+-- KEYS[3]: seats:{movieId}:{theaterId}:holds   (Sorted Set - seat index -> hold expiry epoch ms)
+-- KEYS[4]: seats:{movieId}:{theaterId}:owners  (Hash - seat index -> requestId)
+-- KEYS[5]: seats:{movieId}:{theaterId}:version (String counter)
+-- KEYS[6]: seats:{movieId}:holder:{requestId}  (Set - "theaterId|index" held by this request)
+--
+-- ARGV[1]: requestId (hold owner)
+-- ARGV[2]: now (epoch ms)
+-- ARGV[3]: hold TTL (ms)
+-- ARGV[4]: seat count (adjacent seats in one row)
+-- ARGV[5]: seats per row (grid width, index = row * seatsPerRow + col)
+-- ARGV[6]: preferred row (0-based, zone centre)
+-- ARGV[7]: theaterId (holder index member prefix)
+-- ARGV[8]: max seats one request may hold across the movie's theaters
+-- ARGV[9..N]: seat count of each row (row 0, row 1, ...)
+--
+-- Search order: rows by distance from the preferred row (the row behind first on ties),
+-- and in the first row that has a free block, the block closest to the row centre.
+-- A seat is free when neither its held nor its booked bit is set. Expired holds still count
+-- as taken until SeatHoldSweeper releases them (at most one sweep interval).
+--
+-- Seat limit: seats in the holder index + count <= ARGV[8] (same pruning as seat_hold.lua).
+--
+-- Returns:
+--   {1, version, index1, index2, ...}   seats held (ascending, contiguous)
+--   {0}                                 no block of that size in the theater
+--   {-1, heldSeats}                     seat limit exceeded (nothing held)
+
+local count = tonumber(ARGV[4])
+local seatsPerRow = tonumber(ARGV[5])
+local preferredRow = tonumber(ARGV[6])
+local rows = #ARGV - 8
+
+local theaterPrefix = ARGV[7] .. '|'
+local heldSeats = 0
+for _, member in ipairs(redis.call('SMEMBERS', KEYS[6])) do
+    if string.sub(member, 1, #theaterPrefix) == theaterPrefix
+            and redis.call('HGET', KEYS[4], string.sub(member, #theaterPrefix + 1)) ~= ARGV[1] then
+        redis.call('SREM', KEYS[6], member)
+    else
+        heldSeats = heldSeats + 1
+    end
+end
+if heldSeats + count > tonumber(ARGV[8]) then
+    return {-1, heldSeats}
+end
+
+local held = redis.call('GET', KEYS[1]) or ''
+local booked = redis.call('GET', KEYS[2]) or ''
+
+local function isTaken(index)
+    local pos = math.floor(index / 8) + 1
+    local mask = bit.lshift(1, 7 - (index % 8))
+    local h = string.byte(held, pos) or 0
+    local b = string.byte(booked, pos) or 0
+    return bit.band(bit.bor(h, b), mask) ~= 0
+end
+
+-- Best block in one row: returns the start column, or nil
+local function bestInRow(row)
+    local width = tonumber(ARGV[9 + row])
+    local base = row * seatsPerRow
+    local best, bestDistance = nil, nil
+    local run = 0
+    for col = 0, width - 1 do
+        if isTaken(base + col) then
+            run = 0
+        else
+            run = run + 1
+            if run >= count then
+                local start = col - count + 1
+                -- doubled distance between block centre and row centre
+                local distance = math.abs(2 * start + count - width)
+                if bestDistance == nil or distance < bestDistance then
+                    best, bestDistance = start, distance
+                end
+            end
+        end
+    end
+    return best
+end
+
+local order = {preferredRow}
+for d = 1, rows - 1 do
+    table.insert(order, preferredRow + d)
+    table.insert(order, preferredRow - d)
+end
+
+local startIndex = nil
+for _, row in ipairs(order) do
+    if row >= 0 and row < rows then
+        local col = bestInRow(row)
+        if col ~= nil then
+            startIndex = row * seatsPerRow + col
+            break
+        end
+    end
+end
+
+if startIndex == nil then
+    return {0}
+end
+
+local expiresAt = tonumber(ARGV[2]) + tonumber(ARGV[3])
+local result = {1, 0}
+for index = startIndex, startIndex + count - 1 do
+    redis.call('SETBIT', KEYS[1], index, 1)
+    redis.call('ZADD', KEYS[3], expiresAt, index)
+    redis.call('HSET', KEYS[4], index, ARGV[1])
+    redis.call('SADD', KEYS[6], ARGV[7] .. '|' .. index)
+    table.insert(result, index)
+end
+redis.call('PEXPIRE', KEYS[6], tonumber(ARGV[3]) + 60000)
+result[2] = redis.call('INCR', KEYS[5])
+
+return result
@@ -0,0 +1,46 @@
+-- seat_expire.lua
+-- Release expired seat holds of one theater (SeatHoldSweeper)
+--
+-- KEYS[1]: seats:{movieId}:{theaterId}:held    (String bitmap)
+-- KEYS[2]: seats:{movieId}:{theaterId}:holds   (Sorted Set - seat index -> hold expiry epoch ms)
+-- KEYS[3]: seats:{movieId}:{theaterId}:owners  (Hash - seat index -> requestId)
+-- KEYS[4]: seats:{movieId}:{theaterId}:version (String counter)
+--
+-- ARGV[1]: now (epoch ms)
+-- ARGV[2]: max seats to release in one call
+-- ARGV[3]: holder index key prefix "seats:{movieId}:holder:" (same hash slot, owner appended)
+-- ARGV[4]: theaterId (holder index member prefix)
+-- ARGV[5]: hold TTL (ms)
+--
+-- NON-CLUSTER ONLY: holder index keys are derived from ARGV[3] and the owners hash
+-- (see session_release.lua).
+--
+-- Returns:
+--   {remainingHolds, version, wastedMs, index1, index2, ...}
+--   version = 0 if nothing was released
+--   wastedMs = seat-milliseconds the released holds blocked their seats (TTL + sweep lag)
+
+local now = tonumber(ARGV[1])
+local ttl = tonumber(ARGV[5])
+local expired = redis.call('ZRANGEBYSCORE', KEYS[2], '-inf', now, 'WITHSCORES', 'LIMIT', 0, tonumber(ARGV[2]))
+local released = {}
+local wasted = 0
+for i = 1, #expired, 2 do
+    local index = expired[i]
+    local owner = redis.call('HGET', KEYS[3], index)
+    if owner then
+        redis.call('SREM', ARGV[3] .. owner, ARGV[4] .. '|' .. index)
+    end
+    redis.call('SETBIT', KEYS[1], index, 0)
+    redis.call('HDEL', KEYS[3], index)
+    redis.call('ZREM', KEYS[2], index)
+    wasted = wasted + ttl + (now - tonumber(expired[i + 1]))
+    table.insert(released, index)
+end
+
+local version = 0
+if #released > 0 then
+    version = redis.call('INCR', KEYS[4])
+end
+
+return {redis.call('ZCARD', KEYS[2]), version, wasted, unpack(released)}
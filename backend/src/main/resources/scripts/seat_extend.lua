@@ -0,0 +1,39 @@
+-- seat_extend.lua
+-- Extend every hold of one request (user is paying), only while the session is active
+--
+-- KEYS[1]: seats:{movieId}:holder:{requestId}  (Set - "theaterId|index")
+-- KEYS[2]: sessions:{movieId}:active           (Sorted Set - active sessions)
+--
+-- ARGV[1]: requestId
+-- ARGV[2]: now (epoch ms)
+-- ARGV[3]: hold TTL (ms) - new expiry = now + TTL
+-- ARGV[4]: seat key prefix "seats:{movieId}:" (theater keys derived, same hash slot)
+--
+-- NON-CLUSTER ONLY: theater keys come from the holder index (see session_release.lua).
+--
+-- Returns:
+--   {0, 0}                       session not active (nothing extended)
+--   {extendedSeats, expiresAt}   seats still owned by the request, new expiry
+
+if not redis.call('ZSCORE', KEYS[2], ARGV[1]) then
+    return {0, 0}
+end
+
+local expiresAt = tonumber(ARGV[2]) + tonumber(ARGV[3])
+local extended = 0
+for _, member in ipairs(redis.call('SMEMBERS', KEYS[1])) do
+    local sep = string.find(member, '|', 1, true)
+    local base = ARGV[4] .. string.sub(member, 1, sep - 1) .. ':'
+    local index = string.sub(member, sep + 1)
+    if redis.call('HGET', base .. 'owners', index) == ARGV[1] then
+        redis.call('ZADD', base .. 'holds', 'XX', expiresAt, index)
+        extended = extended + 1
+    else
+        redis.call('SREM', KEYS[1], member)
+    end
+end
+
+if extended > 0 then
+    redis.call('PEXPIRE', KEYS[1], tonumber(ARGV[3]) + 60000)
+end
+return {extended, expiresAt}
@@ -0,0 +1,82 @@
+-- seat_hold.lua
+-- All-or-nothing multi-seat hold on the per-theater seat bitmaps
+--
+-- KEYS[1]: seats:{movieId}:{theaterId}:held    (String bitmap - held seats, bit = seat index)
+-- KEYS[2]: seats:{movieId}:{theaterId}:booked  (String bitmap - booked seats)
+-- KEYS[3]: seats:{movieId}:{theaterId}:holds   (Sorted Set - member = seat index, score = hold expiry epoch ms)
+-- KEYS[4]: seats:{movieId}:{theaterId}:owners  (Hash - seat index -> requestId)
+-- KEYS[5]: seats:{movieId}:{theaterId}:version (String counter - bumped on every seat map change)
+-- KEYS[6]: seats:{movieId}:holder:{requestId}  (Set - "theaterId|index" of every seat this request holds)
+--
+-- ARGV[1]: requestId (hold owner)
+-- ARGV[2]: now (epoch ms)
+-- ARGV[3]: hold TTL (ms)
+-- ARGV[4]: theaterId (holder index member prefix)
+-- ARGV[5]: max seats one request may hold across the movie's theaters
+-- ARGV[6..N]: seat indexes (SeatLayout)
+--
+-- An expired hold that the sweeper (seat_expire.lua) has not released yet
+-- counts as free: the seat is taken over by the new owner.
+--
+-- Seat limit: seats in the holder index + seats not yet owned by this request <= ARGV[5].
+-- Holder index entries of this theater whose seat was taken over after expiry are pruned first.
+--
+-- Returns:
+--   {1, version}               on success (all seats held, own holds are extended)
+--   {0, index1, index2, ...}   on conflict (nothing held)
+--   {-1, heldSeats}            seat limit exceeded (nothing held)
+
+local now = tonumber(ARGV[2])
+
+-- Step 1: Check all seats (booked, or held by someone else and not expired)
+local conflicts = {}
+for i = 6, #ARGV do
+    local index = ARGV[i]
+    if redis.call('GETBIT', KEYS[2], index) == 1 then
+        table.insert(conflicts, index)
+    elseif redis.call('GETBIT', KEYS[1], index) == 1 and redis.call('HGET', KEYS[4], index) ~= ARGV[1] then
+        local expiresAt = tonumber(redis.call('ZSCORE', KEYS[3], index) or '0')
+        if expiresAt > now then
+            table.insert(conflicts, index)
+        end
+    end
+end
+
+if #conflicts > 0 then
+    return {0, unpack(conflicts)}
+end
+
+-- Step 1b: Seat limit per request
+local theaterPrefix = ARGV[4] .. '|'
+local heldSeats = 0
+for _, member in ipairs(redis.call('SMEMBERS', KEYS[6])) do
+    if string.sub(member, 1, #theaterPrefix) == theaterPrefix
+            and redis.call('HGET', KEYS[4], string.sub(member, #theaterPrefix + 1)) ~= ARGV[1] then
+        redis.call('SREM', KEYS[6], member)
+    else
+        heldSeats = heldSeats + 1
+    end
+end
+local newSeats = 0
+for i = 6, #ARGV do
+    if redis.call('HGET', KEYS[4], ARGV[i]) ~= ARGV[1] then
+        newSeats = newSeats + 1
+    end
+end
+if heldSeats + newSeats > tonumber(ARGV[5]) then
+    return {-1, heldSeats}
+end
+
+-- Step 2: Hold all seats
+local expiresAt = now + tonumber(ARGV[3])
+for i = 6, #ARGV do
+    local index = ARGV[i]
+    redis.call('SETBIT', KEYS[1], index, 1)
+    redis.call('ZADD', KEYS[3], expiresAt, index)
+    redis.call('HSET', KEYS[4], index, ARGV[1])
+    redis.call('SADD', KEYS[6], ARGV[4] .. '|' .. index)
+end
+-- The holder index outlives its holds by a minute (sweeper / release clean it up first)
+redis.call('PEXPIRE', KEYS[6], tonumber(ARGV[3]) + 60000)
+
+return {1, redis.call('INCR', KEYS[5])}
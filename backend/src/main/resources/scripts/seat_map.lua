@@ -0,0 +1,20 @@
+-- seat_map.lua
+-- Read the whole seat map of one theater
+-- Bitmaps are returned only if the version differs from the caller's cached one
+--
+-- KEYS[1]: seats:{movieId}:{theaterId}:held    (String bitmap)
+-- KEYS[2]: seats:{movieId}:{theaterId}:booked  (String bitmap)
+-- KEYS[3]: seats:{movieId}:{theaterId}:version (String counter)
+--
+-- ARGV[1]: known version (-1 = always return bitmaps)
+--
+-- Returns:
+--   {version}                              if version == known version (nothing changed)
+--   {version, heldBitmap, bookedBitmap}    raw bitmap bytes ('' if no seat was ever held/booked)
+
+local version = tonumber(redis.call('GET', KEYS[3]) or '0')
+if version == tonumber(ARGV[1]) then
+    return {version}
+end
+
+return {version, redis.call('GET', KEYS[1]) or '', redis.call('GET', KEYS[2]) or ''}
@@ -0,0 +1,32 @@
+-- seat_migrate_legacy.lua
+-- Move booked seats from a legacy per-theater Set into the booked bitmap (LegacySeatMigrator)
+--
+-- KEYS[1]: booked:{movieId}:{theaterId}           (Set - legacy booked seat IDs, e.g. "A1")
+-- KEYS[2]: seats:{movieId}:{theaterId}:booked     (String bitmap)
+-- KEYS[3]: seats:{movieId}:{theaterId}:version    (String counter)
+--
+-- ARGV: seatId, index pairs (index -1 = not on the layout grid, removed without setting a bit)
+--
+-- Only members still in the Set are moved and SREM'd, so a member added after the caller's
+-- SMEMBERS stays for the next pass. The Set disappears once empty.
+--
+-- Returns:
+--   {version, remaining, index1, index2, ...}
+--   version = 0 if no new bit was set; indexes = bits that were newly set
+
+local moved = {}
+for i = 1, #ARGV, 2 do
+    local seatId = ARGV[i]
+    local index = tonumber(ARGV[i + 1])
+    if redis.call('SREM', KEYS[1], seatId) == 1 and index >= 0 then
+        if redis.call('SETBIT', KEYS[2], index, 1) == 0 then
+            table.insert(moved, index)
+        end
+    end
+end
+
+local version = 0
+if #moved > 0 then
+    version = redis.call('INCR', KEYS[3])
+end
+return {version, redis.call('SCARD', KEYS[1]), unpack(moved)}
@@ -0,0 +1,46 @@
+-- seat_release.lua
+-- Drop seats held by one request in one theater (user deselects seats)
+--
+-- KEYS[1]: seats:{movieId}:{theaterId}:held    (String bitmap)
+-- KEYS[2]: seats:{movieId}:{theaterId}:holds   (Sorted Set - seat index -> hold expiry epoch ms)
+-- KEYS[3]: seats:{movieId}:{theaterId}:owners  (Hash - seat index -> requestId)
+-- KEYS[4]: seats:{movieId}:{theaterId}:version (String counter)
+-- KEYS[5]: seats:{movieId}:holder:{requestId}  (Set - "theaterId|index")
+--
+-- ARGV[1]: requestId
+-- ARGV[2]: now (epoch ms)
+-- ARGV[3]: hold TTL (ms)
+-- ARGV[4]: theaterId
+-- ARGV[5..N]: seat indexes (seats not held by this request are skipped)
+--
+-- Returns:
+--   {version, reclaimedMs, wastedMs, index1, index2, ...}   version = 0 if nothing was released
+
+local now = tonumber(ARGV[2])
+local ttl = tonumber(ARGV[3])
+local released = {}
+local reclaimed = 0
+local wasted = 0
+
+for i = 5, #ARGV do
+    local index = ARGV[i]
+    if redis.call('HGET', KEYS[3], index) == ARGV[1] then
+        local remaining = tonumber(redis.call('ZSCORE', KEYS[2], index) or now) - now
+        if remaining > 0 then
+            reclaimed = reclaimed + remaining
+        end
+        wasted = wasted + math.max(0, ttl - remaining)
+        redis.call('SETBIT', KEYS[1], index, 0)
+        redis.call('ZREM', KEYS[2], index)
+        redis.call('HDEL', KEYS[3], index)
+        redis.call('SREM', KEYS[5], ARGV[4] .. '|' .. index)
+        table.insert(released, index)
+    end
+end
+
+local version = 0
+if #released > 0 then
+    version = redis.call('INCR', KEYS[4])
+end
+
+return {version, reclaimed, wasted, unpack(released)}
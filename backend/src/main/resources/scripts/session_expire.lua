@@ -0,0 +1,72 @@
+-- session_expire.lua
+-- Pop at most N timed-out active sessions and release every seat they still hold,
+-- in one atomic step (SessionTimeoutProcessor)
+--
+-- KEYS[1]: sessions:{movieId}:active    (Sorted Set - requestId -> admitted at epoch ms)
+--
+-- ARGV[1]: session timeout (ms)
+-- ARGV[2]: max sessions to expire in one call
+-- ARGV[3]: hold TTL (ms)
+-- ARGV[4]: seat key prefix "seats:{movieId}:"
+--
+-- "now" comes from Redis TIME, so every pod expires against the same clock.
+-- Seat release is the same as session_release.lua (owners hash must still name the requestId).
+-- NON-CLUSTER ONLY: seat keys are derived from ARGV[4] and the expired requestIds
+-- (see session_release.lua).
+--
+-- Returns:
+--   {more, reclaimedMs, wastedMs, {requestId...}, {theaterId, version, index...}, ...}
+--   more = 1 if expired sessions are still left after this call (caller keeps draining)
+
+local time = redis.call('TIME')
+local now = tonumber(time[1]) * 1000 + math.floor(tonumber(time[2]) / 1000)
+local threshold = now - tonumber(ARGV[1])
+local ttl = tonumber(ARGV[3])
+local prefix = ARGV[4]
+
+local expired = redis.call('ZRANGEBYSCORE', KEYS[1], '-inf', threshold, 'LIMIT', 0, tonumber(ARGV[2]))
+
+local reclaimed = 0
+local wasted = 0
+local byTheater = {}
+local theaters = {}
+
+for _, requestId in ipairs(expired) do
+    redis.call('ZREM', KEYS[1], requestId)
+
+    local holderKey = prefix .. 'holder:' .. requestId
+    for _, member in ipairs(redis.call('SMEMBERS', holderKey)) do
+        local sep = string.find(member, '|', 1, true)
+        local theaterId = string.sub(member, 1, sep - 1)
+        local index = string.sub(member, sep + 1)
+        local base = prefix .. theaterId .. ':'
+        if redis.call('HGET', base .. 'owners', index) == requestId then
+            local remaining = tonumber(redis.call('ZSCORE', base .. 'holds', index) or now) - now
+            if remaining > 0 then
+                reclaimed = reclaimed + remaining
+            end
+            wasted = wasted + math.max(0, ttl - remaining)
+            redis.call('SETBIT', base .. 'held', index, 0)
+            redis.call('ZREM', base .. 'holds', index)
+            redis.call('HDEL', base .. 'owners', index)
+            if byTheater[theaterId] == nil then
+                byTheater[theaterId] = {}
+                table.insert(theaters, theaterId)
+            end
+            table.insert(byTheater[theaterId], index)
+        end
+    end
+    redis.call('DEL', holderKey)
+end
+
+local more = 0
+if #expired > 0 and redis.call('ZCOUNT', KEYS[1], '-inf', threshold) > 0 then
+    more = 1
+end
+
+local result = {more, reclaimed, wasted, expired}
+for _, theaterId in ipairs(theaters) do
+    local version = redis.call('INCR', prefix .. theaterId .. ':version')
+    table.insert(result, {theaterId, version, unpack(byTheater[theaterId])})
+end
+return result
@@ -0,0 +1,75 @@
+-- session_release.lua
+-- End sessions and release every seat they still hold, in one atomic step
+-- (leave / session timeout)
+--
+-- KEYS[1]: sessions:{movieId}:active    (Sorted Set - active sessions)
+-- KEYS[2]: sessions:{movieId}:waiting   (Sorted Set - waiting queue)
+--
+-- ARGV[1]: now (epoch ms)
+-- ARGV[2]: hold TTL (ms)
+-- ARGV[3]: seat key prefix "seats:{movieId}:"
+-- ARGV[4]: 1 = also remove from the waiting queue, 0 = active only
+-- ARGV[5..N]: requestIds
+--
+-- Seat keys are derived from ARGV[3]:
+--   {prefix}holder:{requestId}       (Set - "theaterId|index")
+--   {prefix}{theaterId}:held|holds|owners|version
+-- They share the {movieId} hash tag with KEYS, so they live in the same slot.
+-- NON-CLUSTER ONLY: the holder index decides which keys are touched, so they cannot be declared
+-- in KEYS up front. LuaScriptRegistry refuses to start against a Redis Cluster.
+-- A seat is released only if the owners hash still names this requestId
+-- (a hold taken over after expiry belongs to someone else).
+--
+-- Returns:
+--   {removedActive, reclaimedMs, wastedMs, {theaterId, version, index...}, ...}
+--   reclaimedMs = remaining hold time given back to inventory (seat-ms)
+--   wastedMs    = time the released holds had already blocked their seats (seat-ms, since last hold/extend)
+
+local now = tonumber(ARGV[1])
+local ttl = tonumber(ARGV[2])
+local prefix = ARGV[3]
+
+local removedActive = 0
+local reclaimed = 0
+local wasted = 0
+local byTheater = {}
+local theaters = {}
+
+for i = 5, #ARGV do
+    local requestId = ARGV[i]
+    removedActive = removedActive + redis.call('ZREM', KEYS[1], requestId)
+    if ARGV[4] == '1' then
+        redis.call('ZREM', KEYS[2], requestId)
+    end
+
+    local holderKey = prefix .. 'holder:' .. requestId
+    for _, member in ipairs(redis.call('SMEMBERS', holderKey)) do
+        local sep = string.find(member, '|', 1, true)
+        local theaterId = string.sub(member, 1, sep - 1)
+        local index = string.sub(member, sep + 1)
+        local base = prefix .. theaterId .. ':'
+        if redis.call('HGET', base .. 'owners', index) == requestId then
+            local remaining = tonumber(redis.call('ZSCORE', base .. 'holds', index) or now) - now
+            if remaining > 0 then
+                reclaimed = reclaimed + remaining
+            end
+            wasted = wasted + math.max(0, ttl - remaining)
+            redis.call('SETBIT', base .. 'held', index, 0)
+            redis.call('ZREM', base .. 'holds', index)
+            redis.call('HDEL', base .. 'owners', index)
+            if byTheater[theaterId] == nil then
+                byTheater[theaterId] = {}
+                table.insert(theaters, theaterId)
+            end
+            table.insert(byTheater[theaterId], index)
+        end
+    end
+    redis.call('DEL', holderKey)
+end
+
+local result = {removedActive, reclaimed, wasted}
+for _, theaterId in ipairs(theaters) do
+    local version = redis.call('INCR', prefix .. theaterId .. ':version')
+    table.insert(result, {theaterId, version, unpack(byTheater[theaterId])})
+end
+return result
@@ -0,0 +1,28 @@
+-- stats_lease.lua
+-- 영화별 STATS 발행자 lease 획득/갱신 + 시퀀스 발급 (원자적)
+--
+-- 모든 Pod가 1초마다 통계를 계산하지만, 영화별로 lease를 가진 Pod 하나만 발행한다.
+-- lease 보유자는 매 발행마다 lease를 연장하고 단조 증가 seq를 받는다.
+-- 보유자가 죽으면 TTL 만료 후 다른 Pod가 이어받고, 같은 seq 키를 계속 INCR 하므로 순서가 유지된다.
+--
+-- KEYS[1]: stats:{movieId}:publisher  (String - lease 보유 podId, PX ttl)
+-- KEYS[2]: stats:{movieId}:seq        (String - STATS 시퀀스 카운터)
+--
+-- ARGV[1]: podId
+-- ARGV[2]: ttlMs (lease 유효 시간)
+--
+-- Returns:
+--   seq (> 0)        lease 보유 -> 이 seq로 발행
+--   -remainingMs (<= 0)  다른 Pod가 보유 중 -> 남은 lease 시간 동안 재시도 불필요
+local owner = redis.call('GET', KEYS[1])
+
+if owner and owner ~= ARGV[1] then
+  local remaining = redis.call('PTTL', KEYS[1])
+  if remaining < 0 then
+    remaining = 0
+  end
+  return -remaining
+end
+
+redis.call('SET', KEYS[1], ARGV[1], 'PX', ARGV[2])
+return redis.call('INCR', KEYS[2])
@@ -0,0 +1,37 @@
+-- user_status.lua
+-- 단일 왕복 사용자 상태 조회: WRONGTYPE 방어 + 활성 세션 확인 + 대기 순위/전체 대기자 수 (원자적)
+--
+-- 기존 경로 (TYPE + ZSCORE, TYPE + ZRANK, TYPE + ZCARD = 최대 6회 왕복)를 1회로 줄인다.
+-- 순위와 전체 대기자 수가 같은 시점 값이므로 rank > totalWaiting 같은 어긋남이 없다.
+--
+-- KEYS[1]: sessions:{movieId}:active   (Sorted Set - active sessions)
+-- KEYS[2]: sessions:{movieId}:waiting  (Sorted Set - waiting queue)
+--
+-- ARGV[1]: member (requestId)
+--
+-- Returns:
+--   {1, 'ACTIVE'}
+--   {2, 'WAITING', rank (1-based), totalWaiting}
+--   {0, 'NOT_FOUND'}
+
+-- WRONGTYPE 방어: 예상 타입이 아니면 삭제 (Java ensureKeyType 과 동일 정책)
+local function ensureType(key, expected)
+  local actual = redis.call('TYPE', key)['ok']
+  if actual ~= 'none' and actual ~= expected then
+    redis.call('DEL', key)
+  end
+end
+
+ensureType(KEYS[1], 'zset')
+ensureType(KEYS[2], 'zset')
+
+if redis.call('ZSCORE', KEYS[1], ARGV[1]) then
+  return {1, 'ACTIVE'}
+end
+
+local rank = redis.call('ZRANK', KEYS[2], ARGV[1])
+if rank then
+  return {2, 'WAITING', rank + 1, redis.call('ZCARD', KEYS[2])}
+end
+
+return {0, 'NOT_FOUND'}
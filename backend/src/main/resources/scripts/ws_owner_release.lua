@@ -0,0 +1,13 @@
+-- ws_owner_release.lua
+-- WebSocket 연결 소유권 해제: 현재 소유자가 이 Pod일 때만 삭제 (원자적 compare-and-delete)
+--
+-- 클라이언트가 다른 Pod로 재연결해 소유권이 이미 바뀌었으면 건드리지 않는다.
+--
+-- KEYS[1]: ws:owner:{requestId}  (String - 소유 podId)
+-- ARGV[1]: podId
+--
+-- Returns: 1 삭제, 0 소유자가 아님
+if redis.call('GET', KEYS[1]) == ARGV[1] then
+  return redis.call('DEL', KEYS[1])
+end
+return 0
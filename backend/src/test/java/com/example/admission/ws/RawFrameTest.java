@@ -0,0 +1,138 @@
+package com.example.admission.ws;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * RawFrame 인코딩 / 헤더 디코딩 왕복, 구분자 방어, JSON 재직렬화 대비 릴레이 비용
+ */
+class RawFrameTest {
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+    private static final TypeReference<Map<String, Object>> MAP_TYPE = new TypeReference<>() {};
+
+    @Test
+    void statsFrameRoundTrip() {
+        byte[] json = "{\"type\":\"STATS\",\"movieId\":\"movie-avatar3\",\"seq\":42}".getBytes(StandardCharsets.UTF_8);
+
+        byte[] frame = RawFrame.encode("STATS", "/topic/stats/movie/movie-avatar3", "movie-avatar3", 42L, json);
+        RawFrame decoded = RawFrame.decodeHeader(frame);
+
+        assertThat(RawFrame.isRawFrame(frame)).isTrue();
+        assertThat(decoded.type).isEqualTo("STATS");
+        assertThat(decoded.destination).isEqualTo("/topic/stats/movie/movie-avatar3");
+        assertThat(decoded.movieId).isEqualTo("movie-avatar3");
+        assertThat(decoded.seq).isEqualTo(42L);
+        assertThat(Arrays.copyOfRange(frame, decoded.payloadOffset, frame.length)).isEqualTo(json);
+    }
+
+    @Test
+    void emptyMovieIdAndSeqDecodeAsAbsent() {
+        byte[] json = "{\"type\":\"ADMISSION\"}".getBytes(StandardCharsets.UTF_8);
+
+        RawFrame decoded = RawFrame.decodeHeader(
+                RawFrame.encode("ADMISSION", "/topic/admission/3f2c9a1e-77b0-4c1d-9a55-0e8f1b2c3d4e", null, 0L, json));
+
+        assertThat(decoded.movieId).isNull();
+        assertThat(decoded.seq).isZero();
+        assertThat(decoded.destination).isEqualTo("/topic/admission/3f2c9a1e-77b0-4c1d-9a55-0e8f1b2c3d4e");
+    }
+
+    @Test
+    void payloadWithSeparatorsIsCarriedUntouched() {
+        byte[] json = "{\"note\":\"a|b\\nc\"}\n|".getBytes(StandardCharsets.UTF_8);
+
+        byte[] frame = RawFrame.encode("SOLD_OUT", "/topic/stats/movie/m1", null, 0L, json);
+        RawFrame decoded = RawFrame.decodeHeader(frame);
+
+        assertThat(decoded.type).isEqualTo("SOLD_OUT");
+        assertThat(Arrays.copyOfRange(frame, decoded.payloadOffset, frame.length)).isEqualTo(json);
+    }
+
+    @Test
+    void legacyJsonIsNotARawFrame() {
+        assertThat(RawFrame.isRawFrame("{\"type\":\"STATS\"}".getBytes(StandardCharsets.UTF_8))).isFalse();
+        assertThat(RawFrame.isRawFrame(new byte[0])).isFalse();
+    }
+
+    @Test
+    void headerFieldsWithSeparatorsAreRejected() {
+        assertThat(RawFrame.isEncodable("ADMISSION", "/topic/admission/a|b", null)).isFalse();
+        assertThat(RawFrame.isEncodable("STATS", "/topic/stats/movie/m1", "m1\nR1")).isFalse();
+        assertThat(RawFrame.isEncodable("STATS", "/topic/stats/movie/m1", "m1\r")).isFalse();
+        assertThat(RawFrame.isEncodable("STATS", "/topic/stats/movie/m1", "m1")).isTrue();
+
+        assertThatThrownBy(() -> RawFrame.encode("TIMEOUT", "/topic/timeout/x|y", null, 0L, new byte[0]))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void malformedHeadersAreRejected() {
+        assertThatThrownBy(() -> RawFrame.decodeHeader("R1|STATS|/topic/x".getBytes(StandardCharsets.UTF_8)))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> RawFrame.decodeHeader("R2|STATS|/topic/x||\n{}".getBytes(StandardCharsets.UTF_8)))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> RawFrame.decodeHeader("R1|STATS|/topic/x|m1\n{}".getBytes(StandardCharsets.UTF_8)))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    /**
+     * 리스너 릴레이 비용: raw frame 헤더 디코딩 + 본문 복사 vs JSON Map 파싱 + 재직렬화.
+     * 기본 빌드에서는 건너뛴다 (mvn test -Dbenchmark=true).
+     */
+    @Test
+    @EnabledIfSystemProperty(named = "benchmark", matches = "true")
+    void relayBenchmark() throws Exception {
+        Map<String, Object> payload = new LinkedHashMap<>();
+        payload.put("type", "STATS");
+        payload.put("movieId", "movie-avatar3");
+        payload.put("seq", 42L);
+        payload.put("activeCount", 1800);
+        payload.put("waitingCount", 25_000);
+        payload.put("estimatedWaitSeconds", 420);
+        payload.put("timestamp", System.currentTimeMillis());
+        byte[] json = OBJECT_MAPPER.writeValueAsBytes(payload);
+        byte[] frame = RawFrame.encode("STATS", "/topic/stats/movie/movie-avatar3", "movie-avatar3", 42L, json);
+
+        int iterations = 1_000_000;
+        long sink = 0;
+        for (int i = 0; i < 100_000; i++) {
+            sink += relayRaw(frame) + relayJson(json);
+        }
+
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            sink += relayRaw(frame);
+        }
+        double rawNs = (System.nanoTime() - start) / (double) iterations;
+
+        start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            sink += relayJson(json);
+        }
+        double jsonNs = (System.nanoTime() - start) / (double) iterations;
+
+        System.out.printf("ws relay: raw %.0f ns/msg, json %.0f ns/msg (sink %d)%n", rawNs, jsonNs, sink);
+        assertThat(rawNs).isLessThan(jsonNs);
+    }
+
+    private static int relayRaw(byte[] frame) {
+        RawFrame decoded = RawFrame.decodeHeader(frame);
+        return Arrays.copyOfRange(frame, decoded.payloadOffset, frame.length).length;
+    }
+
+    private static int relayJson(byte[] json) throws Exception {
+        Map<String, Object> message = OBJECT_MAPPER.readValue(json, MAP_TYPE);
+        return OBJECT_MAPPER.writeValueAsBytes(message).length;
+    }
+}
@@ -0,0 +1,124 @@
+package com.example.pod.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.IntConsumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+/**
+ * PodCountCache 소스 우선순위 / staleness 전환 / 변경 알림 (StaticPodCountSource로 watch 이벤트 흉내)
+ */
+class PodCountCacheTest {
+
+    private PodCountCache cache;
+    private final List<Integer> published = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        cache = new PodCountCache(mock(PodDiscoveryService.class), mock(StringRedisTemplate.class),
+                new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(cache, "sourceMode", "static");
+        ReflectionTestUtils.setField(cache, "maxStalenessMs", 60_000L);
+        ReflectionTestUtils.setField(cache, "fallbackPodCount", 3);
+        cache.addChangeListener(published::add);
+    }
+
+    @Test
+    void staticModeUsesFallbackPodCount() {
+        cache.init();
+
+        assertThat(cache.getPodCount()).isEqualTo(3);
+        assertThat(cache.getActiveSource()).isEqualTo("static");
+        assertThat(published).containsExactly(3);
+    }
+
+    @Test
+    void updatesArePublishedOnlyWhenTheCountChanges() {
+        StaticPodCountSource source = new StaticPodCountSource(2);
+        cache.register(source);
+
+        source.update(2);
+        source.update(4);
+        cache.refresh();
+
+        assertThat(cache.getPodCount()).isEqualTo(4);
+        assertThat(published).containsExactly(2, 4);
+    }
+
+    @Test
+    void nonPositiveCountsAreIgnored() {
+        StaticPodCountSource source = new StaticPodCountSource(2);
+        cache.register(source);
+
+        source.update(0);
+
+        assertThat(cache.getPodCount()).isEqualTo(2);
+        assertThat(published).containsExactly(2);
+    }
+
+    @Test
+    void staleSourceFallsThroughToNextPriority() throws InterruptedException {
+        ManualSource watch = new ManualSource("kubernetes");
+        StaticPodCountSource fallback = new StaticPodCountSource(2);
+        cache.register(watch);
+        cache.register(fallback);
+
+        watch.push(6);
+        assertThat(cache.getPodCount()).isEqualTo(6);
+        assertThat(cache.getActiveSource()).isEqualTo("kubernetes");
+
+        ReflectionTestUtils.setField(cache, "maxStalenessMs", 20L);
+        Thread.sleep(50);
+        cache.refresh();
+
+        assertThat(cache.getPodCount()).isEqualTo(2);
+        assertThat(cache.getActiveSource()).isEqualTo("static");
+        assertThat(published).containsExactly(2, 6, 2);
+    }
+
+    @Test
+    void noFreshSourceReturnsZero() {
+        assertThat(cache.getPodCount()).isZero();
+        assertThat(cache.getActiveSource()).isEqualTo("none");
+    }
+
+    /**
+     * 이름을 정할 수 있는 push 소스 (refresh 없음 - 값이 오래되면 그대로 stale)
+     */
+    private static final class ManualSource implements PodCountSource {
+
+        private final String name;
+        private IntConsumer listener;
+
+        private ManualSource(String name) {
+            this.name = name;
+        }
+
+        @Override
+        public String name() {
+            return name;
+        }
+
+        @Override
+        public void start(IntConsumer listener) {
+            this.listener = listener;
+        }
+
+        void push(int podCount) {
+            listener.accept(podCount);
+        }
+
+        @Override
+        public void stop() {
+            listener = null;
+        }
+    }
+}
@@ -0,0 +1,193 @@
+package com.example.seats.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.data.redis.core.ListOperations;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * BookingWriter 배치 INSERT / 중복 키 / 거부 / 일시 오류 / 데드레터 (H2, MySQL 모드)
+ */
+class BookingWriterTest {
+
+    private static final String SCHEMA =
+            "CREATE TABLE bookings ("
+                    + " id BIGINT AUTO_INCREMENT PRIMARY KEY,"
+                    + " booking_id VARCHAR(64) NOT NULL UNIQUE,"
+                    + " movie_id VARCHAR(255) NOT NULL,"
+                    + " theater_id VARCHAR(50) NOT NULL,"
+                    + " seats VARCHAR(1024) NOT NULL,"
+                    + " total_price INT NOT NULL,"
+                    + " request_id VARCHAR(64) NOT NULL,"
+                    + " booked_at TIMESTAMP NOT NULL)";
+
+    private EmbeddedDatabase database;
+    private JdbcTemplate jdbcTemplate;
+    private StringRedisTemplate redisTemplate;
+    private ListOperations<String, String> listOps;
+    private MeterRegistry meterRegistry;
+    private BookingWriter writer;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        database = new EmbeddedDatabaseBuilder()
+                .setType(EmbeddedDatabaseType.H2)
+                .setName("bookings-" + UUID.randomUUID() + ";MODE=MySQL")
+                .build();
+        jdbcTemplate = new JdbcTemplate(database);
+        jdbcTemplate.execute(SCHEMA);
+
+        redisTemplate = mock(StringRedisTemplate.class);
+        listOps = mock(ListOperations.class);
+        when(redisTemplate.opsForList()).thenReturn(listOps);
+        meterRegistry = new SimpleMeterRegistry();
+        writer = newWriter(jdbcTemplate);
+    }
+
+    @AfterEach
+    void tearDown() {
+        database.shutdown();
+    }
+
+    @Test
+    void writesBatchInOneCall() {
+        List<BookingWriter.BookingRecord> batch = bookings(500);
+
+        BookingWriter.WriteResult result = writer.write(batch);
+
+        assertThat(result.isEmpty()).isTrue();
+        assertThat(rowCount()).isEqualTo(500);
+        assertThat(count("written")).isEqualTo(500);
+        assertThat(count("duplicate")).isZero();
+    }
+
+    @Test
+    void redeliveredBookingsAreTreatedAsWritten() {
+        List<BookingWriter.BookingRecord> batch = bookings(5);
+        writer.write(batch.subList(0, 2));
+
+        BookingWriter.WriteResult result = writer.write(batch);
+
+        assertThat(result.isEmpty()).isTrue();
+        assertThat(rowCount()).isEqualTo(5);
+        // 드라이버가 실패한 배치의 나머지 행을 이미 넣었을 수 있다 (행 단위 재처리에서 중복으로 집계)
+        assertThat(count("duplicate")).isGreaterThanOrEqualTo(2);
+    }
+
+    @Test
+    void integrityViolationIsRejectedAndOtherRowsAreWritten() {
+        List<BookingWriter.BookingRecord> batch = new ArrayList<>(bookings(3));
+        BookingWriter.BookingRecord tooLong = booking("bad", "T".repeat(60));
+        batch.add(1, tooLong);
+
+        BookingWriter.WriteResult result = writer.write(batch);
+
+        assertThat(result.rejected()).containsExactly(tooLong);
+        assertThat(result.retryable()).isEmpty();
+        assertThat(rowCount()).isEqualTo(3);
+    }
+
+    @Test
+    void unavailableDatabaseMakesWholeBatchRetryable() throws SQLException {
+        DataSource down = mock(DataSource.class);
+        when(down.getConnection()).thenThrow(new SQLException("Connection refused", "08001"));
+        BookingWriter downWriter = newWriter(new JdbcTemplate(down));
+        List<BookingWriter.BookingRecord> batch = bookings(4);
+
+        BookingWriter.WriteResult result = downWriter.write(batch);
+
+        assertThat(result.retryable()).containsExactlyElementsOf(batch);
+        assertThat(result.rejected()).isEmpty();
+        assertThat(downWriter.isDatabaseAvailable()).isFalse();
+    }
+
+    @Test
+    void deadLetterPushesJsonWithReason() {
+        BookingWriter.BookingRecord booking = booking("dead-1", "theater-1");
+
+        writer.deadLetter(booking, "max-deliveries exceeded");
+
+        verify(listOps).rightPush(eq("booking:dead-letter"), argThat(json ->
+                json.contains("\"bookingId\":\"dead-1\"") && json.contains("\"reason\":\"max-deliveries exceeded\"")));
+        assertThat(count("dead_letter")).isEqualTo(1);
+    }
+
+    /**
+     * 행 단위 INSERT 대비 배치 INSERT 처리량. 기본 빌드에서는 건너뛴다 (mvn test -Dbenchmark=true).
+     */
+    @Test
+    @EnabledIfSystemProperty(named = "benchmark", matches = "true")
+    void batchThroughputBenchmark() {
+        int rows = 20_000;
+        int batchSize = 200;
+
+        List<BookingWriter.BookingRecord> single = bookings(rows);
+        long start = System.nanoTime();
+        for (BookingWriter.BookingRecord booking : single) {
+            writer.write(List.of(booking));
+        }
+        double singleSeconds = (System.nanoTime() - start) / 1e9;
+
+        List<BookingWriter.BookingRecord> batched = bookings(rows);
+        start = System.nanoTime();
+        for (int i = 0; i < rows; i += batchSize) {
+            writer.write(batched.subList(i, Math.min(rows, i + batchSize)));
+        }
+        double batchSeconds = (System.nanoTime() - start) / 1e9;
+
+        System.out.printf("booking write: single %.0f rows/s, batch(%d) %.0f rows/s%n",
+                rows / singleSeconds, batchSize, rows / batchSeconds);
+        assertThat(rowCount()).isEqualTo(rows * 2);
+    }
+
+    private BookingWriter newWriter(JdbcTemplate template) {
+        BookingWriter bookingWriter = new BookingWriter(template, redisTemplate, new ObjectMapper(), meterRegistry);
+        ReflectionTestUtils.setField(bookingWriter, "maxRetries", 0);
+        return bookingWriter;
+    }
+
+    private int rowCount() {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM bookings", Integer.class);
+    }
+
+    private double count(String result) {
+        return meterRegistry.get("cgv_booking_write_total").tag("result", result).counter().count();
+    }
+
+    private static List<BookingWriter.BookingRecord> bookings(int count) {
+        List<BookingWriter.BookingRecord> bookings = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            bookings.add(booking(UUID.randomUUID().toString(), "theater-" + (i % 10)));
+        }
+        return bookings;
+    }
+
+    private static BookingWriter.BookingRecord booking(String bookingId, String theaterId) {
+        return new BookingWriter.BookingRecord(bookingId, "movie-1", theaterId, "[\"A1\",\"A2\"]",
+                24000, "req-" + bookingId.substring(0, Math.min(8, bookingId.length())), System.currentTimeMillis());
+    }
+}
@@ -0,0 +1,76 @@
+package com.example.seats.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * LocalRefreshCache TTL 재사용 / 갱신 중 기존 값 반환 / 항목 수 상한
+ */
+class LocalRefreshCacheTest {
+
+    @Test
+    void reusesValueWithinTtl() {
+        AtomicInteger loads = new AtomicInteger();
+        LocalRefreshCache<String, Integer> cache =
+                new LocalRefreshCache<>(10, 60_000, (key, previous) -> loads.incrementAndGet());
+
+        assertThat(cache.get("m1")).isEqualTo(1);
+        assertThat(cache.get("m1")).isEqualTo(1);
+        assertThat(loads).hasValue(1);
+    }
+
+    @Test
+    void passesPreviousValueToLoaderAfterTtl() {
+        LocalRefreshCache<String, Integer> cache =
+                new LocalRefreshCache<>(10, 0, (key, previous) -> previous == null ? 1 : previous + 1);
+
+        assertThat(cache.get("m1")).isEqualTo(1);
+        assertThat(cache.get("m1")).isEqualTo(2);
+    }
+
+    @Test
+    void returnsStaleValueWhileAnotherCallerRefreshes() throws Exception {
+        CountDownLatch refreshing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        LocalRefreshCache<String, Integer> cache = new LocalRefreshCache<>(10, 0, (key, previous) -> {
+            if (previous == null) {
+                return 1;
+            }
+            refreshing.countDown();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return 2;
+        });
+        cache.get("m1");
+
+        CompletableFuture<Integer> refresh = CompletableFuture.supplyAsync(() -> cache.get("m1"));
+        assertThat(refreshing.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(cache.get("m1")).isEqualTo(1);
+
+        release.countDown();
+        assertThat(refresh.get(5, TimeUnit.SECONDS)).isEqualTo(2);
+    }
+
+    @Test
+    void loadsWithoutCachingOverMaxEntries() {
+        AtomicInteger loads = new AtomicInteger();
+        LocalRefreshCache<String, Integer> cache =
+                new LocalRefreshCache<>(1, 60_000, (key, previous) -> loads.incrementAndGet());
+
+        cache.get("m1");
+        cache.get("m2");
+        cache.get("m2");
+
+        assertThat(loads).hasValue(3);
+        assertThat(cache.get("m1")).isEqualTo(1);
+    }
+}
@@ -0,0 +1,124 @@
+package com.example.seats.service;
+
+import com.example.redis.LuaScriptRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assumptions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * seat_allocate.lua 마이크로벤치마크 - 실제 Redis 필요, 기본 빌드에서는 건너뛴다.
+ *
+ *   mvn test -Dtest=SeatAllocateBenchmarkTest -Dbenchmark=true [-Dbenchmark.redis.host=localhost -Dbenchmark.redis.port=6379]
+ *
+ * 상영관이 찰 때까지 2석 자동 배정을 반복해 호출당 지연(p50/p99)과 처리량을 잰다.
+ * 행 수·행 길이에 따라 탐색 비용이 달라지므로 배치(15x20, 26x40, 행별 좌석 수가 다른 상영관)별로 따로 출력하고,
+ * 빈자리가 줄수록 스크립트의 행 탐색이 길어지므로 호출 순번 구간별로 나눠 출력한다.
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class SeatAllocateBenchmarkTest {
+
+    private static final int THEATERS = 50;
+    private static final int SEATS_PER_CALL = 2;
+
+    private LettuceConnectionFactory connectionFactory;
+    private StringRedisTemplate redisTemplate;
+    private SeatInventory seatInventory;
+    private final String movieId = "bench-" + UUID.randomUUID();
+
+    @BeforeEach
+    void setUp() {
+        RedisStandaloneConfiguration config = new RedisStandaloneConfiguration(
+                System.getProperty("benchmark.redis.host", "localhost"),
+                Integer.getInteger("benchmark.redis.port", 6379));
+        connectionFactory = new LettuceConnectionFactory(config);
+        connectionFactory.afterPropertiesSet();
+        connectionFactory.start();
+        redisTemplate = new StringRedisTemplate(connectionFactory);
+        try {
+            redisTemplate.execute(connection -> connection.ping(), true);
+        } catch (Exception e) {
+            Assumptions.abort("Redis 연결 불가 - 벤치마크 건너뜀: " + e.getMessage());
+        }
+
+        LuaScriptRegistry scriptRegistry = new LuaScriptRegistry(redisTemplate, new SimpleMeterRegistry());
+        ReflectionTestUtils.invokeMethod(scriptRegistry, "loadScripts");
+        seatInventory = new SeatInventory(redisTemplate, scriptRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (seatInventory != null) {
+            List<String> keys = new ArrayList<>();
+            for (int t = 0; t < THEATERS; t++) {
+                keys.addAll(seatInventory.keys(movieId, "T" + t));
+                redisTemplate.opsForSet().remove("seats:hold_theaters", movieId + "/T" + t);
+            }
+            redisTemplate.delete(keys);
+            redisTemplate.delete(redisTemplate.keys("seats:{" + movieId + "}:holder:*"));
+        }
+        connectionFactory.destroy();
+    }
+
+    @ParameterizedTest(name = "{0}x{1} {2}")
+    @CsvSource(delimiter = '|', value = {
+            "15 | 20 | ''",
+            "26 | 40 | ''",
+            "14 | 24 | 12,14,16,18,20,22,24,24,24,24,24,24,20,16"
+    })
+    void allocateUntilFull(int rows, int seatsPerRow, String rowWidths) {
+        SeatLayout layout = SeatLayoutTest.layout(rows, seatsPerRow, rowWidths);
+        int seats = 0;
+        for (int row = 0; row < rows; row++) {
+            seats += layout.rowWidth(row);
+        }
+        int callsPerTheater = seats / SEATS_PER_CALL;
+        int buckets = 4;
+        long[][] latencies = new long[buckets][THEATERS * callsPerTheater / buckets + THEATERS];
+        int[] counts = new int[buckets];
+        int allocated = 0;
+
+        long start = System.nanoTime();
+        for (int t = 0; t < THEATERS; t++) {
+            String theaterId = "T" + t;
+            for (int call = 0; call < callsPerTheater; call++) {
+                long callStart = System.nanoTime();
+                SeatInventory.Allocation allocation = seatInventory.allocate(movieId, theaterId, SEATS_PER_CALL,
+                        SeatZone.MIDDLE.preferredRow(layout.getRows()), layout, "req-" + t + "-" + call,
+                        SeatInventory.HOLD_TTL_MS, SEATS_PER_CALL);
+                int bucket = call * buckets / callsPerTheater;
+                latencies[bucket][counts[bucket]++] = System.nanoTime() - callStart;
+                if (!allocation.seats().isEmpty()) {
+                    allocated++;
+                }
+            }
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        System.out.printf("seat_allocate %dx%d%s (%d seats): %d calls (%d allocated, rest found no block), %.0f calls/s%n",
+                rows, seatsPerRow, rowWidths.isEmpty() ? "" : " row-widths=" + rowWidths, seats, THEATERS * callsPerTheater, allocated, THEATERS * callsPerTheater / seconds);
+        for (int bucket = 0; bucket < buckets; bucket++) {
+            long[] sorted = Arrays.copyOf(latencies[bucket], counts[bucket]);
+            Arrays.sort(sorted);
+            System.out.printf("  calls %3d-%3d%%: p50 %.0f us, p99 %.0f us%n",
+                    bucket * 100 / buckets, (bucket + 1) * 100 / buckets,
+                    sorted[sorted.length / 2] / 1e3, sorted[(int) (sorted.length * 0.99)] / 1e3);
+        }
+        // 중앙부터 채우므로 행 양끝에 1석씩 남을 수 있다 (마지막 구간은 빈 블록 없음 = 전체 탐색 비용)
+        assertThat(allocated).isPositive();
+    }
+}
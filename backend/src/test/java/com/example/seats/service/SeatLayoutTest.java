@@ -0,0 +1,77 @@
+package com.example.seats.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * SeatLayout 좌석 ID <-> 비트맵 인덱스 변환, 행별 좌석 수
+ */
+class SeatLayoutTest {
+
+    @Test
+    void indexIsRowTimesSeatsPerRowPlusNumber() {
+        SeatLayout layout = layout(15, 20, "");
+
+        assertThat(layout.indexOf("A1")).isZero();
+        assertThat(layout.indexOf("A20")).isEqualTo(19);
+        assertThat(layout.indexOf("B1")).isEqualTo(20);
+        assertThat(layout.indexOf("c14")).isEqualTo(2 * 20 + 13);
+        assertThat(layout.indexOf("O20")).isEqualTo(layout.capacity() - 1);
+        assertThat(layout.capacity()).isEqualTo(300);
+    }
+
+    @Test
+    void seatIdOfIsTheInverseOfIndexOf() {
+        SeatLayout layout = layout(15, 20, "");
+
+        for (int index = 0; index < layout.capacity(); index++) {
+            assertThat(layout.indexOf(layout.seatIdOf(index))).isEqualTo(index);
+        }
+        assertThat(layout.seatIdOf(43)).isEqualTo("C4");
+    }
+
+    @Test
+    void rowWidthsLimitValidSeats() {
+        SeatLayout layout = layout(4, 20, "12, 14,20");
+
+        assertThat(layout.rowWidth(0)).isEqualTo(12);
+        assertThat(layout.rowWidth(1)).isEqualTo(14);
+        assertThat(layout.rowWidth(2)).isEqualTo(20);
+        assertThat(layout.rowWidth(3)).isZero();
+        assertThat(layout.indexOf("A12")).isEqualTo(11);
+        assertThat(layout.indexOf("B14")).isEqualTo(20 + 13);
+        assertThatThrownBy(() -> layout.indexOf("A13")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> layout.indexOf("D1")).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void malformedOrOutOfGridSeatIdsAreRejected() {
+        SeatLayout layout = layout(15, 20, "");
+
+        for (String seatId : new String[]{null, "", "A", "A0", "A21", "P1", "1A", "AX", "@1"}) {
+            assertThatThrownBy(() -> layout.indexOf(seatId))
+                    .as(String.valueOf(seatId))
+                    .isInstanceOf(IllegalArgumentException.class);
+        }
+        assertThatThrownBy(() -> layout.seatIdOf(-1)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> layout.seatIdOf(300)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void invalidRowWidthsFailStartup() {
+        assertThatThrownBy(() -> layout(2, 20, "10,10,10")).isInstanceOf(IllegalStateException.class);
+        assertThatThrownBy(() -> layout(2, 20, "21")).isInstanceOf(IllegalStateException.class);
+    }
+
+    static SeatLayout layout(int rows, int seatsPerRow, String rowWidths) {
+        SeatLayout layout = new SeatLayout();
+        ReflectionTestUtils.setField(layout, "rows", rows);
+        ReflectionTestUtils.setField(layout, "seatsPerRow", seatsPerRow);
+        ReflectionTestUtils.setField(layout, "rowWidthsSpec", rowWidths);
+        layout.init();
+        return layout;
+    }
+}
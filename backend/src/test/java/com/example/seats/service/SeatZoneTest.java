@@ -0,0 +1,40 @@
+package com.example.seats.service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * SeatZone 구역 중심 행 계산 / 이름 해석
+ */
+class SeatZoneTest {
+
+    @Test
+    void preferredRowIsRoundedZonePosition() {
+        assertThat(SeatZone.FRONT.preferredRow(15)).isEqualTo(3);
+        assertThat(SeatZone.MIDDLE.preferredRow(15)).isEqualTo(7);
+        assertThat(SeatZone.BACK.preferredRow(15)).isEqualTo(11);
+
+        assertThat(SeatZone.MIDDLE.preferredRow(10)).isEqualTo(5);
+        assertThat(SeatZone.BACK.preferredRow(10)).isEqualTo(7);
+    }
+
+    @Test
+    void preferredRowStaysInsideTheGrid() {
+        for (SeatZone zone : SeatZone.values()) {
+            for (int rows = 1; rows <= 26; rows++) {
+                assertThat(zone.preferredRow(rows)).isBetween(0, rows - 1);
+            }
+        }
+    }
+
+    @Test
+    void fromIgnoresCaseAndDefaultsToMiddle() {
+        assertThat(SeatZone.from(" front ")).isEqualTo(SeatZone.FRONT);
+        assertThat(SeatZone.from("Back")).isEqualTo(SeatZone.BACK);
+        assertThat(SeatZone.from(null)).isEqualTo(SeatZone.MIDDLE);
+        assertThat(SeatZone.from("")).isEqualTo(SeatZone.MIDDLE);
+        assertThatThrownBy(() -> SeatZone.from("balcony")).isInstanceOf(IllegalArgumentException.class);
+    }
+}